@@ -0,0 +1,87 @@
+/**
+ * Measures withdrawal throughput on a single ATM shared by several threads.
+ *
+ * <p> Every thread withdraws 20 at a time until the machine is empty. Compares the plain ATM
+ * (which overdraws and loses updates under contention), the plain ATM guarded by its monitor,
+ * and the lock-free ConcurrentATM, and reports the cash handed out against the cash loaded.
+ */
+public class ATMBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional thread count and number of withdrawals the machine is loaded for
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        int withdrawals = args.length > 1 ? Integer.parseInt(args[1]) : 4_000_000;
+        double loaded = withdrawals * 20.0;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println("Round " + (round + 1) + ", " + threads + " threads, " + withdrawals + " withdrawals loaded");
+            report("ATM (unsynchronized)", run(threads, new ATM("1", loaded), false), loaded, withdrawals);
+            report("ATM (synchronized)", run(threads, new ATM("2", loaded), true), loaded, withdrawals);
+            report("ConcurrentATM", run(threads, new ConcurrentATM("3", loaded), false), loaded, withdrawals);
+        }
+    }
+
+    /**
+     * Lets every thread withdraw until the ATM refuses.
+     *
+     * @param threads the number of threads
+     * @param atm the shared ATM
+     * @param synchronize whether every withdrawal takes the ATM's monitor
+     * @return the elapsed time in nanoseconds and the cash handed out
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    private static double[] run(int threads, ATM atm, boolean synchronize) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        long[] handedOut = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            workers[t] = new Thread(() -> {
+                while (true) {
+                    try {
+                        if (synchronize) {
+                            synchronized (atm) {
+                                atm.withdrawCash(20);
+                            }
+                        } else {
+                            atm.withdrawCash(20);
+                        }
+                        handedOut[index] += 20;
+                    } catch (IllegalStateException e) {
+                        return;
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        long total = 0;
+        for (long cash : handedOut) {
+            total += cash;
+        }
+        return new double[] {elapsed, total};
+    }
+
+    /**
+     * Prints the throughput and the cash handed out of one run.
+     *
+     * @param name the name of the variant
+     * @param result the elapsed nanoseconds and the cash handed out
+     * @param loaded the cash the ATM was loaded with
+     * @param withdrawals the number of withdrawals the cash covers
+     */
+    private static void report(String name, double[] result, double loaded, int withdrawals) {
+        System.out.printf("  %-22s %6.1f M withdrawals/s, handed out %.0f of %.0f%n",
+                name, withdrawals / (result[0] / 1e3), result[1], loaded);
+    }
+}
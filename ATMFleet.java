@@ -0,0 +1,425 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Manages a fleet of ATMs identified by unique IDs.
+ *
+ * <p> The fleet indexes its machines by location and keeps them in a sorted set ordered by cash
+ * balance, so the machines below a cash level are read from the front of the set in time
+ * proportional to their number, without asking every ATM whether it is low on cash. To keep the
+ * order current, cash must be deposited and withdrawn through the fleet; after changing an ATM
+ * directly, call {@link #refresh(String)}.
+ *
+ * <p> The fleet plans replenishment by topping up every low-cash ATM to a target balance, with the
+ * refills grouped per location so that one cash delivery can serve all machines at a site, and can
+ * produce such plans periodically on a {@link ScheduledExecutorService}. All methods are synchronized.
+ */
+public class ATMFleet {
+
+    /**
+     * The cash balance below which an ATM is low on cash, as in {@link ATM#isLowOnCash()}.
+     */
+    public static final double LOW_CASH_THRESHOLD = ConcurrentATM.LOW_CASH_THRESHOLD;
+
+    /**
+     * The logger reporting failed scheduled replenishment runs.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ATMFleet.class.getName());
+
+    /**
+     * Orders fleet entries by cash balance, then by ATM ID.
+     */
+    private static final Comparator<Entry> BY_CASH =
+            Comparator.comparingDouble((Entry entry) -> entry.cash).thenComparing(entry -> entry.atmId);
+
+    /**
+     * A position of an ATM in the cash order. Entries are immutable; a change of cash replaces the entry.
+     */
+    private static final class Entry {
+
+        /**
+         * The cash balance of the ATM when the entry was made.
+         */
+        private final double cash;
+
+        /**
+         * The ID of the ATM.
+         */
+        private final String atmId;
+
+        /**
+         * Constructs an entry.
+         *
+         * @param cash the cash balance of the ATM
+         * @param atmId the ID of the ATM
+         */
+        Entry(double cash, String atmId) {
+            this.cash = cash;
+            this.atmId = atmId;
+        }
+    }
+
+    /**
+     * One refill of a replenishment plan.
+     */
+    public static final class Refill {
+
+        /**
+         * The ID of the ATM to refill.
+         */
+        private final String atmId;
+
+        /**
+         * The location of the ATM.
+         */
+        private final String location;
+
+        /**
+         * The amount of cash to add, as planned.
+         */
+        private final double amount;
+
+        /**
+         * The balance the refill brings the ATM up to.
+         */
+        private final double targetCash;
+
+        /**
+         * Constructs a refill.
+         *
+         * @param atmId the ID of the ATM to refill
+         * @param location the location of the ATM
+         * @param amount the amount of cash to add
+         * @param targetCash the balance the refill brings the ATM up to
+         */
+        Refill(String atmId, String location, double amount, double targetCash) {
+            this.atmId = atmId;
+            this.location = location;
+            this.amount = amount;
+            this.targetCash = targetCash;
+        }
+
+        /**
+         * Returns the ID of the ATM to refill.
+         *
+         * @return the ATM ID
+         */
+        public String getAtmId() {
+            return atmId;
+        }
+
+        /**
+         * Returns the location of the ATM to refill.
+         *
+         * @return the location
+         */
+        public String getLocation() {
+            return location;
+        }
+
+        /**
+         * Returns the amount of cash to add, based on the ATM's balance when the plan was made.
+         *
+         * @return the planned refill amount
+         */
+        public double getAmount() {
+            return amount;
+        }
+
+        /**
+         * Returns the balance the refill brings the ATM up to.
+         *
+         * @return the target cash balance
+         */
+        public double getTargetCash() {
+            return targetCash;
+        }
+    }
+
+    /**
+     * The ATMs of the fleet by ID.
+     */
+    private final Map<String, ATM> atms = new HashMap<>();
+
+    /**
+     * The IDs of the ATMs at each location, in registration order.
+     */
+    private final Map<String, List<String>> idsByLocation = new HashMap<>();
+
+    /**
+     * The current entry of each ATM in {@link #byCash}.
+     */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * The ATMs ordered by cash balance.
+     */
+    private final NavigableSet<Entry> byCash = new TreeSet<>(BY_CASH);
+
+    /**
+     * Adds an ATM to the fleet.
+     *
+     * @param atmId the unique ID of the ATM
+     * @param atm the ATM
+     * @throws IllegalArgumentException if the ID or the ATM is null, or the ID is already in the fleet
+     */
+    public synchronized void addATM(String atmId, ATM atm) {
+        if (atmId == null || atm == null) {
+            throw new IllegalArgumentException("ATM ID and ATM cannot be null.");
+        }
+        if (atms.containsKey(atmId)) {
+            throw new IllegalArgumentException("ATM with this ID already exists.");
+        }
+        atms.put(atmId, atm);
+        idsByLocation.computeIfAbsent(atm.getLocation(), location -> new ArrayList<>()).add(atmId);
+        Entry entry = new Entry(atm.getCashBalance(), atmId);
+        entries.put(atmId, entry);
+        byCash.add(entry);
+    }
+
+    /**
+     * Removes an ATM from the fleet.
+     *
+     * @param atmId the ID of the ATM
+     * @throws IllegalArgumentException if no ATM with the ID is in the fleet
+     */
+    public synchronized void removeATM(String atmId) {
+        ATM atm = getExisting(atmId);
+        atms.remove(atmId);
+        List<String> atLocation = idsByLocation.get(atm.getLocation());
+        atLocation.remove(atmId);
+        if (atLocation.isEmpty()) {
+            idsByLocation.remove(atm.getLocation());
+        }
+        byCash.remove(entries.remove(atmId));
+    }
+
+    /**
+     * Returns the ATM with the given ID.
+     *
+     * @param atmId the ID of the ATM
+     * @return the ATM, or null if it is not in the fleet
+     */
+    public synchronized ATM getATM(String atmId) {
+        return atms.get(atmId);
+    }
+
+    /**
+     * Returns the number of ATMs in the fleet.
+     *
+     * @return the number of ATMs
+     */
+    public synchronized int getNumATMs() {
+        return atms.size();
+    }
+
+    /**
+     * Returns the IDs of the ATMs at a location.
+     *
+     * @param location the location
+     * @return an unmodifiable list of the IDs, in the order the ATMs were added
+     */
+    public synchronized List<String> getATMsAt(String location) {
+        List<String> ids = idsByLocation.get(location);
+        return ids == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(ids));
+    }
+
+    /**
+     * Deposits cash into an ATM of the fleet.
+     *
+     * @param atmId the ID of the ATM
+     * @param amount the amount to deposit
+     * @throws IllegalArgumentException if no ATM with the ID is in the fleet or the amount is negative
+     */
+    public synchronized void depositCash(String atmId, double amount) {
+        getExisting(atmId).depositCash(amount);
+        refresh(atmId);
+    }
+
+    /**
+     * Withdraws cash from an ATM of the fleet.
+     *
+     * @param atmId the ID of the ATM
+     * @param amount the amount to withdraw
+     * @throws IllegalArgumentException if no ATM with the ID is in the fleet or the amount is not greater than zero
+     * @throws IllegalStateException if the ATM does not have sufficient cash
+     */
+    public synchronized void withdrawCash(String atmId, double amount) {
+        getExisting(atmId).withdrawCash(amount);
+        refresh(atmId);
+    }
+
+    /**
+     * Updates the position of an ATM in the cash order after its cash was changed outside the fleet.
+     *
+     * @param atmId the ID of the ATM
+     * @throws IllegalArgumentException if no ATM with the ID is in the fleet
+     */
+    public synchronized void refresh(String atmId) {
+        ATM atm = getExisting(atmId);
+        Entry current = entries.get(atmId);
+        double cash = atm.getCashBalance();
+        if (current.cash == cash) {
+            return;
+        }
+        byCash.remove(current);
+        Entry updated = new Entry(cash, atmId);
+        entries.put(atmId, updated);
+        byCash.add(updated);
+    }
+
+    /**
+     * Returns the IDs of the ATMs that are low on cash, those with less than {@link #LOW_CASH_THRESHOLD}.
+     *
+     * @return the IDs ordered by cash balance, lowest first
+     */
+    public List<String> getLowCashATMs() {
+        return getATMsBelow(LOW_CASH_THRESHOLD);
+    }
+
+    /**
+     * Returns the IDs of the ATMs with less than the given cash balance. Takes time proportional
+     * to the number of results.
+     *
+     * @param cash the cash balance
+     * @return the IDs ordered by cash balance, lowest first
+     */
+    public synchronized List<String> getATMsBelow(double cash) {
+        List<String> ids = new ArrayList<>();
+        for (Entry entry : byCash) {
+            if (!(entry.cash < cash)) {
+                break;
+            }
+            ids.add(entry.atmId);
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the IDs of the ATMs with the least cash.
+     *
+     * @param count the maximum number of IDs to return
+     * @return the IDs ordered by cash balance, lowest first
+     */
+    public synchronized List<String> getLowestCashATMs(int count) {
+        List<String> ids = new ArrayList<>(Math.min(Math.max(count, 0), byCash.size()));
+        for (Entry entry : byCash) {
+            if (ids.size() >= count) {
+                break;
+            }
+            ids.add(entry.atmId);
+        }
+        return ids;
+    }
+
+    /**
+     * Plans a refill of every low-cash ATM up to the target balance, grouped by location.
+     *
+     * <p> Locations appear in the order of their lowest ATM, so the most urgent site comes first.
+     * The plan is not applied; deliver the cash with {@link #depositCash(String, double)} or
+     * {@link #replenish(Map)}.
+     *
+     * @param targetCash the balance to bring each low-cash ATM up to
+     * @return the refills of each location
+     * @throws IllegalArgumentException if the target is less than {@link #LOW_CASH_THRESHOLD}
+     */
+    public synchronized Map<String, List<Refill>> planReplenishment(double targetCash) {
+        if (targetCash < LOW_CASH_THRESHOLD) {
+            throw new IllegalArgumentException("Target cash must be at least the low-cash threshold.");
+        }
+        Map<String, List<Refill>> plan = new LinkedHashMap<>();
+        for (Entry entry : byCash) {
+            if (!(entry.cash < LOW_CASH_THRESHOLD)) {
+                break;
+            }
+            String location = atms.get(entry.atmId).getLocation();
+            plan.computeIfAbsent(location, key -> new ArrayList<>())
+                    .add(new Refill(entry.atmId, location, targetCash - entry.cash, targetCash));
+        }
+        return plan;
+    }
+
+    /**
+     * Applies a replenishment plan by topping up every ATM of the plan to its target balance.
+     *
+     * <p> The amount deposited is computed from the ATM's cash balance at the time of the call, not
+     * taken from the plan, so a plan that has gone stale never fills a machine beyond its target.
+     * ATMs that have left the fleet or are within a cent of the target are skipped.
+     *
+     * @param plan the refills of each location
+     */
+    public synchronized void replenish(Map<String, List<Refill>> plan) {
+        for (List<Refill> refills : plan.values()) {
+            for (Refill refill : refills) {
+                ATM atm = atms.get(refill.getAtmId());
+                if (atm == null) {
+                    continue;
+                }
+                double topUp = refill.getTargetCash() - atm.getCashBalance();
+                if (ConcurrentAccount.toCents(topUp) > 0) {
+                    depositCash(refill.getAtmId(), topUp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Plans replenishment periodically and hands each non-empty plan to a dispatcher, which
+     * arranges the deliveries and applies them, for example with {@link #replenish(Map)}.
+     *
+     * <p> A run that fails, for example because the dispatcher throws, is logged and does not
+     * stop later runs.
+     *
+     * @param executor the executor running the planner
+     * @param period the time between two plans
+     * @param unit the unit of the period
+     * @param targetCash the balance to bring each low-cash ATM up to
+     * @param dispatcher receives each non-empty plan
+     * @return the future of the periodic task, which can be used to cancel it
+     * @throws IllegalArgumentException if the target is less than {@link #LOW_CASH_THRESHOLD}
+     */
+    public ScheduledFuture<?> scheduleReplenishment(ScheduledExecutorService executor, long period, TimeUnit unit,
+                                                    double targetCash, Consumer<Map<String, List<Refill>>> dispatcher) {
+        if (targetCash < LOW_CASH_THRESHOLD) {
+            throw new IllegalArgumentException("Target cash must be at least the low-cash threshold.");
+        }
+        return executor.scheduleAtFixedRate(() -> {
+            try {
+                Map<String, List<Refill>> plan = planReplenishment(targetCash);
+                if (!plan.isEmpty()) {
+                    dispatcher.accept(plan);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Scheduled replenishment failed.", e);
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Returns the ATM with the given ID, failing if it is not in the fleet.
+     *
+     * @param atmId the ID of the ATM
+     * @return the ATM
+     * @throws IllegalArgumentException if no ATM with the ID is in the fleet
+     */
+    private ATM getExisting(String atmId) {
+        ATM atm = atms.get(atmId);
+        if (atm == null) {
+            throw new IllegalArgumentException("ATM not found.");
+        }
+        return atm;
+    }
+}
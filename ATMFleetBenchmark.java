@@ -0,0 +1,66 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares finding the low-cash ATMs of a large fleet by polling every ATM with {@link ATMFleet}.
+ *
+ * <p> Builds a fleet where about one machine in a hundred is low on cash, then repeatedly finds the
+ * low-cash machines by calling {@link ATM#isLowOnCash()} on every ATM and by asking the fleet,
+ * with a stream of withdrawals through the fleet between queries.
+ */
+public class ATMFleetBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of ATMs and number of queries
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Random random = new Random(1);
+        ATMFleet fleet = new ATMFleet();
+        List<ATM> all = new ArrayList<>();
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = "ATM-" + i;
+            double cash = random.nextInt(100) == 0 ? random.nextInt(1000) : 1000 + random.nextInt(50_000);
+            ATM atm = new ATM("Site-" + (i / 4), cash);
+            all.add(atm);
+            fleet.addATM(ids[i], atm);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            long scanned = 0;
+            for (int q = 0; q < queries; q++) {
+                for (ATM atm : all) {
+                    if (atm.isLowOnCash()) {
+                        scanned++;
+                    }
+                }
+            }
+            long scanNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long indexed = 0;
+            for (int q = 0; q < queries; q++) {
+                indexed += fleet.getLowCashATMs().size();
+            }
+            long indexNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int updates = 100_000;
+            for (int i = 0; i < updates; i++) {
+                String id = ids[random.nextInt(count)];
+                fleet.depositCash(id, 20);
+                fleet.withdrawCash(id, 20);
+            }
+            long updateNanos = System.nanoTime() - start;
+            System.out.printf("Round %d, %d ATMs: full scan %.1f us/query, fleet index %.1f us/query (%d / %d), fleet update %.0f ns%n",
+                    round + 1, count, scanNanos / 1e3 / queries, indexNanos / 1e3 / queries, scanned, indexed,
+                    (double) updateNanos / (2 * updates));
+        }
+    }
+}
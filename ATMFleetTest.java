@@ -0,0 +1,167 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ATMFleetTest {
+    private ATMFleet fleet;
+
+    @Before
+    public void setUp() {
+        fleet = new ATMFleet();
+        fleet.addATM("A1", new ATM("Downtown", 5000));
+        fleet.addATM("A2", new ATM("Downtown", 800));
+        fleet.addATM("B1", new ConcurrentATM("Airport", 300));
+        fleet.addATM("C1", new ATM("Station", 1500));
+    }
+
+    @Test
+    public void testLocationIndex() {
+        assertEquals(Arrays.asList("A1", "A2"), fleet.getATMsAt("Downtown"));
+        assertEquals(Arrays.asList("B1"), fleet.getATMsAt("Airport"));
+        assertTrue(fleet.getATMsAt("Harbour").isEmpty());
+        assertEquals(4, fleet.getNumATMs());
+    }
+
+    @Test
+    public void testLowCashATMsOrderedByCash() {
+        assertEquals(Arrays.asList("B1", "A2"), fleet.getLowCashATMs());
+        assertEquals(Arrays.asList("B1", "A2", "C1"), fleet.getATMsBelow(2000));
+        assertEquals(Arrays.asList("B1", "A2", "C1"), fleet.getLowestCashATMs(3));
+    }
+
+    @Test
+    public void testWithdrawAndDepositUpdateOrder() {
+        fleet.withdrawCash("C1", 600);
+        assertEquals(Arrays.asList("B1", "A2", "C1"), fleet.getLowCashATMs());
+        fleet.depositCash("B1", 5000);
+        assertEquals(Arrays.asList("A2", "C1"), fleet.getLowCashATMs());
+        assertEquals(5300, fleet.getATM("B1").getCashBalance(), 0.001);
+    }
+
+    @Test
+    public void testRefreshAfterDirectChange() {
+        fleet.getATM("A1").withdrawCash(4500);
+        assertEquals(Arrays.asList("B1", "A2"), fleet.getLowCashATMs());
+        fleet.refresh("A1");
+        assertEquals(Arrays.asList("B1", "A1", "A2"), fleet.getLowCashATMs());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWithdrawInsufficientCash() {
+        fleet.withdrawCash("B1", 301);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownATM() {
+        fleet.depositCash("Z9", 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateATM() {
+        fleet.addATM("A1", new ATM("Harbour", 10));
+    }
+
+    @Test
+    public void testRemoveATM() {
+        fleet.removeATM("A2");
+        assertEquals(Arrays.asList("A1"), fleet.getATMsAt("Downtown"));
+        assertEquals(Arrays.asList("B1"), fleet.getLowCashATMs());
+        fleet.removeATM("B1");
+        assertTrue(fleet.getATMsAt("Airport").isEmpty());
+        assertNull(fleet.getATM("B1"));
+    }
+
+    @Test
+    public void testReplenishmentPlanGroupedByLocation() {
+        fleet.addATM("B2", new ATM("Airport", 900));
+        Map<String, List<ATMFleet.Refill>> plan = fleet.planReplenishment(4000);
+        assertEquals(Arrays.asList("Airport", "Downtown"), Arrays.asList(plan.keySet().toArray()));
+        List<ATMFleet.Refill> airport = plan.get("Airport");
+        assertEquals(2, airport.size());
+        assertEquals("B1", airport.get(0).getAtmId());
+        assertEquals(3700, airport.get(0).getAmount(), 0.001);
+        assertEquals(3100, airport.get(1).getAmount(), 0.001);
+        assertEquals("Downtown", plan.get("Downtown").get(0).getLocation());
+
+        fleet.replenish(plan);
+        assertTrue(fleet.getLowCashATMs().isEmpty());
+        assertEquals(4000, fleet.getATM("A2").getCashBalance(), 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPlanTargetBelowThreshold() {
+        fleet.planReplenishment(500);
+    }
+
+    @Test
+    public void testScheduledReplenishment() throws Exception {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        CountDownLatch dispatched = new CountDownLatch(1);
+        AtomicReference<Map<String, List<ATMFleet.Refill>>> received = new AtomicReference<>();
+        try {
+            ScheduledFuture<?> future = fleet.scheduleReplenishment(executor, 10, TimeUnit.MILLISECONDS, 2000, plan -> {
+                fleet.replenish(plan);
+                received.compareAndSet(null, plan);
+                dispatched.countDown();
+            });
+            assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+            future.cancel(false);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, received.get().size());
+        assertTrue(fleet.getLowCashATMs().isEmpty());
+    }
+
+    @Test
+    public void testStalePlanDoesNotOverfill() {
+        Map<String, List<ATMFleet.Refill>> plan = fleet.planReplenishment(4000);
+        assertEquals(3700, plan.get("Airport").get(0).getAmount(), 0.001);
+        assertEquals(4000, plan.get("Airport").get(0).getTargetCash(), 0);
+        fleet.depositCash("B1", 2000);
+        fleet.replenish(plan);
+        assertEquals(4000, fleet.getATM("B1").getCashBalance(), 0.001);
+        fleet.depositCash("B1", 1000);
+        fleet.replenish(plan);
+        assertEquals(5000, fleet.getATM("B1").getCashBalance(), 0.001);
+    }
+
+    @Test
+    public void testScheduledReplenishmentSurvivesFailingDispatcher() throws Exception {
+        Logger logger = Logger.getLogger(ATMFleet.class.getName());
+        Level level = logger.getLevel();
+        logger.setLevel(Level.OFF);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch dispatched = new CountDownLatch(1);
+        try {
+            ScheduledFuture<?> future = fleet.scheduleReplenishment(executor, 10, TimeUnit.MILLISECONDS, 2000, plan -> {
+                if (runs.incrementAndGet() == 1) {
+                    throw new IllegalStateException("dispatcher failure");
+                }
+                fleet.replenish(plan);
+                dispatched.countDown();
+            });
+            assertTrue(dispatched.await(5, TimeUnit.SECONDS));
+            assertFalse(future.isDone());
+            future.cancel(false);
+        } finally {
+            executor.shutdownNow();
+            logger.setLevel(level);
+        }
+        assertTrue(runs.get() >= 2);
+        assertTrue(fleet.getLowCashATMs().isEmpty());
+    }
+}
@@ -0,0 +1,186 @@
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The operations shared by the transaction logs, independent of how a log stores its entries.
+ *
+ * <p> A log is append-only and safe to use from several threads. Implementations store the
+ * transactions and keep the running totals; this class derives the copying list, the snapshot,
+ * the details text and the lookups by type name from those primitives. {@link TransactionLog}
+ * keeps Transaction objects, {@link ColumnarTransactionLog} keeps primitive columns.
+ */
+public abstract class AbstractTransactionLog {
+
+    /**
+     * Constructs an empty log. Implementations are {@link TransactionLog} and
+     * {@link ColumnarTransactionLog}.
+     */
+    AbstractTransactionLog() {
+    }
+
+    /**
+     * Adds a transaction to the log.
+     *
+     * @param transaction transaction to add to the log
+     * @throws IllegalArgumentException if the transaction is null, has an invalid type,
+     *                                  or has the same ID as a transaction already in the log
+     */
+    public abstract void addTransaction(Transaction transaction);
+
+    /**
+     * Returns a new list containing copies of the transactions in the log.
+     *
+     * <p> Allocates a list as large as the log; prefer {@link #getTransactionsSnapshot()} or
+     * {@link #getTransactions(int, int)} when only reading.
+     *
+     * @return a list containing copies of the transactions
+     */
+    public List<Transaction> getTransactions() {
+        return new ArrayList<>(getTransactionsSnapshot());
+    }
+
+    /**
+     * Returns an unmodifiable live view of the transactions in the log.
+     *
+     * <p> The view does not copy the log and reflects transactions added after it was created.
+     * Because the view grows while it is read, iterate over a snapshot instead when the log may
+     * be appended to at the same time.
+     *
+     * @return an unmodifiable view of the transactions
+     */
+    public abstract List<Transaction> getTransactionsView();
+
+    /**
+     * Returns an unmodifiable snapshot of the transactions currently in the log.
+     *
+     * <p> The snapshot does not copy the log. It always contains exactly the transactions that were
+     * in the log when it was taken, so it can be iterated safely while other threads keep adding
+     * transactions.
+     *
+     * @return an unmodifiable list of the transactions at the time of the call
+     */
+    public List<Transaction> getTransactionsSnapshot() {
+        return getTransactions(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns one page of the transactions in the log without copying the log.
+     *
+     * <p> The page is an unmodifiable snapshot of at most {@code limit} transactions starting at
+     * position {@code offset}; it is empty when the offset is at or past the end of the log.
+     *
+     * @param offset the position of the first transaction of the page
+     * @param limit the maximum number of transactions in the page
+     * @return an unmodifiable list of the transactions in the page
+     * @throws IllegalArgumentException if the offset or the limit is negative
+     */
+    public abstract List<Transaction> getTransactions(int offset, int limit);
+
+    /**
+     * Returns the number of transactions in the log.
+     *
+     * @return an int representing the number of transactions
+     */
+    public abstract int getNumTransactions();
+
+    /**
+     * Returns a string detailing all transactions in the log.
+     *
+     * @return a String containing details of all transactions
+     */
+    public String getTransactionDetails() {
+        StringBuilder details = new StringBuilder();
+        for (Transaction transaction : getTransactionsSnapshot()) {
+            transaction.appendDetails(details).append("\n");
+        }
+        return details.toString().trim();
+    }
+
+    /**
+     * Writes the details of all transactions in the log to the given destination, one line per transaction.
+     *
+     * <p> Produces the same lines as {@link #getTransactionDetails()} but streams them through a small
+     * reusable buffer, so memory use does not grow with the size of the log. The destination is
+     * flushed but not closed.
+     *
+     * @param out the destination, such as a Writer
+     * @throws IOException if the destination cannot be written
+     */
+    public void writeTransactionDetails(Appendable out) throws IOException {
+        writeTransactionDetails(new TransactionDetailsWriter(out));
+    }
+
+    /**
+     * Writes the details of all transactions in the log to the given channel as UTF-8, one line per transaction.
+     *
+     * <p> Produces the same lines as {@link #getTransactionDetails()} but streams them through small
+     * reusable buffers, so memory use does not grow with the size of the log. The channel is not closed.
+     *
+     * @param channel the destination channel, such as a FileChannel
+     * @throws IOException if the channel cannot be written
+     */
+    public void writeTransactionDetails(WritableByteChannel channel) throws IOException {
+        writeTransactionDetails(new TransactionDetailsWriter(channel));
+    }
+
+    /**
+     * Writes the details of a snapshot of the log through the given writer and finishes it.
+     *
+     * @param writer the writer to format the rows into
+     * @throws IOException if the destination cannot be written
+     */
+    abstract void writeTransactionDetails(TransactionDetailsWriter writer) throws IOException;
+
+    /**
+     * Returns the total amount of all transactions in the log.
+     *
+     * @return a double representing the total amount of the transactions
+     */
+    public abstract double getTotalAmount();
+
+    /**
+     * Returns the total amount for transactions of a specific type.
+     *
+     * @param type the type of transactions to sum (e.g., "Deposit" or "Withdrawal")
+     * @return a double representing the total amount of transactions of the specified type
+     */
+    public double getTotalAmountByType(String type) {
+        return getTotalAmountByType(TransactionType.parse(type));
+    }
+
+    /**
+     * Returns the total amount for transactions of a specific type.
+     *
+     * @param type the type of transactions to sum
+     * @return a double representing the total amount of transactions of the specified type, or 0 if the type is null
+     */
+    public abstract double getTotalAmountByType(TransactionType type);
+
+    /**
+     * Returns the number of transactions of a specific type in the log.
+     *
+     * @param type the type of transactions to count (e.g., "Deposit" or "Withdrawal")
+     * @return an int representing the number of transactions of the specified type
+     */
+    public int getNumTransactionsByType(String type) {
+        return getNumTransactionsByType(TransactionType.parse(type));
+    }
+
+    /**
+     * Returns the number of transactions of a specific type in the log.
+     *
+     * @param type the type of transactions to count
+     * @return an int representing the number of transactions of the specified type, or 0 if the type is null
+     */
+    public abstract int getNumTransactionsByType(TransactionType type);
+
+    /**
+     * Looks up and returns a transaction with the specified ID.
+     *
+     * @param transactionId the ID of the transaction to find
+     * @return a transaction with the specified ID, or null if no such transaction exists.
+     */
+    public abstract Transaction findTransactionById(String transactionId);
+}
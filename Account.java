@@ -61,6 +61,10 @@ public class Account {
     /**
      * Transfers the specified amount from this account to another account.
      *
+     * <p> The recipient is credited before this account is debited, so a deposit the recipient
+     * rejects leaves both balances unchanged. A {@link ConcurrentAccount} recipient is credited
+     * in whole cents, and this account is debited the same rounded amount.
+     *
      * @param otherAccount the recipient account of the transfer
      * @param amount the amount to be transferred
      * @throws IllegalArgumentException if the transfer amount is not positive or if insufficient funds are available for transfer
@@ -69,11 +73,14 @@ public class Account {
         if (amount <= 0) {
             throw new IllegalArgumentException("Transfer amount must be positive.");
         }
+        if (otherAccount instanceof ConcurrentAccount) {
+            amount = ConcurrentAccount.toCents(amount) / 100.0;
+        }
         if (amount > balance) {
             throw new IllegalArgumentException("Insufficient funds for transfer.");
         }
+        otherAccount.deposit(amount);
         this.balance -= amount;
-        otherAccount.balance += amount;
     }
 
     /**
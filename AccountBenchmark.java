@@ -0,0 +1,100 @@
+/**
+ * Measures deposit and withdrawal throughput on a single account shared by several threads.
+ *
+ * <p> Compares the plain Account (which loses updates under contention), the plain Account
+ * guarded by its monitor, and the lock-free ConcurrentAccount.
+ */
+public class AccountBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional thread count and operations per thread
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int opsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println("Round " + (round + 1) + ", " + threads + " threads x " + opsPerThread + " ops");
+            Account plain = new Account("1", 0);
+            report("Account (unsynchronized)", plain, run(threads, opsPerThread, plain, false), threads, opsPerThread);
+            Account locked = new Account("2", 0);
+            report("Account (synchronized)", locked, run(threads, opsPerThread, locked, true), threads, opsPerThread);
+            ConcurrentAccount concurrent = new ConcurrentAccount("3", 0);
+            report("ConcurrentAccount", concurrent, run(threads, opsPerThread, concurrent, false), threads, opsPerThread);
+        }
+    }
+
+    /**
+     * Runs alternating deposits and withdrawals of one cent from every thread.
+     *
+     * @param threads the number of threads
+     * @param opsPerThread the number of operations each thread performs
+     * @param account the shared account
+     * @param synchronize whether every operation takes the account's monitor
+     * @return the elapsed time in nanoseconds
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    private static long run(int threads, int opsPerThread, Account account, boolean synchronize)
+            throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < opsPerThread; i++) {
+                    if (synchronize) {
+                        synchronized (account) {
+                            apply(account, i);
+                        }
+                    } else {
+                        apply(account, i);
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Applies one benchmark operation: even iterations deposit two cents, odd ones withdraw one.
+     *
+     * @param account the account to operate on
+     * @param i the iteration number
+     */
+    private static void apply(Account account, int i) {
+        if ((i & 1) == 0) {
+            account.deposit(0.02);
+        } else {
+            try {
+                account.withdraw(0.01);
+            } catch (IllegalArgumentException e) {
+                // Insufficient funds are part of the workload.
+            }
+        }
+    }
+
+    /**
+     * Prints throughput and the number of cents lost to races.
+     *
+     * @param name the name of the variant
+     * @param account the account after the run
+     * @param nanos the elapsed time in nanoseconds
+     * @param threads the number of threads
+     * @param opsPerThread the number of operations each thread performed
+     */
+    private static void report(String name, Account account, long nanos, int threads, int opsPerThread) {
+        long ops = (long) threads * opsPerThread;
+        long expectedCents = ops / 2;
+        long actualCents = Math.round(account.getBalance() * 100);
+        System.out.printf("  %-26s %8.1f Mops/s, balance drift: %d cents%n",
+                name, ops / (nanos / 1000.0), expectedCents - actualCents);
+    }
+}
@@ -4,15 +4,37 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
     AccountTest.class,
+    ConcurrentAccountTest.class,
     ATMTest.class,
+    ConcurrentATMTest.class,
+    CashDispenserTest.class,
+    ATMFleetTest.class,
+    CashDemandForecasterTest.class,
     BankTest.class,
+    ShardedBankTest.class,
+    DurableBankTest.class,
+    LedgerPipelineTest.class,
+    AsyncBankTest.class,
     BranchTest.class,
     CustomerTest.class,
     EmployeeTest.class,
     LoanTest.class,
+    LoanBookTest.class,
+    AmortizationScheduleTest.class,
     LoanAnalysisToolTest.class,
+    LoanPortfolioEvaluatorTest.class,
+    AnnuityFactorCacheTest.class,
+    LoanPaymentKernelTest.class,
+    LoanSolverTest.class,
+    LoanSensitivityGridTest.class,
+    RateScenarioSimulatorTest.class,
+    RateScenarioSummaryTest.class,
     TransactionTest.class,
-    TransactionLogTest.class
+    TransactionTypeTest.class,
+    TransactionLogTest.class,
+    ColumnarTransactionLogTest.class,
+    CompensatedSumTest.class,
+    TransferCoordinatorTest.class
 })
 
 public class AllTestsSuite {
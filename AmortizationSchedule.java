@@ -0,0 +1,171 @@
+/**
+ * Generates month-by-month amortization schedules for fixed-rate loans without allocating an object per row.
+ *
+ * <p> Each row holds the payment, the interest and principal parts of the payment, and the
+ * balance remaining after it. Rows are either written into caller-provided arrays, which can be
+ * reused across loans, or passed one at a time to a {@link RowConsumer}, so schedules for large
+ * portfolios can be processed without ever holding them in memory.
+ *
+ * <p> Interest rates are annual percentages and terms are in years, as in {@link Loan}. The last
+ * payment is adjusted so that the balance ends at exactly zero.
+ */
+public final class AmortizationSchedule {
+
+    /**
+     * Receives the rows of a schedule, one at a time.
+     */
+    public interface RowConsumer {
+
+        /**
+         * Accepts one row of a schedule.
+         *
+         * @param loanIndex the index of the loan the row belongs to; 0 for a single loan
+         * @param month the month of the payment, starting at 1
+         * @param payment the total payment of the month
+         * @param interest the part of the payment that is interest
+         * @param principal the part of the payment that repays principal
+         * @param balance the principal remaining after the payment
+         */
+        void accept(int loanIndex, int month, double payment, double interest, double principal, double balance);
+    }
+
+    /**
+     * Prevents instantiation; all methods are static.
+     */
+    private AmortizationSchedule() {
+    }
+
+    /**
+     * Returns the number of rows in the schedule of a loan with the given term.
+     *
+     * @param years the duration of the loan in years
+     * @return the number of monthly payments
+     */
+    public static int rowCount(int years) {
+        return years * 12;
+    }
+
+    /**
+     * Writes the schedule of a loan into the given arrays, starting at the given offset.
+     *
+     * @param amount the principal amount of the loan; must be greater than 0
+     * @param interestRate the annual interest rate in percent; must be greater than 0
+     * @param years the duration of the loan in years; must be greater than 0
+     * @param interest receives the interest part of each payment
+     * @param principal receives the principal part of each payment
+     * @param balance receives the balance remaining after each payment
+     * @param offset the array index of the first row
+     * @return the number of rows written
+     * @throws IllegalArgumentException if an input is not greater than 0 or the arrays are too short
+     */
+    public static int fill(double amount, double interestRate, int years,
+                           double[] interest, double[] principal, double[] balance, int offset) {
+        validate(amount, interestRate, years);
+        int rows = rowCount(years);
+        if (offset < 0 || interest.length - offset < rows || principal.length - offset < rows
+                || balance.length - offset < rows) {
+            throw new IllegalArgumentException("Schedule arrays are too short.");
+        }
+        double monthlyRate = interestRate / 12 / 100;
+        double payment = monthlyPayment(amount, monthlyRate, rows);
+        double remaining = amount;
+        for (int month = 0; month < rows; month++) {
+            double interestPart = remaining * monthlyRate;
+            double principalPart = month == rows - 1 ? remaining : payment - interestPart;
+            remaining = month == rows - 1 ? 0 : remaining - principalPart;
+            interest[offset + month] = interestPart;
+            principal[offset + month] = principalPart;
+            balance[offset + month] = remaining;
+        }
+        return rows;
+    }
+
+    /**
+     * Passes every row of the schedule of a loan to the consumer, in month order.
+     *
+     * @param amount the principal amount of the loan; must be greater than 0
+     * @param interestRate the annual interest rate in percent; must be greater than 0
+     * @param years the duration of the loan in years; must be greater than 0
+     * @param consumer the consumer receiving the rows with loan index 0
+     * @throws IllegalArgumentException if an input is not greater than 0
+     */
+    public static void forEachRow(double amount, double interestRate, int years, RowConsumer consumer) {
+        validate(amount, interestRate, years);
+        stream(0, amount, interestRate, years, consumer);
+    }
+
+    /**
+     * Passes every row of the schedules of a portfolio of loans to the consumer, loan by loan.
+     *
+     * <p> The loans are given as parallel arrays; only one row exists at any time.
+     *
+     * @param amounts the principal amount of each loan
+     * @param interestRates the annual interest rate of each loan in percent
+     * @param years the duration of each loan in years
+     * @param consumer the consumer receiving the rows, with the index of their loan
+     * @throws IllegalArgumentException if the arrays differ in length or an input is not greater than 0
+     */
+    public static void forEachRow(double[] amounts, double[] interestRates, int[] years, RowConsumer consumer) {
+        if (amounts.length != interestRates.length || amounts.length != years.length) {
+            throw new IllegalArgumentException("Loan arrays must have the same length.");
+        }
+        for (int loan = 0; loan < amounts.length; loan++) {
+            validate(amounts[loan], interestRates[loan], years[loan]);
+        }
+        for (int loan = 0; loan < amounts.length; loan++) {
+            stream(loan, amounts[loan], interestRates[loan], years[loan], consumer);
+        }
+    }
+
+    /**
+     * Computes the rows of one validated loan and passes them to the consumer.
+     *
+     * @param loanIndex the index reported with every row
+     * @param amount the principal amount of the loan
+     * @param interestRate the annual interest rate in percent
+     * @param years the duration of the loan in years
+     * @param consumer the consumer receiving the rows
+     */
+    private static void stream(int loanIndex, double amount, double interestRate, int years, RowConsumer consumer) {
+        int rows = rowCount(years);
+        double monthlyRate = interestRate / 12 / 100;
+        double payment = monthlyPayment(amount, monthlyRate, rows);
+        double remaining = amount;
+        for (int month = 1; month <= rows; month++) {
+            double interestPart = remaining * monthlyRate;
+            if (month == rows) {
+                consumer.accept(loanIndex, month, interestPart + remaining, interestPart, remaining, 0);
+            } else {
+                double principalPart = payment - interestPart;
+                remaining -= principalPart;
+                consumer.accept(loanIndex, month, payment, interestPart, principalPart, remaining);
+            }
+        }
+    }
+
+    /**
+     * Calculates the level monthly payment of an annuity loan.
+     *
+     * @param amount the principal amount
+     * @param monthlyRate the monthly interest rate as a fraction
+     * @param payments the number of monthly payments
+     * @return the monthly payment
+     */
+    private static double monthlyPayment(double amount, double monthlyRate, int payments) {
+        return (amount * monthlyRate) / (1 - Math.pow(1 + monthlyRate, -payments));
+    }
+
+    /**
+     * Checks the inputs of a loan.
+     *
+     * @param amount the principal amount of the loan
+     * @param interestRate the annual interest rate in percent
+     * @param years the duration of the loan in years
+     * @throws IllegalArgumentException if the amount, interest rate, or duration is not greater than 0
+     */
+    private static void validate(double amount, double interestRate, int years) {
+        if (amount <= 0 || interestRate <= 0 || years <= 0) {
+            throw new IllegalArgumentException("Amount, interest rate, and duration must be greater than 0.");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AmortizationScheduleTest {
+
+    @Test
+    public void testRowCount() {
+        assertEquals(360, AmortizationSchedule.rowCount(30));
+    }
+
+    @Test
+    public void testFillEndsAtZeroBalance() {
+        double[] interest = new double[60];
+        double[] principal = new double[60];
+        double[] balance = new double[60];
+        int rows = AmortizationSchedule.fill(10000, 5, 5, interest, principal, balance, 0);
+        assertEquals(60, rows);
+        assertEquals(0.0, balance[59], 0.0);
+        assertEquals(41.67, interest[0], 0.01);
+        assertEquals(147.04, principal[0], 0.01);
+    }
+
+    @Test
+    public void testPrincipalPartsSumToAmount() {
+        double[] interest = new double[360];
+        double[] principal = new double[360];
+        double[] balance = new double[360];
+        AmortizationSchedule.fill(250000, 4.5, 30, interest, principal, balance, 0);
+        double repaid = 0;
+        for (double part : principal) {
+            repaid += part;
+        }
+        assertEquals(250000, repaid, 1e-6);
+    }
+
+    @Test
+    public void testPaymentMatchesLoan() {
+        Loan loan = new Loan(10000, 5, 5);
+        double[] interest = new double[60];
+        double[] principal = new double[60];
+        double[] balance = new double[60];
+        loan.writeAmortizationSchedule(interest, principal, balance, 0);
+        assertEquals(loan.calculateMonthlyPayment(), interest[10] + principal[10], 1e-9);
+    }
+
+    @Test
+    public void testFillAtOffsetInReusableBuffer() {
+        double[] interest = new double[24];
+        double[] principal = new double[24];
+        double[] balance = new double[24];
+        AmortizationSchedule.fill(1200, 12, 1, interest, principal, balance, 0);
+        AmortizationSchedule.fill(2400, 12, 1, interest, principal, balance, 12);
+        assertEquals(2 * interest[0], interest[12], 1e-9);
+        assertEquals(0.0, balance[23], 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFillArraysTooShort() {
+        AmortizationSchedule.fill(1200, 12, 1, new double[11], new double[12], new double[12], 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFillInvalidRate() {
+        AmortizationSchedule.fill(1200, 0, 1, new double[12], new double[12], new double[12], 0);
+    }
+
+    @Test
+    public void testForEachRowMatchesFill() {
+        double[] interest = new double[120];
+        double[] principal = new double[120];
+        double[] balance = new double[120];
+        AmortizationSchedule.fill(50000, 6, 10, interest, principal, balance, 0);
+        int[] rows = new int[1];
+        AmortizationSchedule.forEachRow(50000, 6, 10, (loan, month, payment, interestPart, principalPart, remaining) -> {
+            assertEquals(0, loan);
+            assertEquals(interest[month - 1], interestPart, 1e-9);
+            assertEquals(principal[month - 1], principalPart, 1e-9);
+            assertEquals(balance[month - 1], remaining, 1e-9);
+            assertEquals(interestPart + principalPart, payment, 1e-9);
+            rows[0]++;
+        });
+        assertEquals(120, rows[0]);
+    }
+
+    @Test
+    public void testForEachRowOverPortfolio() {
+        double[] amounts = {1000, 2000, 3000};
+        double[] rates = {5, 6, 7};
+        int[] years = {1, 2, 3};
+        int[] rowsPerLoan = new int[3];
+        double[] lastBalance = {-1, -1, -1};
+        AmortizationSchedule.forEachRow(amounts, rates, years, (loan, month, payment, interest, principal, balance) -> {
+            rowsPerLoan[loan]++;
+            lastBalance[loan] = balance;
+        });
+        assertArrayEquals(new int[] {12, 24, 36}, rowsPerLoan);
+        assertArrayEquals(new double[] {0, 0, 0}, lastBalance, 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForEachRowMismatchedArrays() {
+        AmortizationSchedule.forEachRow(new double[2], new double[1], new int[2], (loan, month, p, i, pr, b) -> { });
+    }
+}
@@ -0,0 +1,51 @@
+import java.util.Random;
+
+/**
+ * Compares monthly payment calculation with and without the annuity factor cache.
+ *
+ * <p> Draws loans from a book with a few thousand distinct rate and term pairs and computes
+ * every payment once with {@link AnnuityFactorCache#computeFactor} and once through
+ * {@link LoanAnalysisTool#calculateMonthlyPayment()}, which uses the shared cache.
+ */
+public class AnnuityFactorBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of loans
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        LoanAnalysisTool[] tools = new LoanAnalysisTool[count];
+        double[] principals = new double[count];
+        double[] rates = new double[count];
+        int[] years = new int[count];
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++) {
+            principals[i] = 1000 + random.nextInt(500_000);
+            rates[i] = 1 + random.nextInt(100) / 8.0;
+            years[i] = 1 + random.nextInt(30);
+            tools[i] = new LoanAnalysisTool(principals[i], rates[i], years[i]);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            double uncached = 0;
+            for (int i = 0; i < count; i++) {
+                uncached += principals[i] * AnnuityFactorCache.computeFactor(rates[i], years[i]);
+            }
+            long uncachedNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            double cached = 0;
+            for (int i = 0; i < count; i++) {
+                cached += tools[i].calculateMonthlyPayment();
+            }
+            long cachedNanos = System.nanoTime() - start;
+            System.out.printf("Round %d, %d loans: uncached %.1f ns/loan, cached %.1f ns/loan (%.2f / %.2f)%n",
+                    round + 1, count, (double) uncachedNanos / count, (double) cachedNanos / count, uncached, cached);
+        }
+        AnnuityFactorCache cache = AnnuityFactorCache.shared();
+        System.out.printf("Cache hits: %d, misses: %d%n", cache.getHitCount(), cache.getMissCount());
+    }
+}
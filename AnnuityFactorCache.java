@@ -0,0 +1,194 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe cache of annuity factors keyed by annual interest rate and term.
+ *
+ * <p> The annuity factor {@code r / (1 - (1 + r)^-n)} turns a principal into its level monthly
+ * payment, where {@code r} is the monthly rate and {@code n} the number of monthly payments.
+ * Computing it needs a {@code Math.pow}, while a loan book usually holds only a few thousand
+ * distinct rate and term pairs, so caching it reduces a repeated payment calculation to a multiply.
+ *
+ * <p> The cache is a two-way set-associative table: each key maps to a set of two slots, and a
+ * new key is stored in the first slot of its set, moving the previous occupant to the second
+ * slot and evicting the one there. This bounds the cache at its capacity without any
+ * bookkeeping and keeps the two most recently added keys of each set. Eviction is first in,
+ * first out within a set, not least recently used: a hit does not move its entry, so a key that
+ * is read often is still evicted once two newer keys have landed in its set.
+ *
+ * <p> Entries are immutable, so lookups take no lock. {@link #shared()} returns the instance
+ * used by {@link Loan} and {@link LoanAnalysisTool}.
+ */
+public class AnnuityFactorCache {
+
+    /**
+     * The capacity of the shared cache.
+     */
+    static final int SHARED_CAPACITY = 16384;
+
+    /**
+     * The cache shared by the loan classes.
+     */
+    private static final AnnuityFactorCache SHARED = new AnnuityFactorCache(SHARED_CAPACITY);
+
+    /**
+     * One cached factor together with its key.
+     */
+    private static final class Entry {
+
+        /**
+         * The bits of the annual interest rate, from {@link Double#doubleToLongBits(double)}.
+         */
+        private final long rateBits;
+
+        /**
+         * The duration of the loan in years.
+         */
+        private final int years;
+
+        /**
+         * The annuity factor of the rate and term.
+         */
+        private final double factor;
+
+        /**
+         * Constructs an entry.
+         *
+         * @param rateBits the bits of the annual interest rate
+         * @param years the duration of the loan in years
+         * @param factor the annuity factor of the rate and term
+         */
+        Entry(long rateBits, int years, double factor) {
+            this.rateBits = rateBits;
+            this.years = years;
+            this.factor = factor;
+        }
+    }
+
+    /**
+     * The slots of the cache, in sets of two adjacent slots; the length is a power of two.
+     */
+    private final Entry[] table;
+
+    /**
+     * The number of bits used to pick a set.
+     */
+    private final int setBits;
+
+    /**
+     * The number of lookups answered from the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * The number of lookups that had to compute the factor.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a cache holding at most the given number of factors, rounded up to a power of two of at least 2.
+     *
+     * @param capacity the maximum number of cached factors; must be greater than 0
+     * @throws IllegalArgumentException if the capacity is not greater than 0 or too large
+     */
+    public AnnuityFactorCache(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+        }
+        int size = 2;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.table = new Entry[size];
+        this.setBits = Integer.numberOfTrailingZeros(size) - 1;
+    }
+
+    /**
+     * Returns the cache shared by {@link Loan} and {@link LoanAnalysisTool}.
+     *
+     * @return the shared cache
+     */
+    public static AnnuityFactorCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the annuity factor for the given rate and term, computing and caching it if needed.
+     *
+     * @param annualInterestRate the annual interest rate in percent
+     * @param years the duration of the loan in years
+     * @return the monthly payment per unit of principal
+     */
+    public double factor(double annualInterestRate, int years) {
+        long rateBits = Double.doubleToLongBits(annualInterestRate);
+        int slot = setBits == 0 ? 0 : (int) (((rateBits * 31 + years) * 0x9E3779B97F4A7C15L) >>> (64 - setBits)) << 1;
+        Entry first = table[slot];
+        if (first != null && first.rateBits == rateBits && first.years == years) {
+            hits.increment();
+            return first.factor;
+        }
+        Entry second = table[slot + 1];
+        if (second != null && second.rateBits == rateBits && second.years == years) {
+            hits.increment();
+            return second.factor;
+        }
+        misses.increment();
+        double factor = computeFactor(annualInterestRate, years);
+        table[slot + 1] = first;
+        table[slot] = new Entry(rateBits, years, factor);
+        return factor;
+    }
+
+    /**
+     * Computes the annuity factor for the given rate and term without using a cache.
+     *
+     * @param annualInterestRate the annual interest rate in percent
+     * @param years the duration of the loan in years
+     * @return the monthly payment per unit of principal
+     */
+    public static double computeFactor(double annualInterestRate, int years) {
+        double monthlyRate = annualInterestRate / 12 / 100;
+        return monthlyRate / (1 - Math.pow(1 + monthlyRate, -(years * 12)));
+    }
+
+    /**
+     * Returns the maximum number of factors the cache holds.
+     *
+     * @return the capacity of the cache
+     */
+    public int getCapacity() {
+        return table.length;
+    }
+
+    /**
+     * Returns the number of factors currently cached, by scanning the table.
+     *
+     * @return the number of occupied slots
+     */
+    int getSize() {
+        int size = 0;
+        for (Entry entry : table) {
+            if (entry != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to compute the factor.
+     *
+     * @return the number of misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,118 @@
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AnnuityFactorCacheTest {
+
+    @Test
+    public void testFactorMatchesFormula() {
+        AnnuityFactorCache cache = new AnnuityFactorCache(16);
+        double monthlyRate = 5.0 / 12 / 100;
+        double expected = monthlyRate / (1 - Math.pow(1 + monthlyRate, -60));
+        assertEquals(expected, cache.factor(5, 5), 1e-15);
+        assertEquals(expected, AnnuityFactorCache.computeFactor(5, 5), 1e-15);
+    }
+
+    @Test
+    public void testRepeatedLookupIsHit() {
+        AnnuityFactorCache cache = new AnnuityFactorCache(16);
+        double first = cache.factor(4.5, 30);
+        double second = cache.factor(4.5, 30);
+        assertEquals(first, second, 0);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testDistinctKeysAreNotConfused() {
+        AnnuityFactorCache cache = new AnnuityFactorCache(1);
+        double shortTerm = cache.factor(4.5, 10);
+        double longTerm = cache.factor(4.5, 30);
+        assertNotEquals(shortTerm, longTerm, 1e-9);
+        assertEquals(shortTerm, cache.factor(4.5, 10), 0);
+        assertEquals(2, cache.getMissCount());
+        cache.factor(4.5, 20);
+        assertEquals(longTerm, cache.factor(4.5, 30), 0);
+        assertEquals(3, cache.getMissCount());
+        assertEquals(shortTerm, cache.factor(4.5, 10), 0);
+        assertEquals(4, cache.getMissCount());
+        assertEquals(2, cache.getCapacity());
+    }
+
+    @Test
+    public void testCapacityIsBoundedPowerOfTwo() {
+        AnnuityFactorCache cache = new AnnuityFactorCache(1000);
+        assertEquals(1024, cache.getCapacity());
+        for (int i = 0; i < 100_000; i++) {
+            cache.factor(1 + i / 100.0, 1 + i % 40);
+            if (i % 10_000 == 0) {
+                assertTrue(cache.getSize() <= cache.getCapacity());
+            }
+        }
+        assertEquals(100_000, cache.getMissCount());
+        assertTrue(cache.getSize() <= cache.getCapacity());
+        for (int i = 0; i < 100; i++) {
+            cache.factor(1 + i / 100.0, 1 + i % 40);
+        }
+        assertEquals(100_100, cache.getMissCount());
+        assertTrue(cache.getSize() <= cache.getCapacity());
+    }
+
+    @Test
+    public void testHitInSecondSlotIsNotPromoted() {
+        AnnuityFactorCache cache = new AnnuityFactorCache(2);
+        cache.factor(5.0, 10);
+        cache.factor(6.0, 10);
+        cache.factor(5.0, 10);
+        assertEquals(1, cache.getHitCount());
+        cache.factor(7.0, 10);
+        cache.factor(5.0, 10);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new AnnuityFactorCache(0);
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        AnnuityFactorCache cache = new AnnuityFactorCache(64);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        double rate = 1 + i % 200 / 10.0;
+                        int years = 1 + i % 30;
+                        if (cache.factor(rate, years) != AnnuityFactorCache.computeFactor(rate, years)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(80_000, cache.getHitCount() + cache.getMissCount());
+    }
+
+    @Test
+    public void testLoanClassesUseSharedCache() {
+        AnnuityFactorCache cache = AnnuityFactorCache.shared();
+        long before = cache.getHitCount() + cache.getMissCount();
+        new Loan(10000, 3.25, 7).calculateMonthlyPayment();
+        new LoanAnalysisTool(10000, 3.25, 7).calculateMonthlyPayment();
+        assertEquals(before + 2, cache.getHitCount() + cache.getMissCount());
+    }
+}
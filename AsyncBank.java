@@ -0,0 +1,376 @@
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Offers the operations of a {@link Bank} as non-blocking calls that return a CompletableFuture.
+ *
+ * <p> Each call runs the blocking bank operation as a task on an executor. By default the
+ * executor starts one virtual thread per task, so callers never have to size a thread pool; on
+ * a Java runtime without virtual threads it falls back to a pool of daemon threads that never
+ * grows beyond the in-flight limit. A semaphore bounds the number of operations in flight: once
+ * the limit is reached, a call does not wait but returns a future that has already failed with
+ * a RejectedExecutionException, which pushes back on callers that submit faster than the bank
+ * can serve them without ever blocking the calling thread.
+ *
+ * <p> The wrapped bank is called from many threads at once, so it must be safe for concurrent
+ * use, such as a {@link ShardedBank} or a {@link DurableBank}.
+ */
+public class AsyncBank implements Closeable {
+
+    /**
+     * The default maximum number of operations in flight.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+
+    /**
+     * The number of accounts looked up by one task of {@link #getAccountBalances(String[])}.
+     */
+    static final int BULK_CHUNK = 256;
+
+    /**
+     * The bank the operations run against.
+     */
+    private final Bank bank;
+
+    /**
+     * The executor running the operations.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Whether the executor was created by this facade and is shut down by {@link #close()}.
+     */
+    private final boolean ownsExecutor;
+
+    /**
+     * Whether {@link #close()} has been called; new operations are rejected once it is set.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Whether the executor starts a virtual thread per task.
+     */
+    private final boolean virtualThreads;
+
+    /**
+     * The maximum number of operations in flight.
+     */
+    private final int maxInFlight;
+
+    /**
+     * The permits for operations in flight.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Constructs a facade over a new {@link ShardedBank}, running on the default executor with
+     * the default in-flight limit.
+     */
+    public AsyncBank() {
+        this(new ShardedBank());
+    }
+
+    /**
+     * Constructs a facade over the given bank, running on the default executor with the default
+     * in-flight limit.
+     *
+     * @param bank the bank to run the operations against; must be safe for concurrent use
+     */
+    public AsyncBank(Bank bank) {
+        this(bank, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Constructs a facade over the given bank, running on the default executor.
+     *
+     * @param bank the bank to run the operations against; must be safe for concurrent use
+     * @param maxInFlight the maximum number of operations in flight
+     * @throws IllegalArgumentException if the bank is null or the limit is not positive
+     */
+    public AsyncBank(Bank bank, int maxInFlight) {
+        this(bank, newVirtualThreadExecutor(), maxInFlight, true);
+    }
+
+    /**
+     * Constructs a facade over the given bank, running on the given executor. The executor is not
+     * shut down by {@link #close()}.
+     *
+     * @param bank the bank to run the operations against; must be safe for concurrent use
+     * @param executor the executor to run the operations on
+     * @param maxInFlight the maximum number of operations in flight
+     * @throws IllegalArgumentException if the bank or the executor is null or the limit is not positive
+     */
+    public AsyncBank(Bank bank, ExecutorService executor, int maxInFlight) {
+        this(bank, executor, maxInFlight, false);
+    }
+
+    /**
+     * Constructs a facade.
+     *
+     * @param bank the bank to run the operations against
+     * @param executor the executor to run the operations on, or null for a pool of at most
+     *                 {@code maxInFlight} threads
+     * @param maxInFlight the maximum number of operations in flight
+     * @param ownsExecutor whether the facade created the executor
+     * @throws IllegalArgumentException if the bank is null, the limit is not positive, or the
+     *                                  executor is null but was not created by the facade
+     */
+    private AsyncBank(Bank bank, ExecutorService executor, int maxInFlight, boolean ownsExecutor) {
+        if (bank == null || (executor == null && !ownsExecutor)) {
+            throw new IllegalArgumentException("Bank and executor cannot be null.");
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("In-flight limit must be positive.");
+        }
+        this.bank = bank;
+        this.virtualThreads = executor != null && ownsExecutor;
+        this.executor = executor != null ? executor : newBoundedExecutor(maxInFlight);
+        this.ownsExecutor = ownsExecutor;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Creates an account with the specified account number and initial deposit.
+     *
+     * @param accountNumber  The unique identifier for the new account.
+     * @param initialDeposit The initial amount to deposit into the account.
+     * @return a future completed once the account exists, or exceptionally with an
+     *         IllegalArgumentException if an account with the specified account number already exists
+     */
+    public CompletableFuture<Void> createAccount(String accountNumber, double initialDeposit) {
+        return submit(() -> {
+            bank.createAccount(accountNumber, initialDeposit);
+            return null;
+        });
+    }
+
+    /**
+     * Closes an account identified by the specified account number.
+     *
+     * @param accountNumber The account number of the account to be closed.
+     * @return a future completed once the account is closed, or exceptionally with an
+     *         IllegalArgumentException if no account with the specified account number exists
+     */
+    public CompletableFuture<Void> closeAccount(String accountNumber) {
+        return submit(() -> {
+            bank.closeAccount(accountNumber);
+            return null;
+        });
+    }
+
+    /**
+     * Deposits a specified amount into an account identified by the account number.
+     *
+     * @param accountNumber The account number of the account to deposit into.
+     * @param amount The amount to deposit.
+     * @return a future completed once the deposit is applied, or exceptionally with an
+     *         IllegalArgumentException if the account does not exist or the amount is not positive
+     */
+    public CompletableFuture<Void> depositToAccount(String accountNumber, double amount) {
+        return submit(() -> {
+            bank.depositToAccount(accountNumber, amount);
+            return null;
+        });
+    }
+
+    /**
+     * Retrieves the balance for the account identified by the specified account number.
+     *
+     * @param accountNumber The account number of the account whose balance is to be retrieved.
+     * @return a future completed with the balance of the account, or exceptionally with an
+     *         IllegalArgumentException if no account with the specified account number exists
+     */
+    public CompletableFuture<Double> getAccountBalance(String accountNumber) {
+        return submit(() -> bank.getAccountBalance(accountNumber));
+    }
+
+    /**
+     * Retrieves the balances of many accounts at once.
+     *
+     * <p> The lookups are fanned out in tasks of at least {@value #BULK_CHUNK} accounts, each
+     * holding one in-flight permit and reading its accounts with one call of
+     * {@link Bank#getAccountBalances(String[], double[])}, and the future completes when the last
+     * task has finished. The chunks grow for very large lookups so that their number never
+     * exceeds the in-flight limit, and the permits for all chunks are taken at once, so a lookup
+     * either runs completely or is rejected. A missing account does not fail the lookup; its
+     * balance is reported as NaN.
+     *
+     * @param accountNumbers the account numbers to look up
+     * @return a future completed with the balances, in the order of the account numbers, or
+     *         exceptionally with a RejectedExecutionException if not enough in-flight permits are free
+     * @throws IllegalArgumentException if the array of account numbers is null
+     */
+    public CompletableFuture<double[]> getAccountBalances(String[] accountNumbers) {
+        if (accountNumbers == null) {
+            throw new IllegalArgumentException("Account numbers cannot be null.");
+        }
+        double[] balances = new double[accountNumbers.length];
+        int chunkSize = Math.max(BULK_CHUNK, (accountNumbers.length + maxInFlight - 1) / maxInFlight);
+        CompletableFuture<?>[] chunks = new CompletableFuture<?>[(accountNumbers.length + chunkSize - 1) / chunkSize];
+        if (closed) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("The bank is closed."));
+        }
+        if (!permits.tryAcquire(chunks.length)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many operations in flight."));
+        }
+        for (int c = 0; c < chunks.length; c++) {
+            int from = c * chunkSize;
+            int to = Math.min(from + chunkSize, accountNumbers.length);
+            chunks[c] = run(() -> {
+                String[] numbers = Arrays.copyOfRange(accountNumbers, from, to);
+                double[] chunk = new double[numbers.length];
+                bank.getAccountBalances(numbers, chunk);
+                System.arraycopy(chunk, 0, balances, from, chunk.length);
+                return null;
+            });
+        }
+        return CompletableFuture.allOf(chunks).thenApply(done -> balances);
+    }
+
+    /**
+     * Returns whether operations run on virtual threads.
+     *
+     * @return true if the facade created a virtual-thread-per-task executor
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Returns the maximum number of operations in flight.
+     *
+     * @return the in-flight limit
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Returns the number of operations currently in flight.
+     *
+     * @return the number of submitted operations that have not finished
+     */
+    public int getInFlightCount() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    /**
+     * Stops accepting operations and, if the facade created its executor, waits for the running
+     * operations to finish and shuts the executor down.
+     *
+     * <p> Operations submitted after the call are completed exceptionally with a
+     * RejectedExecutionException. A caller-supplied executor is left running, and operations
+     * already submitted to it are not waited for.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (!ownsExecutor) {
+            return;
+        }
+        executor.shutdown();
+        boolean interrupted = false;
+        while (!executor.isTerminated()) {
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs an operation on the executor if an in-flight permit is free.
+     *
+     * @param operation the blocking bank operation
+     * @param <T> the type of the operation's result
+     * @return a future completed with the result of the operation, or exceptionally with its
+     *         exception, or with a RejectedExecutionException if the facade is closed, the
+     *         in-flight limit is reached or the executor is shut down
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("The bank is closed."));
+        }
+        if (!permits.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many operations in flight."));
+        }
+        return run(operation);
+    }
+
+    /**
+     * Runs an operation on the executor under an in-flight permit the caller has already taken.
+     * The permit is released when the operation finishes or is rejected by the executor.
+     *
+     * @param operation the blocking bank operation
+     * @param <T> the type of the operation's result
+     * @return a future completed with the result of the operation, or exceptionally with its
+     *         exception or a RejectedExecutionException if the executor is shut down
+     */
+    private <T> CompletableFuture<T> run(Supplier<T> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                T value;
+                try {
+                    value = operation.get();
+                } catch (Throwable e) {
+                    permits.release();
+                    result.completeExceptionally(e);
+                    return;
+                }
+                permits.release();
+                result.complete(value);
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the pool of daemon threads used when virtual threads are not available. The pool
+     * starts a thread per task up to the in-flight limit, which the permits never let it exceed,
+     * and lets idle threads die after a minute.
+     *
+     * @param maxInFlight the maximum number of operations in flight
+     * @return the executor
+     */
+    private static ExecutorService newBoundedExecutor(int maxInFlight) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxInFlight, maxInFlight, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(task, "async-bank");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread per task, if the Java runtime supports them.
+     *
+     * @return the executor, or null if virtual threads are not available
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | LinkageError | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures the latency of fanning out balance lookups for many accounts through AsyncBank.
+ *
+ * <p> Each round reads the balances of all accounts and reports the median and 99th percentile
+ * round time of: a synchronous loop over the bank, one future per account on a fixed pool of
+ * platform threads, one future per account through AsyncBank in windows of its in-flight limit,
+ * which rejects rather than queues anything beyond it, and the chunked
+ * {@link AsyncBank#getAccountBalances(String[])}.
+ */
+public class AsyncBankBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional account count and number of rounds
+     */
+    public static void main(String[] args) {
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Bank bank = new ShardedBank();
+        String[] numbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            numbers[i] = "ACC" + i;
+            bank.createAccount(numbers[i], 1000);
+        }
+        int poolSize = Runtime.getRuntime().availableProcessors() * 4;
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize);
+        try (AsyncBank async = new AsyncBank(bank)) {
+            System.out.println("Executor: " + (async.usesVirtualThreads() ? "virtual threads" : "bounded thread pool")
+                    + ", in-flight limit " + async.getMaxInFlight());
+            for (int pass = 0; pass < 2; pass++) {
+                report("Synchronous loop", rounds, () -> {
+                    for (String number : numbers) {
+                        bank.getAccountBalance(number);
+                    }
+                });
+                report("Fixed pool of " + poolSize + ", future per account", rounds, () -> {
+                    CompletableFuture<?>[] lookups = new CompletableFuture<?>[accounts];
+                    for (int i = 0; i < accounts; i++) {
+                        String number = numbers[i];
+                        lookups[i] = CompletableFuture.supplyAsync(() -> bank.getAccountBalance(number), pool);
+                    }
+                    CompletableFuture.allOf(lookups).join();
+                });
+                report("AsyncBank, future per account", rounds, () -> {
+                    int window = async.getMaxInFlight();
+                    for (int from = 0; from < accounts; from += window) {
+                        CompletableFuture<?>[] lookups = new CompletableFuture<?>[Math.min(window, accounts - from)];
+                        for (int i = 0; i < lookups.length; i++) {
+                            lookups[i] = async.getAccountBalance(numbers[from + i]);
+                        }
+                        CompletableFuture.allOf(lookups).join();
+                    }
+                });
+                report("AsyncBank.getAccountBalances", rounds, () -> async.getAccountBalances(numbers).join());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Times the rounds of one variant and prints the median and 99th percentile round time.
+     *
+     * @param name the name of the variant
+     * @param rounds the number of rounds
+     * @param round the work of one round
+     */
+    private static void report(String name, int rounds, Runnable round) {
+        long[] nanos = new long[rounds];
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            round.run();
+            nanos[r] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-40s p50 %8.3f ms, p99 %8.3f ms%n", name, nanos[rounds / 2] / 1e6,
+                nanos[Math.min(rounds - 1, (int) (rounds * 0.99))] / 1e6);
+    }
+}
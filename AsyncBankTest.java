@@ -0,0 +1,213 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AsyncBankTest {
+
+    private AsyncBank bank;
+
+    @Before
+    public void setUp() {
+        bank = new AsyncBank(new ShardedBank(8));
+    }
+
+    @After
+    public void tearDown() {
+        bank.close();
+    }
+
+    @Test
+    public void testCreateDepositAndReadBalance() {
+        bank.createAccount("123", 500.0).join();
+        bank.depositToAccount("123", 50.0).join();
+        assertEquals(550.0, bank.getAccountBalance("123").join(), 0.001);
+        assertEquals(0, bank.getInFlightCount());
+    }
+
+    @Test
+    public void testCloseAccount() {
+        bank.createAccount("125", 500.0).join();
+        bank.closeAccount("125").join();
+        try {
+            bank.getAccountBalance("125").join();
+            fail("Expected the lookup to fail.");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testFailuresCompleteExceptionally() {
+        bank.createAccount("123", 500.0).join();
+        CompletableFuture<Void> duplicate = bank.createAccount("123", 600.0);
+        try {
+            duplicate.join();
+            fail("Expected the creation to fail.");
+        } catch (CompletionException e) {
+            assertEquals("Account already exists.", e.getCause().getMessage());
+        }
+        try {
+            bank.depositToAccount("999", 10.0).join();
+            fail("Expected the deposit to fail.");
+        } catch (CompletionException e) {
+            assertEquals("Account not found.", e.getCause().getMessage());
+        }
+        assertEquals(0, bank.getInFlightCount());
+    }
+
+    @Test
+    public void testBulkBalancesKeepOrderAndReportMissingAccountsAsNaN() {
+        int accounts = 3 * AsyncBank.BULK_CHUNK + 17;
+        String[] numbers = new String[accounts + 1];
+        for (int i = 0; i < accounts; i++) {
+            numbers[i] = "ACC" + i;
+            bank.createAccount(numbers[i], i).join();
+        }
+        numbers[accounts] = "MISSING";
+        double[] balances = bank.getAccountBalances(numbers).join();
+        assertEquals(accounts + 1, balances.length);
+        for (int i = 0; i < accounts; i++) {
+            assertEquals(i, balances[i], 0.0);
+        }
+        assertTrue(Double.isNaN(balances[accounts]));
+    }
+
+    @Test
+    public void testBulkBalancesOfNoAccounts() {
+        assertEquals(0, bank.getAccountBalances(new String[0]).join().length);
+    }
+
+    @Test
+    public void testConcurrentDepositsThroughFacade() {
+        bank.createAccount("A", 0.0).join();
+        CompletableFuture<?>[] deposits = new CompletableFuture<?>[1000];
+        for (int i = 0; i < deposits.length; i++) {
+            deposits[i] = bank.depositToAccount("A", 1.0);
+        }
+        CompletableFuture.allOf(deposits).join();
+        assertEquals(1000.0, bank.getAccountBalance("A").join(), 0.001);
+    }
+
+    @Test
+    public void testInFlightLimitRejectsNewOperationsWithoutBlocking() {
+        CountDownLatch release = new CountDownLatch(1);
+        Bank blocking = new ShardedBank(8) {
+            @Override
+            public double getAccountBalance(String accountNumber) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getAccountBalance(accountNumber);
+            }
+        };
+        blocking.createAccount("A", 10.0);
+        AsyncBank limited = new AsyncBank(blocking, 2);
+        try {
+            CompletableFuture<Double> first = limited.getAccountBalance("A");
+            CompletableFuture<Double> second = limited.getAccountBalance("A");
+            assertEquals(2, limited.getInFlightCount());
+            CompletableFuture<Double> third = limited.getAccountBalance("A");
+            assertTrue(third.isCompletedExceptionally());
+            try {
+                third.join();
+                fail("Expected the third lookup to be rejected.");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+            assertTrue(limited.getAccountBalances(new String[] {"A"}).isCompletedExceptionally());
+            assertEquals(2, limited.getInFlightCount());
+            release.countDown();
+            assertEquals(10.0, first.join(), 0.001);
+            assertEquals(10.0, second.join(), 0.001);
+            assertEquals(10.0, limited.getAccountBalance("A").join(), 0.001);
+        } finally {
+            release.countDown();
+            limited.close();
+        }
+    }
+
+    @Test
+    public void testBulkBalancesLargerThanInFlightLimit() {
+        AsyncBank limited = new AsyncBank(new ShardedBank(8), 2);
+        try {
+            int accounts = 5 * AsyncBank.BULK_CHUNK;
+            String[] numbers = new String[accounts];
+            for (int i = 0; i < accounts; i++) {
+                numbers[i] = "ACC" + i;
+                limited.createAccount(numbers[i], i).join();
+            }
+            double[] balances = limited.getAccountBalances(numbers).join();
+            for (int i = 0; i < accounts; i++) {
+                assertEquals(i, balances[i], 0.0);
+            }
+            assertEquals(0, limited.getInFlightCount());
+        } finally {
+            limited.close();
+        }
+    }
+
+    @Test
+    public void testCallerSuppliedExecutorIsNotShutDown() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            AsyncBank custom = new AsyncBank(new ShardedBank(8), executor, 4);
+            custom.createAccount("A", 5.0).join();
+            custom.close();
+            assertFalse(executor.isShutdown());
+            assertFalse(custom.usesVirtualThreads());
+            assertEquals(4, custom.getMaxInFlight());
+            try {
+                custom.depositToAccount("A", 1.0).join();
+                fail("Expected the closed facade to reject operations.");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+            try {
+                custom.getAccountBalances(new String[] {"A"}).join();
+                fail("Expected the closed facade to reject operations.");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+            assertEquals(0, custom.getInFlightCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testOperationsAfterCloseAreRejected() {
+        bank.close();
+        try {
+            bank.createAccount("A", 5.0).join();
+            fail("Expected the closed facade to reject operations.");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        assertEquals(0, bank.getInFlightCount());
+    }
+
+    @Test
+    public void testDefaultsFollowRuntime() {
+        assertEquals(AsyncBank.DEFAULT_MAX_IN_FLIGHT, bank.getMaxInFlight());
+        assertEquals(Runtime.version().feature() >= 21, bank.usesVirtualThreads());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidInFlightLimit() {
+        new AsyncBank(new ShardedBank(8), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullBank() {
+        new AsyncBank(null);
+    }
+}
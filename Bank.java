@@ -1,3 +1,4 @@
+import java.util.BitSet;
 import java.util.HashMap;
 
 /**
@@ -5,6 +6,11 @@ import java.util.HashMap;
  *
  * <p> Provides methods to create, close, and manage bank accounts using
  * a HashMap. Accounts can be accessed using their unique account numbers.
+ *
+ * <p> Besides the single-account methods, the bank offers batch methods that create, deposit
+ * into or read many accounts in one call. They take parallel arrays, process the items in
+ * order and report the items that could not be applied in a BitSet instead of throwing, so a
+ * batch with many invalid items costs no more than one with none.
  */
 public class Bank {
 
@@ -124,4 +130,95 @@ public class Bank {
         }
         return accounts.get(accountNumber).getBalance();
     }
+
+    /**
+     * Creates one account for each item of the batch.
+     *
+     * <p> Items are applied in order. An item fails if its account number is null or an account
+     * with that number already exists, including one created by an earlier item of the batch;
+     * failed items change nothing.
+     *
+     * @param accountNumbers the account numbers of the new accounts
+     * @param initialDeposits the initial deposit of each new account
+     * @return a BitSet with the bit of each failed item set
+     * @throws IllegalArgumentException if an array is null or the arrays differ in length
+     */
+    public BitSet createAccounts(String[] accountNumbers, double[] initialDeposits) {
+        checkBatch(accountNumbers, initialDeposits);
+        BitSet failed = new BitSet(accountNumbers.length);
+        for (int i = 0; i < accountNumbers.length; i++) {
+            String accountNumber = accountNumbers[i];
+            if (accountNumber == null || accounts.putIfAbsent(accountNumber,
+                    new Account(accountNumber, initialDeposits[i])) != null) {
+                failed.set(i);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Deposits an amount into the account of each item of the batch.
+     *
+     * <p> Items are applied in order. An item fails if its account does not exist or its amount
+     * is not a positive finite number; failed items change nothing.
+     *
+     * @param accountNumbers the account numbers of the accounts to deposit into
+     * @param amounts the amount to deposit for each item
+     * @return a BitSet with the bit of each failed item set
+     * @throws IllegalArgumentException if an array is null or the arrays differ in length
+     */
+    public BitSet depositToAccounts(String[] accountNumbers, double[] amounts) {
+        checkBatch(accountNumbers, amounts);
+        BitSet failed = new BitSet(accountNumbers.length);
+        for (int i = 0; i < accountNumbers.length; i++) {
+            Account account = accountNumbers[i] == null ? null : accounts.get(accountNumbers[i]);
+            if (account == null || !Double.isFinite(amounts[i]) || amounts[i] <= 0) {
+                failed.set(i);
+            } else {
+                account.deposit(amounts[i]);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Reads the balance of the account of each item of the batch.
+     *
+     * <p> An item fails if its account does not exist; its balance is set to NaN.
+     *
+     * @param accountNumbers the account numbers of the accounts to read
+     * @param balances receives the balance of each item
+     * @return a BitSet with the bit of each failed item set
+     * @throws IllegalArgumentException if an array is null or the arrays differ in length
+     */
+    public BitSet getAccountBalances(String[] accountNumbers, double[] balances) {
+        checkBatch(accountNumbers, balances);
+        BitSet failed = new BitSet(accountNumbers.length);
+        for (int i = 0; i < accountNumbers.length; i++) {
+            Account account = accountNumbers[i] == null ? null : accounts.get(accountNumbers[i]);
+            if (account == null) {
+                balances[i] = Double.NaN;
+                failed.set(i);
+            } else {
+                balances[i] = account.getBalance();
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Checks the arrays of a batch call.
+     *
+     * @param accountNumbers the account numbers of the batch
+     * @param values the amounts or balances of the batch
+     * @throws IllegalArgumentException if an array is null or the arrays differ in length
+     */
+    static void checkBatch(String[] accountNumbers, double[] values) {
+        if (accountNumbers == null || values == null) {
+            throw new IllegalArgumentException("Batch arrays cannot be null.");
+        }
+        if (accountNumbers.length != values.length) {
+            throw new IllegalArgumentException("Batch arrays must have the same length.");
+        }
+    }
 }
@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compares an end-of-day job that calls the bank once per account with the same job using the
+ * batch methods.
+ *
+ * <p> The job creates the accounts, deposits into random accounts, one in ten of which does not
+ * exist, and reads the balances back. The single-call version catches the
+ * IllegalArgumentException of every invalid item, the batch version reads the failure BitSet.
+ * The job runs on Bank and ShardedBank, and a smaller deposit job on DurableBank shows the
+ * syncs saved by logging a batch with one group commit.
+ */
+public class BankBatchBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional account count and number of durable deposits
+     * @throws IOException if the durable bank's log cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int durableDeposits = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        String[] numbers = new String[accounts];
+        double[] initial = new double[accounts];
+        String[] targets = new String[accounts];
+        double[] amounts = new double[accounts];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < accounts; i++) {
+            numbers[i] = "ACC" + i;
+            initial[i] = 1000;
+        }
+        for (int i = 0; i < accounts; i++) {
+            int target = random.nextInt(accounts);
+            targets[i] = random.nextInt(10) == 0 ? "MISSING" + target : numbers[target];
+            amounts[i] = 1 + random.nextInt(100);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("Round %d%n", round + 1);
+            runJob("Bank", new Bank(), new Bank(), numbers, initial, targets, amounts);
+            runJob("ShardedBank", new ShardedBank(), new ShardedBank(), numbers, initial, targets, amounts);
+        }
+        runDurable(numbers, initial, targets, amounts, durableDeposits);
+    }
+
+    /**
+     * Runs the job one call at a time on one bank and with the batch methods on another.
+     *
+     * @param name the name of the bank type
+     * @param single the bank for the single-call job
+     * @param batch the bank for the batch job
+     * @param numbers the account numbers to create
+     * @param initial the initial deposits
+     * @param targets the account numbers to deposit into and read
+     * @param amounts the deposit amounts
+     */
+    private static void runJob(String name, Bank single, Bank batch, String[] numbers, double[] initial,
+            String[] targets, double[] amounts) {
+        double[] balances = new double[targets.length];
+        long start = System.nanoTime();
+        for (int i = 0; i < numbers.length; i++) {
+            single.createAccount(numbers[i], initial[i]);
+        }
+        long created = System.nanoTime();
+        int failures = 0;
+        for (int i = 0; i < targets.length; i++) {
+            try {
+                single.depositToAccount(targets[i], amounts[i]);
+            } catch (IllegalArgumentException e) {
+                failures++;
+            }
+        }
+        long deposited = System.nanoTime();
+        for (int i = 0; i < targets.length; i++) {
+            try {
+                balances[i] = single.getAccountBalance(targets[i]);
+            } catch (IllegalArgumentException e) {
+                balances[i] = Double.NaN;
+            }
+        }
+        long read = System.nanoTime();
+
+        long batchStart = System.nanoTime();
+        batch.createAccounts(numbers, initial);
+        long batchCreated = System.nanoTime();
+        BitSet failed = batch.depositToAccounts(targets, amounts);
+        long batchDeposited = System.nanoTime();
+        batch.getAccountBalances(targets, balances);
+        long batchRead = System.nanoTime();
+
+        System.out.printf("  %-12s single calls: create %7.1f ms, deposit %7.1f ms, read %7.1f ms (%d failed)%n",
+                name, (created - start) / 1e6, (deposited - created) / 1e6, (read - deposited) / 1e6, failures);
+        System.out.printf("  %-12s batch:        create %7.1f ms, deposit %7.1f ms, read %7.1f ms (%d failed)%n",
+                name, (batchCreated - batchStart) / 1e6, (batchDeposited - batchCreated) / 1e6,
+                (batchRead - batchDeposited) / 1e6, failed.cardinality());
+    }
+
+    /**
+     * Deposits into a DurableBank one call at a time and as one batch, and reports time and syncs.
+     *
+     * @param numbers the account numbers to create
+     * @param initial the initial deposits
+     * @param targets the account numbers to deposit into
+     * @param amounts the deposit amounts
+     * @param deposits the number of deposits to make
+     * @throws IOException if a log cannot be written
+     */
+    private static void runDurable(String[] numbers, double[] initial, String[] targets, double[] amounts,
+            int deposits) throws IOException {
+        int count = Math.min(deposits, numbers.length);
+        String[] accountNumbers = new String[count];
+        double[] accountDeposits = new double[count];
+        String[] depositTargets = new String[count];
+        double[] depositAmounts = new double[count];
+        for (int i = 0; i < count; i++) {
+            accountNumbers[i] = numbers[i];
+            accountDeposits[i] = initial[i];
+            depositTargets[i] = numbers[Math.floorMod(targets[i].hashCode(), count)];
+            depositAmounts[i] = amounts[i];
+        }
+        Path directory = Files.createTempDirectory("bank-batch");
+        try (DurableBank single = new DurableBank(directory.resolve("single.wal"));
+                DurableBank batch = new DurableBank(directory.resolve("batch.wal"))) {
+            single.createAccounts(accountNumbers, accountDeposits);
+            batch.createAccounts(accountNumbers, accountDeposits);
+            long singleSyncs = single.getSyncCount();
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                single.depositToAccount(depositTargets[i], depositAmounts[i]);
+            }
+            long singleNanos = System.nanoTime() - start;
+            long batchSyncs = batch.getSyncCount();
+            start = System.nanoTime();
+            batch.depositToAccounts(depositTargets, depositAmounts);
+            long batchNanos = System.nanoTime() - start;
+            System.out.printf("DurableBank, %d deposits: single calls %8.1f ms with %d syncs,"
+                    + " batch %8.1f ms with %d sync%n", count, singleNanos / 1e6,
+                    single.getSyncCount() - singleSyncs, batchNanos / 1e6, batch.getSyncCount() - batchSyncs);
+        } finally {
+            Files.deleteIfExists(directory.resolve("single.wal"));
+            Files.deleteIfExists(directory.resolve("batch.wal"));
+            Files.deleteIfExists(directory);
+        }
+    }
+}
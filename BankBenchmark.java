@@ -0,0 +1,114 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures mixed read and write throughput of the account registry at increasing thread counts.
+ *
+ * <p> Compares a Bank guarded by a single monitor with the ShardedBank. Every operation picks a
+ * random account; 80% are balance reads, 15% deposits and 5% close-and-recreate pairs.
+ */
+public class BankBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional account count and operations per thread
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int opsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            Bank locked = populate(new Bank(), accounts);
+            Bank sharded = populate(new ShardedBank(), accounts);
+            run(locked, accounts, threads, opsPerThread, true);
+            run(sharded, accounts, threads, opsPerThread, false);
+            double lockedRate = run(locked, accounts, threads, opsPerThread, true);
+            double shardedRate = run(sharded, accounts, threads, opsPerThread, false);
+            System.out.printf("%3d threads: Bank (synchronized) %8.2f Mops/s, ShardedBank %8.2f Mops/s%n",
+                    threads, lockedRate, shardedRate);
+        }
+    }
+
+    /**
+     * Creates the benchmark accounts.
+     *
+     * @param bank the bank to fill
+     * @param accounts the number of accounts to create
+     * @return the filled bank
+     */
+    private static Bank populate(Bank bank, int accounts) {
+        for (int i = 0; i < accounts; i++) {
+            bank.createAccount("ACC" + i, 1000);
+        }
+        return bank;
+    }
+
+    /**
+     * Runs the mixed workload on all threads.
+     *
+     * @param bank the bank under test
+     * @param accounts the number of accounts
+     * @param threads the number of threads
+     * @param opsPerThread the number of operations each thread performs
+     * @param synchronize whether every operation takes the bank's monitor
+     * @return the throughput in millions of operations per second
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    private static double run(Bank bank, int accounts, int threads, int opsPerThread, boolean synchronize)
+            throws InterruptedException {
+        String[] numbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            numbers[i] = "ACC" + i;
+        }
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < opsPerThread; i++) {
+                    String number = numbers[random.nextInt(accounts)];
+                    int dice = random.nextInt(100);
+                    if (synchronize) {
+                        synchronized (bank) {
+                            apply(bank, number, dice);
+                        }
+                    } else {
+                        apply(bank, number, dice);
+                    }
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long nanos = System.nanoTime() - start;
+        return (double) threads * opsPerThread / (nanos / 1000.0);
+    }
+
+    /**
+     * Applies one benchmark operation.
+     *
+     * @param bank the bank under test
+     * @param number the account number
+     * @param dice a random number between 0 and 99 selecting the operation
+     */
+    private static void apply(Bank bank, String number, int dice) {
+        try {
+            if (dice < 80) {
+                bank.getAccountBalance(number);
+            } else if (dice < 95) {
+                bank.depositToAccount(number, 1);
+            } else {
+                bank.closeAccount(number);
+                bank.createAccount(number, 1000);
+            }
+        } catch (IllegalArgumentException e) {
+            // Another thread closed the account in between.
+        }
+    }
+}
@@ -1,3 +1,4 @@
+import java.util.BitSet;
 import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -103,5 +104,50 @@ public class BankTest {
         assertTrue(bank.hasAccount("133"));
         assertEquals(-100.0, bank.getAccountBalance("133"), 0.01);
     }
-}
 
+    @Test
+    public void testCreateAccountsReportsDuplicates() {
+        bank.createAccount("A", 10.0);
+        BitSet failed = bank.createAccounts(new String[] {"A", "B", "C", "B", null},
+                new double[] {1.0, 2.0, 3.0, 4.0, 5.0});
+        assertEquals("{0, 3, 4}", failed.toString());
+        assertEquals(3, bank.getNumAccounts());
+        assertEquals(10.0, bank.getAccountBalance("A"), 0.001);
+        assertEquals(2.0, bank.getAccountBalance("B"), 0.001);
+    }
+
+    @Test
+    public void testDepositToAccountsReportsInvalidItems() {
+        bank.createAccount("A", 10.0);
+        bank.createAccount("B", 20.0);
+        BitSet failed = bank.depositToAccounts(new String[] {"A", "MISSING", "B", "A", null},
+                new double[] {5.0, 5.0, -1.0, 2.5, 1.0});
+        assertEquals("{1, 2, 4}", failed.toString());
+        assertEquals(17.5, bank.getAccountBalance("A"), 0.001);
+        assertEquals(20.0, bank.getAccountBalance("B"), 0.001);
+    }
+
+    @Test
+    public void testDepositToAccountsRejectsNonFiniteAmounts() {
+        bank.createAccount("A", 10.0);
+        BitSet failed = bank.depositToAccounts(new String[] {"A", "A", "A", "A"},
+                new double[] {Double.NaN, Double.POSITIVE_INFINITY, 0.001, -0.0});
+        assertEquals("{0, 1, 3}", failed.toString());
+        assertEquals(10.001, bank.getAccountBalance("A"), 1e-9);
+    }
+
+    @Test
+    public void testGetAccountBalancesMarksMissingAccounts() {
+        bank.createAccount("A", 10.0);
+        double[] balances = new double[2];
+        BitSet failed = bank.getAccountBalances(new String[] {"MISSING", "A"}, balances);
+        assertEquals("{0}", failed.toString());
+        assertTrue(Double.isNaN(balances[0]));
+        assertEquals(10.0, balances[1], 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchArraysMustMatch() {
+        bank.depositToAccounts(new String[] {"A"}, new double[2]);
+    }
+}
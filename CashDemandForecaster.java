@@ -0,0 +1,273 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Forecasts the cash demand of ATMs from their stream of withdrawals.
+ *
+ * <p> For every machine the forecaster keeps an exponentially time-decayed withdrawal rate: each
+ * withdrawal adds its amount, and the accumulated demand fades with the time constant given at
+ * construction, so recent behaviour dominates and the estimate follows changes in demand. From
+ * the rate and the last known cash balance it predicts when a machine will run empty and derives
+ * a per-machine low-cash threshold, the cash needed to cover a refill lead time, in place of the
+ * fixed threshold of {@link ATM#isLowOnCash()}.
+ *
+ * <p> State is held in parallel primitive arrays indexed by machine, three numbers per machine, and
+ * recording an event takes constant time without allocation. Machines are registered once under
+ * their ID and then addressed by index on the hot path. A forecaster is meant to be fed by a
+ * single consumer thread and is not safe for concurrent use.
+ */
+public class CashDemandForecaster {
+
+    /**
+     * The number of milliseconds in an hour.
+     */
+    private static final double MILLIS_PER_HOUR = 3_600_000;
+
+    /**
+     * The time constant of the rate decay, in milliseconds.
+     */
+    private final double timeConstantMillis;
+
+    /**
+     * The index of each registered machine by ID.
+     */
+    private final Map<String, Integer> indexById = new HashMap<>();
+
+    /**
+     * The decayed withdrawal rate of each machine, in cash per millisecond, as of its last event.
+     */
+    private double[] rates = new double[16];
+
+    /**
+     * The time of the last event of each machine, in milliseconds.
+     */
+    private long[] lastEventTimes = new long[16];
+
+    /**
+     * The last known cash balance of each machine.
+     */
+    private double[] cash = new double[16];
+
+    /**
+     * The number of registered machines.
+     */
+    private int size;
+
+    /**
+     * Constructs a forecaster whose rates decay with the given time constant.
+     *
+     * @param timeConstantMillis the time after which old demand weighs 1/e as much as new demand, in
+     *                           milliseconds; must be greater than 0
+     * @throws IllegalArgumentException if the time constant is not greater than 0
+     */
+    public CashDemandForecaster(long timeConstantMillis) {
+        if (timeConstantMillis <= 0) {
+            throw new IllegalArgumentException("Time constant must be greater than 0.");
+        }
+        this.timeConstantMillis = timeConstantMillis;
+    }
+
+    /**
+     * Registers a machine with its current cash balance.
+     *
+     * @param atmId the unique ID of the machine
+     * @param cashBalance the current cash balance
+     * @param now the current time in milliseconds
+     * @return the index to address the machine with
+     * @throws IllegalArgumentException if the ID is null or already registered, or the balance is negative
+     */
+    public int register(String atmId, double cashBalance, long now) {
+        if (atmId == null || indexById.containsKey(atmId)) {
+            throw new IllegalArgumentException("ATM ID cannot be null or already registered.");
+        }
+        if (cashBalance < 0) {
+            throw new IllegalArgumentException("Cash balance cannot be negative.");
+        }
+        if (size == rates.length) {
+            rates = Arrays.copyOf(rates, size * 2);
+            lastEventTimes = Arrays.copyOf(lastEventTimes, size * 2);
+            cash = Arrays.copyOf(cash, size * 2);
+        }
+        rates[size] = 0;
+        lastEventTimes[size] = now;
+        cash[size] = cashBalance;
+        indexById.put(atmId, size);
+        return size++;
+    }
+
+    /**
+     * Returns the index of a registered machine.
+     *
+     * @param atmId the ID of the machine
+     * @return the index of the machine
+     * @throws IllegalArgumentException if the machine is not registered
+     */
+    public int indexOf(String atmId) {
+        Integer index = indexById.get(atmId);
+        if (index == null) {
+            throw new IllegalArgumentException("ATM not registered.");
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of registered machines.
+     *
+     * @return the number of machines
+     */
+    public int getNumMachines() {
+        return size;
+    }
+
+    /**
+     * Records a withdrawal from a machine.
+     *
+     * <p> Events are expected in time order per machine; an event older than the previous one is
+     * counted as happening at the time of the previous one.
+     *
+     * @param machine the index of the machine
+     * @param amount the amount withdrawn; must be greater than 0 and finite
+     * @param time the time of the withdrawal in milliseconds
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalArgumentException if the amount is not greater than 0, is NaN or is infinite
+     */
+    public void recordWithdrawal(int machine, double amount, long time) {
+        checkIndex(machine);
+        if (!(amount > 0 && amount < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Withdrawal amount must be greater than 0 and finite.");
+        }
+        long elapsed = time - lastEventTimes[machine];
+        if (elapsed > 0) {
+            rates[machine] *= Math.exp(-elapsed / timeConstantMillis);
+            lastEventTimes[machine] = time;
+        }
+        rates[machine] += amount / timeConstantMillis;
+        cash[machine] = Math.max(0, cash[machine] - amount);
+    }
+
+    /**
+     * Records a withdrawal from a machine.
+     *
+     * @param atmId the ID of the machine
+     * @param amount the amount withdrawn; must be greater than 0 and finite
+     * @param time the time of the withdrawal in milliseconds
+     * @throws IllegalArgumentException if the machine is not registered, or the amount is not
+     *                                  greater than 0, is NaN or is infinite
+     */
+    public void recordWithdrawal(String atmId, double amount, long time) {
+        recordWithdrawal(indexOf(atmId), amount, time);
+    }
+
+    /**
+     * Records the cash balance of a machine after a refill or a count, without affecting its rate.
+     *
+     * @param machine the index of the machine
+     * @param cashBalance the cash balance of the machine
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalArgumentException if the balance is negative
+     */
+    public void recordCashBalance(int machine, double cashBalance) {
+        checkIndex(machine);
+        if (cashBalance < 0) {
+            throw new IllegalArgumentException("Cash balance cannot be negative.");
+        }
+        cash[machine] = cashBalance;
+    }
+
+    /**
+     * Returns the last known cash balance of a machine.
+     *
+     * @param machine the index of the machine
+     * @return the cash balance
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getCashBalance(int machine) {
+        checkIndex(machine);
+        return cash[machine];
+    }
+
+    /**
+     * Returns the estimated withdrawal rate of a machine at the given time.
+     *
+     * @param machine the index of the machine
+     * @param now the current time in milliseconds
+     * @return the estimated cash withdrawn per hour
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getWithdrawalRatePerHour(int machine, long now) {
+        return rateAt(machine, now) * MILLIS_PER_HOUR;
+    }
+
+    /**
+     * Predicts how long a machine's cash lasts at its current withdrawal rate.
+     *
+     * @param machine the index of the machine
+     * @param now the current time in milliseconds
+     * @return the predicted time until the machine is empty in milliseconds, or Long.MAX_VALUE if it has no demand
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long predictTimeToEmpty(int machine, long now) {
+        double rate = rateAt(machine, now);
+        if (rate <= 0) {
+            return Long.MAX_VALUE;
+        }
+        double millis = cash[machine] / rate;
+        return millis >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) millis;
+    }
+
+    /**
+     * Returns the low-cash threshold of a machine: the cash it is expected to hand out during the
+     * refill lead time, but never less than the given minimum.
+     *
+     * @param machine the index of the machine
+     * @param now the current time in milliseconds
+     * @param leadTimeMillis the time a refill takes to arrive, in milliseconds
+     * @param minimum the lowest threshold to return, such as the fixed ATM threshold
+     * @return the adaptive threshold
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getAdaptiveThreshold(int machine, long now, long leadTimeMillis, double minimum) {
+        return Math.max(minimum, rateAt(machine, now) * leadTimeMillis);
+    }
+
+    /**
+     * Checks whether a machine needs a refill now, because it is predicted to run empty before a
+     * refill ordered now would arrive. An empty machine is always due, even if it has no demand.
+     *
+     * @param machine the index of the machine
+     * @param now the current time in milliseconds
+     * @param leadTimeMillis the time a refill takes to arrive, in milliseconds
+     * @return true if the machine's cash is at or below its adaptive threshold
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean isRefillDue(int machine, long now, long leadTimeMillis) {
+        return cash[machine] <= getAdaptiveThreshold(machine, now, leadTimeMillis, 0);
+    }
+
+    /**
+     * Returns the withdrawal rate of a machine decayed to the given time.
+     *
+     * @param machine the index of the machine
+     * @param now the current time in milliseconds
+     * @return the rate in cash per millisecond
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private double rateAt(int machine, long now) {
+        checkIndex(machine);
+        long elapsed = now - lastEventTimes[machine];
+        return elapsed > 0 ? rates[machine] * Math.exp(-elapsed / timeConstantMillis) : rates[machine];
+    }
+
+    /**
+     * Checks that a machine index is in range.
+     *
+     * @param machine the index of the machine
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private void checkIndex(int machine) {
+        if (machine < 0 || machine >= size) {
+            throw new IndexOutOfBoundsException("Machine index: " + machine + ", Size: " + size);
+        }
+    }
+}
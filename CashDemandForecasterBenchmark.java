@@ -0,0 +1,56 @@
+import java.util.Random;
+
+/**
+ * Measures how many withdrawal events per second {@link CashDemandForecaster} processes on one thread.
+ *
+ * <p> Feeds a pregenerated stream of withdrawals, spread over a fleet of machines with increasing
+ * timestamps, and afterwards computes the time-to-empty and refill decision of every machine.
+ */
+public class CashDemandForecasterBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of machines and number of events
+     */
+    public static void main(String[] args) {
+        int machines = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int events = args.length > 1 ? Integer.parseInt(args[1]) : 20_000_000;
+        Random random = new Random(1);
+        int[] targets = new int[events];
+        double[] amounts = new double[events];
+        long[] times = new long[events];
+        long time = 0;
+        for (int i = 0; i < events; i++) {
+            targets[i] = random.nextInt(machines);
+            amounts[i] = 20 * (1 + random.nextInt(25));
+            time += random.nextInt(4);
+            times[i] = time;
+        }
+
+        for (int round = 0; round < 3; round++) {
+            CashDemandForecaster forecaster = new CashDemandForecaster(6 * 3_600_000L);
+            for (int m = 0; m < machines; m++) {
+                forecaster.register("ATM-" + m, 650_000, 0);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < events; i++) {
+                forecaster.recordWithdrawal(targets[i], amounts[i], times[i]);
+            }
+            long recordNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int due = 0;
+            long soonest = Long.MAX_VALUE;
+            for (int m = 0; m < machines; m++) {
+                soonest = Math.min(soonest, forecaster.predictTimeToEmpty(m, time));
+                if (forecaster.isRefillDue(m, time, 2 * 3_600_000L)) {
+                    due++;
+                }
+            }
+            long predictNanos = System.nanoTime() - start;
+            System.out.printf("Round %d: %.1f M events/s on one thread, forecast of %d machines in %.2f ms (%d due, soonest empty in %.1f h)%n",
+                    round + 1, events / (recordNanos / 1e3), machines, predictNanos / 1e6, due, soonest / 3_600_000.0);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CashDemandForecasterTest {
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+
+    private CashDemandForecaster forecaster;
+    private int machine;
+
+    @Before
+    public void setUp() {
+        forecaster = new CashDemandForecaster(HOUR);
+        machine = forecaster.register("A1", 100_000, 0);
+    }
+
+    private long feedSteadyDemand(int index, double amountPerMinute, int minutes) {
+        long time = 0;
+        for (int i = 1; i <= minutes; i++) {
+            time = i * MINUTE;
+            forecaster.recordWithdrawal(index, amountPerMinute, time);
+        }
+        return time;
+    }
+
+    @Test
+    public void testSteadyDemandConvergesToRate() {
+        long now = feedSteadyDemand(machine, 50, 10 * 60);
+        assertEquals(3000, forecaster.getWithdrawalRatePerHour(machine, now), 60);
+        assertEquals(100_000 - 50 * 600, forecaster.getCashBalance(machine), 1e-6);
+    }
+
+    @Test
+    public void testTimeToEmpty() {
+        long now = feedSteadyDemand(machine, 50, 10 * 60);
+        long predicted = forecaster.predictTimeToEmpty(machine, now);
+        assertEquals(70_000.0 / 3000 * HOUR, predicted, 0.05 * predicted);
+    }
+
+    @Test
+    public void testNoDemandNeverEmpties() {
+        assertEquals(Long.MAX_VALUE, forecaster.predictTimeToEmpty(machine, HOUR));
+        assertEquals(0, forecaster.getWithdrawalRatePerHour(machine, HOUR), 0);
+    }
+
+    @Test
+    public void testRateDecaysWhileIdle() {
+        long now = feedSteadyDemand(machine, 50, 10 * 60);
+        double busy = forecaster.getWithdrawalRatePerHour(machine, now);
+        assertEquals(busy / Math.E, forecaster.getWithdrawalRatePerHour(machine, now + HOUR), 1e-9 * busy);
+    }
+
+    @Test
+    public void testAdaptiveThresholdFollowsDemand() {
+        int quiet = forecaster.register("Q1", 100_000, 0);
+        long now = feedSteadyDemand(machine, 100, 5 * 60);
+        assertEquals(1000, forecaster.getAdaptiveThreshold(quiet, now, 4 * HOUR, 1000), 0);
+        assertEquals(6000 * 4, forecaster.getAdaptiveThreshold(machine, now, 4 * HOUR, 1000), 1500);
+        forecaster.recordCashBalance(machine, 20_000);
+        assertTrue(forecaster.isRefillDue(machine, now, 4 * HOUR));
+        forecaster.recordCashBalance(machine, 30_000);
+        assertFalse(forecaster.isRefillDue(machine, now, 4 * HOUR));
+    }
+
+    @Test
+    public void testEmptyMachineWithoutDemandIsDue() {
+        int idle = forecaster.register("E1", 0, 0);
+        assertTrue(forecaster.isRefillDue(idle, HOUR, 4 * HOUR));
+        assertFalse(forecaster.isRefillDue(machine, HOUR, 4 * HOUR));
+    }
+
+    @Test
+    public void testInvalidWithdrawalAmountsLeaveRateUnchanged() {
+        forecaster.recordWithdrawal(machine, 100, MINUTE);
+        double rate = forecaster.getWithdrawalRatePerHour(machine, MINUTE);
+        double[] invalid = {-50, 0, Double.NaN, Double.POSITIVE_INFINITY};
+        for (double amount : invalid) {
+            try {
+                forecaster.recordWithdrawal(machine, amount, 2 * MINUTE);
+                fail("Expected amount " + amount + " to be rejected.");
+            } catch (IllegalArgumentException e) {
+                assertEquals("Withdrawal amount must be greater than 0 and finite.", e.getMessage());
+            }
+        }
+        assertEquals(rate, forecaster.getWithdrawalRatePerHour(machine, MINUTE), 0);
+        assertEquals(100_000 - 100, forecaster.getCashBalance(machine), 0);
+    }
+
+    @Test
+    public void testOutOfOrderEventDoesNotDecay() {
+        forecaster.recordWithdrawal(machine, 100, HOUR);
+        forecaster.recordWithdrawal(machine, 100, HOUR - MINUTE);
+        assertEquals(200, forecaster.getWithdrawalRatePerHour(machine, HOUR), 1e-9);
+    }
+
+    @Test
+    public void testRegisterAndLookUpById() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 1, forecaster.register("M" + i, 1000, 0));
+        }
+        assertEquals(101, forecaster.getNumMachines());
+        assertEquals(0, forecaster.indexOf("A1"));
+        forecaster.recordWithdrawal("M5", 500, MINUTE);
+        assertEquals(500, forecaster.getCashBalance(forecaster.indexOf("M5")), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateRegistration() {
+        forecaster.register("A1", 10, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownMachine() {
+        forecaster.indexOf("Z9");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfRange() {
+        forecaster.recordWithdrawal(1, 10, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTimeConstant() {
+        new CashDemandForecaster(0);
+    }
+}
@@ -0,0 +1,443 @@
+import java.util.Arrays;
+
+/**
+ * Plans and dispenses withdrawals from the note cassettes of an ATM.
+ *
+ * <p> Each cassette holds notes of one denomination. A withdrawal is paid with the fewest notes
+ * the cassettes can supply. The plans for every amount up to the maximum withdrawal are
+ * precomputed in a bounded change-making table: for each cassette and amount it records how many
+ * notes of that cassette the best plan uses, so a withdrawal is read back in one step per
+ * cassette instead of searching note combinations.
+ *
+ * <p> The table also records how many notes of each cassette any of its plans needs. While every
+ * cassette still holds at least that many notes, every plan in the table can still be paid and
+ * remains the best one, so dispensing only updates the counts. When a cassette drops below its
+ * mark, or a cassette is refilled and better plans may exist, the table is updated before the
+ * next withdrawal. The table is built one cassette at a time, each row from the row before it,
+ * so an update starts at the row of the changed cassette, keeps the rows below it, and stops as
+ * soon as a recomputed row comes out unchanged. Each row takes one pass over the amounts, so
+ * even an update that reaches the last row costs time proportional to the number of cassettes
+ * times the number of amounts, independent of the note counts. Methods are synchronized, so one
+ * dispenser can serve several sessions.
+ */
+public class CashDispenser {
+
+    /**
+     * Marks an amount that the cassettes cannot pay.
+     */
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * The denomination of each cassette.
+     */
+    private final int[] denominations;
+
+    /**
+     * The number of notes in each cassette.
+     */
+    private final int[] counts;
+
+    /**
+     * The greatest common divisor of the denominations; every payable amount is a multiple of it.
+     */
+    private final int unit;
+
+    /**
+     * The largest amount a single withdrawal may request.
+     */
+    private final int maxWithdrawal;
+
+    /**
+     * For each cassette, the number of its notes used by the best plan for each amount in units,
+     * given the cassettes before it. Valid only for the rows below {@link #staleFrom}.
+     */
+    private final int[][] take;
+
+    /**
+     * For each cassette, the number of notes of the best plan for each amount in units using that
+     * cassette and the ones before it, or {@link #UNREACHABLE}. The last row holds the plans of
+     * the whole dispenser.
+     */
+    private final int[][] notesFor;
+
+    /**
+     * A spare row that an update computes into before it is compared with the row it replaces.
+     */
+    private int[] freshRow;
+
+    /**
+     * The positions of the sliding window of candidate note counts used while computing a row.
+     */
+    private final int[] window;
+
+    /**
+     * For each cassette, the largest number of its notes that any plan in the table uses.
+     */
+    private final int[] maxUse;
+
+    /**
+     * The lowest cassette whose change has not yet been applied to the table, or the number of
+     * cassettes if the table matches the current counts.
+     */
+    private int staleFrom;
+
+    /**
+     * The highest cassette whose change has not yet been applied to the table; meaningful only
+     * while {@link #staleFrom} is a cassette.
+     */
+    private int staleTo;
+
+    /**
+     * The number of times the table has been built or updated.
+     */
+    private long rebuilds;
+
+    /**
+     * The number of table rows computed over all builds and updates.
+     */
+    private long rowUpdates;
+
+    /**
+     * Constructs a dispenser with the given cassettes.
+     *
+     * @param denominations the denomination of each cassette; each must be greater than 0 and distinct
+     * @param counts the initial number of notes in each cassette; none may be negative
+     * @param maxWithdrawal the largest amount a single withdrawal may request; must be greater than 0
+     * @throws IllegalArgumentException if the arrays differ in length or are empty, or a value is out of range
+     */
+    public CashDispenser(int[] denominations, int[] counts, int maxWithdrawal) {
+        if (denominations.length == 0 || denominations.length != counts.length) {
+            throw new IllegalArgumentException("Each cassette needs a denomination and a note count.");
+        }
+        if (maxWithdrawal <= 0) {
+            throw new IllegalArgumentException("Maximum withdrawal must be greater than 0.");
+        }
+        int divisor = 0;
+        for (int i = 0; i < denominations.length; i++) {
+            if (denominations[i] <= 0 || counts[i] < 0) {
+                throw new IllegalArgumentException("Denominations must be positive and note counts cannot be negative.");
+            }
+            for (int j = 0; j < i; j++) {
+                if (denominations[j] == denominations[i]) {
+                    throw new IllegalArgumentException("Denominations must be distinct.");
+                }
+            }
+            divisor = gcd(divisor, denominations[i]);
+        }
+        this.denominations = denominations.clone();
+        this.counts = counts.clone();
+        this.unit = divisor;
+        this.maxWithdrawal = maxWithdrawal;
+        int cells = maxWithdrawal / unit + 1;
+        this.take = new int[denominations.length][cells];
+        this.notesFor = new int[denominations.length][cells];
+        this.freshRow = new int[cells];
+        this.window = new int[cells];
+        this.maxUse = new int[denominations.length];
+        this.staleFrom = 0;
+        this.staleTo = denominations.length - 1;
+    }
+
+    /**
+     * Returns the number of cassettes.
+     *
+     * @return the number of cassettes
+     */
+    public int getCassetteCount() {
+        return denominations.length;
+    }
+
+    /**
+     * Returns the denomination of a cassette.
+     *
+     * @param cassette the index of the cassette
+     * @return the denomination of its notes
+     */
+    public int getDenomination(int cassette) {
+        return denominations[cassette];
+    }
+
+    /**
+     * Returns the number of notes left in a cassette.
+     *
+     * @param cassette the index of the cassette
+     * @return the number of notes
+     */
+    public synchronized int getNoteCount(int cassette) {
+        return counts[cassette];
+    }
+
+    /**
+     * Returns the total value of the notes in all cassettes.
+     *
+     * @return the cash held by the dispenser
+     */
+    public synchronized long getTotalCash() {
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            total += (long) denominations[i] * counts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the largest amount a single withdrawal may request.
+     *
+     * @return the maximum withdrawal
+     */
+    public int getMaxWithdrawal() {
+        return maxWithdrawal;
+    }
+
+    /**
+     * Returns the number of times the change table has been built or updated.
+     *
+     * @return the number of builds and updates
+     */
+    public synchronized long getRebuildCount() {
+        return rebuilds;
+    }
+
+    /**
+     * Returns the number of table rows computed over all builds and updates; a full build computes
+     * one row per cassette.
+     *
+     * @return the number of rows computed
+     */
+    public synchronized long getRowUpdateCount() {
+        return rowUpdates;
+    }
+
+    /**
+     * Checks whether the cassettes can currently pay the given amount.
+     *
+     * @param amount the amount to check
+     * @return true if a withdrawal of the amount would succeed, false otherwise
+     */
+    public synchronized boolean canDispense(int amount) {
+        return amount > 0 && amount <= maxWithdrawal && amount % unit == 0 && lookUp(amount) != UNREACHABLE;
+    }
+
+    /**
+     * Returns the notes the dispenser would pay for the given amount, without paying them.
+     *
+     * @param amount the amount to plan
+     * @return the number of notes from each cassette, or null if the amount cannot be paid
+     * @throws IllegalArgumentException if the amount is not greater than 0 or exceeds the maximum withdrawal
+     */
+    public synchronized int[] plan(int amount) {
+        checkAmount(amount);
+        if (amount % unit != 0 || lookUp(amount) == UNREACHABLE) {
+            return null;
+        }
+        return readPlan(amount);
+    }
+
+    /**
+     * Pays the given amount with the fewest notes the cassettes can supply and removes the notes
+     * from the cassettes.
+     *
+     * @param amount the amount to withdraw
+     * @return the number of notes paid from each cassette
+     * @throws IllegalArgumentException if the amount is not greater than 0 or exceeds the maximum withdrawal
+     * @throws IllegalStateException if the notes in the cassettes cannot make up the amount
+     */
+    public synchronized int[] dispense(int amount) {
+        checkAmount(amount);
+        if (amount % unit != 0 || lookUp(amount) == UNREACHABLE) {
+            throw new IllegalStateException("ATM cannot dispense this amount with the notes available.");
+        }
+        int[] notes = readPlan(amount);
+        for (int i = 0; i < notes.length; i++) {
+            counts[i] -= notes[i];
+            if (counts[i] < maxUse[i]) {
+                markStale(i);
+            }
+        }
+        return notes;
+    }
+
+    /**
+     * Adds notes to a cassette.
+     *
+     * @param cassette the index of the cassette
+     * @param notes the number of notes to add; must be greater than 0
+     * @throws IllegalArgumentException if the number of notes is not greater than 0
+     */
+    public synchronized void refill(int cassette, int notes) {
+        if (notes <= 0) {
+            throw new IllegalArgumentException("Number of notes must be greater than 0.");
+        }
+        counts[cassette] = Math.addExact(counts[cassette], notes);
+        markStale(cassette);
+    }
+
+    /**
+     * Records that the table no longer matches the count of a cassette.
+     *
+     * @param cassette the index of the cassette
+     */
+    private void markStale(int cassette) {
+        if (staleFrom == denominations.length) {
+            staleFrom = cassette;
+            staleTo = cassette;
+        } else {
+            staleFrom = Math.min(staleFrom, cassette);
+            staleTo = Math.max(staleTo, cassette);
+        }
+    }
+
+    /**
+     * Checks that an amount is within the range of a single withdrawal.
+     *
+     * @param amount the requested amount
+     * @throws IllegalArgumentException if the amount is not greater than 0 or exceeds the maximum withdrawal
+     */
+    private void checkAmount(int amount) {
+        if (amount <= 0 || amount > maxWithdrawal) {
+            throw new IllegalArgumentException("Withdrawal amount must be greater than 0 and at most " + maxWithdrawal + ".");
+        }
+    }
+
+    /**
+     * Returns the number of notes of the best plan for an amount, updating the table if needed.
+     *
+     * @param amount the amount, a multiple of the unit
+     * @return the number of notes, or {@link #UNREACHABLE}
+     */
+    private int lookUp(int amount) {
+        if (staleFrom < denominations.length) {
+            update();
+        }
+        return notesFor[denominations.length - 1][amount / unit];
+    }
+
+    /**
+     * Reads the plan for a payable amount back from the table.
+     *
+     * @param amount the amount, which the table can pay
+     * @return the number of notes from each cassette
+     */
+    private int[] readPlan(int amount) {
+        int[] notes = new int[denominations.length];
+        int cell = amount / unit;
+        for (int i = denominations.length - 1; i >= 0; i--) {
+            int used = take[i][cell];
+            notes[i] = used;
+            cell -= used * (denominations[i] / unit);
+        }
+        return notes;
+    }
+
+    /**
+     * Brings the change table up to date with the current cassette counts.
+     *
+     * <p> Cassettes are added one at a time: the best plan for each amount using the first i + 1
+     * cassettes takes some number of notes from cassette i, up to its count, and pays the rest
+     * with the best plan of the first i cassettes. Rows below the lowest changed cassette are
+     * kept. Rows from it up to the highest changed cassette are recomputed; above that, a row is
+     * recomputed only while the row before it changed.
+     */
+    private void update() {
+        boolean changed = true;
+        for (int i = staleFrom; i < denominations.length && (changed || i <= staleTo); i++) {
+            computeRow(i);
+            changed = !Arrays.equals(freshRow, notesFor[i]);
+            int[] replaced = notesFor[i];
+            notesFor[i] = freshRow;
+            freshRow = replaced;
+            rowUpdates++;
+        }
+        int cells = window.length;
+        Arrays.fill(maxUse, 0);
+        int[] notes = notesFor[denominations.length - 1];
+        for (int cell = 1; cell < cells; cell++) {
+            if (notes[cell] == UNREACHABLE) {
+                continue;
+            }
+            int rest = cell;
+            for (int i = denominations.length - 1; i >= 0; i--) {
+                int used = take[i][rest];
+                maxUse[i] = Math.max(maxUse[i], used);
+                rest -= used * (denominations[i] / unit);
+            }
+        }
+        staleFrom = denominations.length;
+        rebuilds++;
+    }
+
+    /**
+     * Computes the row of a cassette into {@link #freshRow} and its note counts into
+     * {@link #take}, from the row of the cassette before it.
+     *
+     * <p> Amounts that differ by a multiple of the cassette's denomination form a chain, and along
+     * a chain the best plan for an amount takes between 0 and the cassette's count of notes back
+     * from the amount. A sliding-window minimum over each chain finds that choice in constant
+     * amortized time per amount. On ties the plan with the fewest notes from this cassette wins.
+     *
+     * @param cassette the index of the cassette
+     */
+    private void computeRow(int cassette) {
+        int cells = window.length;
+        int step = denominations[cassette] / unit;
+        int limit = counts[cassette];
+        int[] previous = cassette == 0 ? null : notesFor[cassette - 1];
+        int[] takeRow = take[cassette];
+        int[] row = freshRow;
+        for (int residue = 0; residue < step && residue < cells; residue++) {
+            int head = 0;
+            int tail = 0;
+            for (int q = 0, cell = residue; cell < cells; q++, cell += step) {
+                int before = previous == null ? (cell == 0 ? 0 : UNREACHABLE) : previous[cell];
+                if (before != UNREACHABLE) {
+                    while (tail > head && candidate(previous, residue, step, window[tail - 1]) >= before - q) {
+                        tail--;
+                    }
+                    window[tail++] = q;
+                }
+                while (tail > head && window[head] < q - limit) {
+                    head++;
+                }
+                if (tail == head) {
+                    row[cell] = UNREACHABLE;
+                    takeRow[cell] = 0;
+                } else {
+                    int from = window[head];
+                    row[cell] = candidate(previous, residue, step, from) + q;
+                    takeRow[cell] = q - from;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the notes of the previous row's plan at a position of a chain, less the position,
+     * which ranks the position as a place to start taking notes of the current cassette.
+     *
+     * @param previous the row of the cassette before, or null for the first cassette
+     * @param residue the first amount of the chain, in units
+     * @param step the denomination of the current cassette, in units
+     * @param q the position in the chain
+     * @return the rank of the position; lower is better
+     */
+    private static int candidate(int[] previous, int residue, int step, int q) {
+        int cell = residue + q * step;
+        return (previous == null ? 0 : previous[cell]) - q;
+    }
+
+    /**
+     * Returns the greatest common divisor of two non-negative numbers.
+     *
+     * @param a the first number
+     * @param b the second number
+     * @return the greatest common divisor, or the other number if one is 0
+     */
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+}
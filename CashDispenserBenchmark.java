@@ -0,0 +1,124 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures withdrawal planning throughput across a fleet of ATMs.
+ *
+ * <p> Sends random withdrawals of 20 to 1000 in steps of 10 to randomly chosen machines, each
+ * with cassettes of 100, 50, 20 and 10, and refills a machine whenever it cannot pay a request.
+ * Compares {@link CashDispenser}, which reads plans from its change table, with a depth-first
+ * search for the fewest notes per request, and reports how often the tables had to be updated.
+ * Small cassettes keep the machines near depletion, where most withdrawals change the table.
+ */
+public class CashDispenserBenchmark {
+
+    /**
+     * The denominations of the cassettes of every machine.
+     */
+    private static final int[] DENOMINATIONS = {100, 50, 20, 10};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of machines, number of requests and notes per full cassette
+     */
+    public static void main(String[] args) {
+        int machines = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        int fullCassette = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        Random random = new Random(1);
+        int[] targets = new int[requests];
+        int[] amounts = new int[requests];
+        for (int i = 0; i < requests; i++) {
+            targets[i] = random.nextInt(machines);
+            amounts[i] = 20 + 10 * random.nextInt(99);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            CashDispenser[] fleet = new CashDispenser[machines];
+            int[] full = new int[DENOMINATIONS.length];
+            Arrays.fill(full, fullCassette);
+            for (int m = 0; m < machines; m++) {
+                fleet[m] = new CashDispenser(DENOMINATIONS, full, 1000);
+            }
+            long start = System.nanoTime();
+            long notes = 0;
+            for (int i = 0; i < requests; i++) {
+                CashDispenser machine = fleet[targets[i]];
+                if (!machine.canDispense(amounts[i])) {
+                    for (int c = 0; c < DENOMINATIONS.length; c++) {
+                        machine.refill(c, Math.max(1, fullCassette - machine.getNoteCount(c)));
+                    }
+                }
+                for (int count : machine.dispense(amounts[i])) {
+                    notes += count;
+                }
+            }
+            long tableNanos = System.nanoTime() - start;
+            long rebuilds = 0;
+            long rows = 0;
+            for (CashDispenser machine : fleet) {
+                rebuilds += machine.getRebuildCount();
+                rows += machine.getRowUpdateCount();
+            }
+
+            int[][] counts = new int[machines][DENOMINATIONS.length];
+            for (int[] machine : counts) {
+                Arrays.fill(machine, fullCassette);
+            }
+            int[] plan = new int[DENOMINATIONS.length];
+            int[] scratch = new int[DENOMINATIONS.length];
+            start = System.nanoTime();
+            long searchNotes = 0;
+            for (int i = 0; i < requests; i++) {
+                int[] machine = counts[targets[i]];
+                int best = search(machine, amounts[i], 0, 0, Integer.MAX_VALUE, scratch, plan);
+                if (best == Integer.MAX_VALUE) {
+                    Arrays.fill(machine, fullCassette);
+                    best = search(machine, amounts[i], 0, 0, Integer.MAX_VALUE, scratch, plan);
+                }
+                for (int c = 0; c < plan.length; c++) {
+                    machine[c] -= plan[c];
+                }
+                searchNotes += best;
+            }
+            long searchNanos = System.nanoTime() - start;
+            System.out.printf("Round %d, %d machines: change table %.2f M requests/s (%d table updates, %d rows), search %.2f M requests/s (%d / %d notes)%n",
+                    round + 1, machines, requests / (tableNanos / 1e3), rebuilds, rows, requests / (searchNanos / 1e3),
+                    notes, searchNotes);
+        }
+    }
+
+    /**
+     * Searches the note combinations of the cassettes from the given one on for the fewest notes
+     * that make up the amount.
+     *
+     * @param counts the notes available in each cassette
+     * @param amount the amount still to pay
+     * @param cassette the first cassette to take notes from
+     * @param used the number of notes taken so far
+     * @param best the fewest notes of a complete combination found so far
+     * @param current the notes taken from each cassette so far
+     * @param plan receives the best combination
+     * @return the fewest notes found, or Integer.MAX_VALUE if there is no combination
+     */
+    private static int search(int[] counts, int amount, int cassette, int used, int best, int[] current, int[] plan) {
+        if (used >= best) {
+            return best;
+        }
+        if (amount == 0) {
+            System.arraycopy(current, 0, plan, 0, plan.length);
+            return used;
+        }
+        if (cassette == counts.length) {
+            return best;
+        }
+        int denomination = DENOMINATIONS[cassette];
+        for (int take = Math.min(counts[cassette], amount / denomination); take >= 0; take--) {
+            current[cassette] = take;
+            best = search(counts, amount - take * denomination, cassette + 1, used + take, best, current, plan);
+        }
+        current[cassette] = 0;
+        return best;
+    }
+}
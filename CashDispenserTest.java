@@ -0,0 +1,134 @@
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CashDispenserTest {
+    private CashDispenser dispenser;
+
+    @Before
+    public void setUp() {
+        dispenser = new CashDispenser(new int[] {100, 50, 20, 10}, new int[] {10, 10, 10, 10}, 1000);
+    }
+
+    @Test
+    public void testDispenseUsesFewestNotes() {
+        assertArrayEquals(new int[] {2, 1, 1, 1}, dispenser.dispense(280));
+        assertEquals(9, dispenser.getNoteCount(1));
+        assertEquals(1800 - 280, dispenser.getTotalCash());
+    }
+
+    @Test
+    public void testPlanDoesNotDispense() {
+        assertArrayEquals(new int[] {0, 1, 1, 1}, dispenser.plan(80));
+        assertEquals(1800, dispenser.getTotalCash());
+    }
+
+    @Test
+    public void testNonGreedyCombination() {
+        CashDispenser twentiesAndFifties = new CashDispenser(new int[] {50, 20}, new int[] {10, 10}, 500);
+        assertArrayEquals(new int[] {0, 3}, twentiesAndFifties.dispense(60));
+        assertArrayEquals(new int[] {1, 4}, twentiesAndFifties.dispense(130));
+        assertFalse(twentiesAndFifties.canDispense(30));
+    }
+
+    @Test
+    public void testTableSurvivesDispensingUntilCassetteRunsLow() {
+        CashDispenser machine = new CashDispenser(new int[] {100, 50, 20, 10}, new int[] {20, 20, 20, 20}, 1000);
+        for (int i = 0; i < 10; i++) {
+            assertArrayEquals(new int[] {1, 1, 1, 1}, machine.dispense(180));
+        }
+        assertEquals(1, machine.getRebuildCount());
+        machine.dispense(100);
+        assertEquals(9, machine.getNoteCount(0));
+        assertArrayEquals(new int[] {9, 2, 0, 0}, machine.plan(1000));
+        assertEquals(2, machine.getRebuildCount());
+    }
+
+    @Test
+    public void testDepletedCassetteIsWorkedAround() {
+        CashDispenser machine = new CashDispenser(new int[] {100, 50, 20}, new int[] {5, 1, 10}, 1000);
+        assertArrayEquals(new int[] {0, 1, 0}, machine.dispense(50));
+        assertEquals(0, machine.getNoteCount(1));
+        assertArrayEquals(new int[] {1, 0, 2}, machine.plan(140));
+        assertArrayEquals(new int[] {0, 0, 3}, machine.plan(60));
+        assertNull(machine.plan(50));
+        assertNull(machine.plan(150));
+    }
+
+    @Test
+    public void testRefillRebuildsTable() {
+        CashDispenser machine = new CashDispenser(new int[] {50, 20}, new int[] {0, 10}, 200);
+        assertArrayEquals(new int[] {0, 5}, machine.plan(100));
+        machine.refill(0, 2);
+        assertArrayEquals(new int[] {2, 0}, machine.plan(100));
+        assertEquals(2, machine.getNoteCount(0));
+    }
+
+    @Test
+    public void testDepletingLastCassetteUpdatesOnlyItsRow() {
+        CashDispenser machine = new CashDispenser(new int[] {100, 50, 20, 10}, new int[] {20, 20, 20, 1}, 1000);
+        assertArrayEquals(new int[] {0, 0, 0, 1}, machine.dispense(10));
+        assertEquals(4, machine.getRowUpdateCount());
+        assertArrayEquals(new int[] {0, 0, 3, 0}, machine.plan(60));
+        assertEquals(2, machine.getRebuildCount());
+        assertEquals(5, machine.getRowUpdateCount());
+        assertFalse(machine.canDispense(10));
+    }
+
+    @Test
+    public void testUpdateStopsAtFirstUnchangedRow() {
+        CashDispenser machine = new CashDispenser(new int[] {100, 50, 20, 10}, new int[] {20, 20, 20, 20}, 1000);
+        assertArrayEquals(new int[] {9, 1, 2, 0}, machine.plan(990));
+        machine.refill(0, 5);
+        assertArrayEquals(new int[] {9, 1, 2, 0}, machine.plan(990));
+        assertEquals(5, machine.getRowUpdateCount());
+    }
+
+    @Test
+    public void testUpdatedTableMatchesFreshTable() {
+        int[] denominations = {50, 20, 10};
+        CashDispenser machine = new CashDispenser(denominations, new int[] {3, 4, 2}, 300);
+        machine.dispense(120);
+        machine.dispense(90);
+        machine.refill(1, 1);
+        int[] left = new int[denominations.length];
+        for (int i = 0; i < left.length; i++) {
+            left[i] = machine.getNoteCount(i);
+        }
+        CashDispenser fresh = new CashDispenser(denominations, left, 300);
+        for (int amount = 10; amount <= 300; amount += 10) {
+            assertArrayEquals("amount " + amount, fresh.plan(amount), machine.plan(amount));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAmountNotMultipleOfNotes() {
+        dispenser.dispense(75);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNotEnoughNotes() {
+        new CashDispenser(new int[] {20}, new int[] {2}, 200).dispense(60);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAmountAboveMaximum() {
+        dispenser.dispense(1010);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroAmount() {
+        dispenser.plan(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateDenominations() {
+        new CashDispenser(new int[] {20, 20}, new int[] {1, 1}, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRefill() {
+        dispenser.refill(0, 0);
+    }
+}
@@ -0,0 +1,512 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A transaction log that stores its entries in primitive columns instead of Transaction objects.
+ *
+ * <p> Amounts are kept in a {@code double[]}, types as a one-byte code, and IDs as UTF-8 bytes
+ * packed into a single growing byte arena with an offset per row. Lookups by ID go through an
+ * open-addressing hash table of row numbers, so the log holds no per-row objects at all.
+ * Transaction objects are created only when a caller asks for one, for example from
+ * {@link #findTransactionById(String)} or {@link #getTransactions()}.
+ *
+ * <p> Like TransactionLog, the log is safe to use from several threads, and its snapshots and pages
+ * capture the column arrays without copying them.
+ *
+ * <p> Types are stored in their canonical form, so a transaction added as "deposit" is returned
+ * with the type "Deposit". Transaction IDs must not be null.
+ */
+public class ColumnarTransactionLog extends AbstractTransactionLog {
+
+    /**
+     * The transaction types, indexed by the codes stored in the type column.
+     */
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    /**
+     * The amount of each row.
+     */
+    private double[] amounts = new double[16];
+
+    /**
+     * The type code of each row: the ordinal of its TransactionType.
+     */
+    private byte[] types = new byte[16];
+
+    /**
+     * The hash code of the ID of each row.
+     */
+    private int[] idHashes = new int[16];
+
+    /**
+     * The start of each row's ID in the arena; the ID of row i ends where row i + 1 starts.
+     */
+    private int[] idOffsets = new int[17];
+
+    /**
+     * The UTF-8 bytes of all IDs, one after another.
+     */
+    private byte[] idArena = new byte[256];
+
+    /**
+     * Open-addressing hash table of row numbers plus one; zero marks an empty slot.
+     */
+    private int[] idTable = new int[32];
+
+    /**
+     * The number of rows in the log.
+     */
+    private int size;
+
+    /**
+     * The running total of all amounts.
+     */
+    private final CompensatedSum totalAmount = new CompensatedSum();
+
+    /**
+     * The running total of the amounts of each transaction type, indexed by type code.
+     */
+    private final CompensatedSum[] amountByType = new CompensatedSum[TYPES.length];
+
+    /**
+     * The number of transactions of each transaction type, indexed by type code.
+     */
+    private final int[] countByType = new int[TYPES.length];
+
+    /**
+     * Constructs an empty ColumnarTransactionLog.
+     */
+    public ColumnarTransactionLog() {
+        for (int i = 0; i < amountByType.length; i++) {
+            amountByType[i] = new CompensatedSum();
+        }
+    }
+
+    /**
+     * Adds a transaction to the log. Only its fields are kept; the object itself is not retained.
+     *
+     * @param transaction transaction to add to the log
+     * @throws IllegalArgumentException if the transaction is null, has an invalid type,
+     *                                  or has the same ID as a transaction already in the log
+     */
+    @Override
+    public synchronized void addTransaction(Transaction transaction) {
+        if (transaction == null || !transaction.isValidType()) {
+            throw new IllegalArgumentException("Invalid or null transaction.");
+        }
+        addRow(transaction.getTransactionId(), transaction.getAmount(), transaction.getKind());
+    }
+
+    /**
+     * Adds a transaction to the log without creating a Transaction object.
+     *
+     * @param transactionId the unique identifier for the transaction
+     * @param amount the financial amount of the transaction
+     * @param type the type of the transaction ("Deposit" or "Withdrawal")
+     * @throws IllegalArgumentException if the amount is not greater than 0, the type is invalid,
+     *                                  or the ID is null or already in the log
+     */
+    public void addTransaction(String transactionId, double amount, String type) {
+        addTransaction(transactionId, amount, TransactionType.parse(type));
+    }
+
+    /**
+     * Adds a transaction to the log without creating a Transaction object.
+     *
+     * @param transactionId the unique identifier for the transaction
+     * @param amount the financial amount of the transaction
+     * @param type the type of the transaction
+     * @throws IllegalArgumentException if the amount is not greater than 0, the type is null,
+     *                                  or the ID is null or already in the log
+     */
+    public synchronized void addTransaction(String transactionId, double amount, TransactionType type) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Transaction amount must be greater than 0.");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Invalid or null transaction.");
+        }
+        addRow(transactionId, amount, type);
+    }
+
+    /**
+     * Returns an unmodifiable live view of the transactions in the log.
+     *
+     * <p> Each element is materialized from the columns when it is read.
+     *
+     * @return an unmodifiable view of the transactions
+     */
+    @Override
+    public List<Transaction> getTransactionsView() {
+        return new AbstractList<Transaction>() {
+            @Override
+            public Transaction get(int index) {
+                synchronized (ColumnarTransactionLog.this) {
+                    if (index < 0 || index >= size) {
+                        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+                    }
+                    return materialize(index);
+                }
+            }
+
+            @Override
+            public int size() {
+                return getNumTransactions();
+            }
+        };
+    }
+
+    /**
+     * Returns one page of the transactions in the log without copying the columns.
+     *
+     * <p> The page is an unmodifiable snapshot; each element is materialized from the columns
+     * when it is read.
+     *
+     * @param offset the position of the first transaction of the page
+     * @param limit the maximum number of transactions in the page
+     * @return an unmodifiable list of the transactions in the page
+     * @throws IllegalArgumentException if the offset or the limit is negative
+     */
+    @Override
+    public List<Transaction> getTransactions(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative.");
+        }
+        double[] capturedAmounts;
+        byte[] capturedTypes;
+        int[] capturedOffsets;
+        byte[] capturedArena;
+        int capturedSize;
+        synchronized (this) {
+            capturedAmounts = amounts;
+            capturedTypes = types;
+            capturedOffsets = idOffsets;
+            capturedArena = idArena;
+            capturedSize = size;
+        }
+        int from = Math.min(offset, capturedSize);
+        int to = (int) Math.min((long) offset + limit, capturedSize);
+        return new AbstractList<Transaction>() {
+            @Override
+            public Transaction get(int index) {
+                if (index < 0 || index >= to - from) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+                }
+                int row = from + index;
+                return new Transaction(decodeId(capturedArena, capturedOffsets, row), capturedAmounts[row],
+                        TYPES[capturedTypes[row]]);
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of transactions in the log.
+     *
+     * @return an int representing the number of transactions
+     */
+    @Override
+    public synchronized int getNumTransactions() {
+        return size;
+    }
+
+    /**
+     * Returns a string detailing all transactions in the log.
+     *
+     * @return a String containing details of all transactions
+     */
+    @Override
+    public synchronized String getTransactionDetails() {
+        StringBuilder details = new StringBuilder();
+        for (int row = 0; row < size; row++) {
+            if (row > 0) {
+                details.append('\n');
+            }
+            details.append("Transaction ID: ").append(idOf(row))
+                    .append(", Transaction Type: ").append(typeName(types[row]))
+                    .append(", Amount: ").append(amounts[row]);
+        }
+        return details.toString().trim();
+    }
+
+    /**
+     * Writes the details of a snapshot of the log through the given writer and finishes it,
+     * formatting straight from the columns without materializing Transaction objects.
+     *
+     * @param writer the writer to format the rows into
+     * @throws IOException if the destination cannot be written
+     */
+    @Override
+    void writeTransactionDetails(TransactionDetailsWriter writer) throws IOException {
+        double[] capturedAmounts;
+        byte[] capturedTypes;
+        int[] capturedOffsets;
+        byte[] capturedArena;
+        int capturedSize;
+        synchronized (this) {
+            capturedAmounts = amounts;
+            capturedTypes = types;
+            capturedOffsets = idOffsets;
+            capturedArena = idArena;
+            capturedSize = size;
+        }
+        for (int row = 0; row < capturedSize; row++) {
+            StringBuilder details = writer.nextRow().append("Transaction ID: ");
+            appendId(details, capturedArena, capturedOffsets[row], capturedOffsets[row + 1]);
+            details.append(", Transaction Type: ").append(typeName(capturedTypes[row]))
+                    .append(", Amount: ").append(capturedAmounts[row]);
+        }
+        writer.finish();
+    }
+
+    /**
+     * Returns the total amount of all transactions in the log.
+     *
+     * @return a double representing the total amount of the transactions
+     */
+    @Override
+    public synchronized double getTotalAmount() {
+        return totalAmount.getSum();
+    }
+
+    /**
+     * Returns the total amount for transactions of a specific type.
+     *
+     * @param type the type of transactions to sum
+     * @return a double representing the total amount of transactions of the specified type, or 0 if the type is null
+     */
+    @Override
+    public synchronized double getTotalAmountByType(TransactionType type) {
+        return type == null ? 0 : amountByType[type.ordinal()].getSum();
+    }
+
+    /**
+     * Returns the number of transactions of a specific type in the log.
+     *
+     * @param type the type of transactions to count
+     * @return an int representing the number of transactions of the specified type, or 0 if the type is null
+     */
+    @Override
+    public synchronized int getNumTransactionsByType(TransactionType type) {
+        return type == null ? 0 : countByType[type.ordinal()];
+    }
+
+    /**
+     * Calculates the total amount of the transactions of a type whose amount is at least the given minimum,
+     * scanning the amount and type columns.
+     *
+     * @param type the type of transactions to sum (e.g., "Deposit" or "Withdrawal")
+     * @param minimumAmount the smallest amount to include
+     * @return a double representing the total amount of the matching transactions
+     */
+    public double getTotalAmountByType(String type, double minimumAmount) {
+        return getTotalAmountByType(TransactionType.parse(type), minimumAmount);
+    }
+
+    /**
+     * Calculates the total amount of the transactions of a type whose amount is at least the given minimum,
+     * scanning the amount and type columns.
+     *
+     * @param type the type of transactions to sum
+     * @param minimumAmount the smallest amount to include
+     * @return a double representing the total amount of the matching transactions, or 0 if the type is null
+     */
+    public synchronized double getTotalAmountByType(TransactionType type, double minimumAmount) {
+        if (type == null) {
+            return 0;
+        }
+        byte code = (byte) type.ordinal();
+        CompensatedSum total = new CompensatedSum();
+        for (int row = 0; row < size; row++) {
+            if (types[row] == code && amounts[row] >= minimumAmount) {
+                total.add(amounts[row]);
+            }
+        }
+        return total.getSum();
+    }
+
+    /**
+     * Looks up and returns a transaction with the specified ID, materialized from the columns.
+     *
+     * @param transactionId the ID of the transaction to find
+     * @return a transaction with the specified ID, or null if no such transaction exists.
+     */
+    @Override
+    public synchronized Transaction findTransactionById(String transactionId) {
+        if (transactionId == null) {
+            return null;
+        }
+        int row = findRow(transactionId.hashCode(), transactionId.getBytes(StandardCharsets.UTF_8));
+        return row < 0 ? null : materialize(row);
+    }
+
+    /**
+     * Appends one row to the columns.
+     *
+     * @param transactionId the ID of the transaction
+     * @param amount the amount of the transaction
+     * @param type the type of the transaction
+     * @throws IllegalArgumentException if the ID is null or already in the log
+     */
+    private void addRow(String transactionId, double amount, TransactionType type) {
+        if (transactionId == null) {
+            throw new IllegalArgumentException("Transaction ID cannot be null.");
+        }
+        int hash = transactionId.hashCode();
+        byte[] id = transactionId.getBytes(StandardCharsets.UTF_8);
+        if (findRow(hash, id) >= 0) {
+            throw new IllegalArgumentException("Duplicate transaction ID.");
+        }
+        if (size == amounts.length) {
+            int capacity = size * 2;
+            amounts = Arrays.copyOf(amounts, capacity);
+            types = Arrays.copyOf(types, capacity);
+            idHashes = Arrays.copyOf(idHashes, capacity);
+            idOffsets = Arrays.copyOf(idOffsets, capacity + 1);
+        }
+        int start = idOffsets[size];
+        if (start + id.length > idArena.length) {
+            idArena = Arrays.copyOf(idArena, Math.max(idArena.length * 2, start + id.length));
+        }
+        System.arraycopy(id, 0, idArena, start, id.length);
+        idOffsets[size + 1] = start + id.length;
+        amounts[size] = amount;
+        types[size] = (byte) type.ordinal();
+        idHashes[size] = hash;
+        size++;
+        if (size * 2 > idTable.length) {
+            rehash(idTable.length * 2);
+        } else {
+            insert(idTable, size - 1);
+        }
+        totalAmount.add(amount);
+        amountByType[type.ordinal()].add(amount);
+        countByType[type.ordinal()]++;
+    }
+
+    /**
+     * Finds the row holding the given ID.
+     *
+     * @param hash the hash code of the ID string
+     * @param id the UTF-8 bytes of the ID
+     * @return the row number, or -1 if the ID is not in the log
+     */
+    private int findRow(int hash, byte[] id) {
+        int mask = idTable.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = idTable[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int row = entry - 1;
+            if (idHashes[row] == hash && Arrays.equals(idArena, idOffsets[row], idOffsets[row + 1], id, 0, id.length)) {
+                return row;
+            }
+        }
+    }
+
+    /**
+     * Places a row in the first free slot of its probe sequence.
+     *
+     * @param table the hash table
+     * @param row the row number
+     */
+    private void insert(int[] table, int row) {
+        int mask = table.length - 1;
+        int slot = spread(idHashes[row]) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = row + 1;
+    }
+
+    /**
+     * Rebuilds the hash table with the given capacity.
+     *
+     * @param capacity the new number of slots, a power of two
+     */
+    private void rehash(int capacity) {
+        int[] table = new int[capacity];
+        for (int row = 0; row < size; row++) {
+            insert(table, row);
+        }
+        idTable = table;
+    }
+
+    /**
+     * Creates a Transaction object for a row.
+     *
+     * @param row the row number
+     * @return the transaction stored in the row
+     */
+    private Transaction materialize(int row) {
+        return new Transaction(idOf(row), amounts[row], TYPES[types[row]]);
+    }
+
+    /**
+     * Decodes the ID of a row.
+     *
+     * @param row the row number
+     * @return the transaction ID
+     */
+    private String idOf(int row) {
+        return decodeId(idArena, idOffsets, row);
+    }
+
+    /**
+     * Decodes the ID of a row from an arena and its offsets.
+     *
+     * @param arena the ID arena
+     * @param offsets the ID offsets
+     * @param row the row number
+     * @return the transaction ID
+     */
+    private static String decodeId(byte[] arena, int[] offsets, int row) {
+        return new String(arena, offsets[row], offsets[row + 1] - offsets[row], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends an ID from the arena to a buffer, copying ASCII IDs byte by byte without decoding them to a String.
+     *
+     * @param details the buffer to append to
+     * @param arena the ID arena
+     * @param start the offset of the first byte of the ID
+     * @param end the offset after the last byte of the ID
+     */
+    private static void appendId(StringBuilder details, byte[] arena, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (arena[i] < 0) {
+                details.append(new String(arena, i, end - i, StandardCharsets.UTF_8));
+                return;
+            }
+            details.append((char) arena[i]);
+        }
+    }
+
+    /**
+     * Returns the canonical name of a type code.
+     *
+     * @param type the type code
+     * @return the display name of the transaction type
+     */
+    private static String typeName(byte type) {
+        return TYPES[type].getDisplayName();
+    }
+
+    /**
+     * Mixes the high bits of a hash code into the low bits used for the table index.
+     *
+     * @param hash the hash code
+     * @return the spread hash code
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Compares the heap footprint and scan speed of the row-based and columnar transaction logs.
+ *
+ * <p> Fills a TransactionLog and a ColumnarTransactionLog with the same rows, reports the heap
+ * used per row by each, and times a full-log aggregation on both.
+ */
+public class ColumnarTransactionLogBenchmark {
+
+    /**
+     * Runs the benchmark. Use a heap of about 4 GB for 10 million rows.
+     *
+     * @param args optional number of rows, for example 10000000
+     */
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        long baseline = TransactionLogBenchmark.usedMemory();
+        ColumnarTransactionLog columnar = new ColumnarTransactionLog();
+        for (int i = 0; i < rows; i++) {
+            columnar.addTransaction("TXN" + i, 1 + (i % 1000) / 100.0, (i & 1) == 0 ? "Deposit" : "Withdrawal");
+        }
+        long columnarBytes = TransactionLogBenchmark.usedMemory() - baseline;
+
+        baseline = TransactionLogBenchmark.usedMemory();
+        TransactionLog rowLog = new TransactionLog();
+        for (int i = 0; i < rows; i++) {
+            rowLog.addTransaction(new Transaction("TXN" + i, 1 + (i % 1000) / 100.0, (i & 1) == 0 ? "Deposit" : "Withdrawal"));
+        }
+        long rowBytes = TransactionLogBenchmark.usedMemory() - baseline;
+
+        System.out.printf("%d rows: TransactionLog %.1f bytes/row (%d MB), ColumnarTransactionLog %.1f bytes/row (%d MB)%n",
+                rows, (double) rowBytes / rows, rowBytes >> 20, (double) columnarBytes / rows, columnarBytes >> 20);
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            double rowTotal = 0;
+            for (Transaction transaction : rowLog.getTransactionsSnapshot()) {
+                if (transaction.isDeposit() && transaction.getAmount() >= 5) {
+                    rowTotal += transaction.getAmount();
+                }
+            }
+            long rowNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            double columnarTotal = columnar.getTotalAmountByType("Deposit", 5);
+            long columnarNanos = System.nanoTime() - start;
+            System.out.printf("Round %d: filtered sum over objects %d ms, over columns %d ms (%.2f / %.2f)%n",
+                    round + 1, rowNanos / 1_000_000, columnarNanos / 1_000_000, rowTotal, columnarTotal);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+public class ColumnarTransactionLogTest {
+
+    private ColumnarTransactionLog log;
+    private Transaction deposit;
+    private Transaction withdrawal;
+
+    @Before
+    public void setUp() {
+        log = new ColumnarTransactionLog();
+        deposit = new Transaction("TX100", 100.0, "Deposit");
+        withdrawal = new Transaction("TX200", 50.0, "Withdrawal");
+    }
+
+    @Test
+    public void testAddTransactionWithValidDeposit() {
+        log.addTransaction(deposit);
+        assertEquals(1, log.getNumTransactions());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddTransactionWithInvalidType() {
+        log.addTransaction(new Transaction("TX300", 25.0, "InvalidType"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddTransactionWithDuplicateId() {
+        log.addTransaction(deposit);
+        log.addTransaction("TX100", 10.0, "Withdrawal");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddFieldsWithZeroAmount() {
+        log.addTransaction("TX300", 0.0, "Deposit");
+    }
+
+    @Test
+    public void testFindTransactionByIdMaterializes() {
+        log.addTransaction(deposit);
+        log.addTransaction("TX300", 25.5, "withdrawal");
+        Transaction found = log.findTransactionById("TX300");
+        assertEquals("TX300", found.getTransactionId());
+        assertEquals(25.5, found.getAmount(), 0.0);
+        assertEquals("Withdrawal", found.getType());
+    }
+
+    @Test
+    public void testFindTransactionByIdNotExists() {
+        log.addTransaction(deposit);
+        assertNull(log.findTransactionById("TX999"));
+    }
+
+    @Test
+    public void testFindTransactionByNonAsciiId() {
+        log.addTransaction("TX-\u00e9\u4e2d", 10.0, "Deposit");
+        assertNotNull(log.findTransactionById("TX-\u00e9\u4e2d"));
+    }
+
+    @Test
+    public void testFindAmongManyRows() {
+        for (int i = 0; i < 10_000; i++) {
+            log.addTransaction("ID" + i, i + 1, (i & 1) == 0 ? "Deposit" : "Withdrawal");
+        }
+        assertEquals(10_000, log.getNumTransactions());
+        assertEquals(5001.0, log.findTransactionById("ID5000").getAmount(), 0.0);
+        assertNull(log.findTransactionById("ID10000"));
+    }
+
+    @Test
+    public void testGetTransactionsInOrder() {
+        log.addTransaction(deposit);
+        log.addTransaction(withdrawal);
+        List<Transaction> transactions = log.getTransactions();
+        assertEquals(2, transactions.size());
+        assertEquals("TX100", transactions.get(0).getTransactionId());
+        assertEquals("TX200", transactions.get(1).getTransactionId());
+    }
+
+    @Test
+    public void testGetTransactionDetailsMatchesRowLog() {
+        TransactionLog rowLog = new TransactionLog();
+        rowLog.addTransaction(deposit);
+        rowLog.addTransaction(withdrawal);
+        log.addTransaction(deposit);
+        log.addTransaction(withdrawal);
+        assertEquals(rowLog.getTransactionDetails(), log.getTransactionDetails());
+    }
+
+    @Test
+    public void testBothLogsAnswerAlikeThroughSharedBase() {
+        AbstractTransactionLog[] logs = {new TransactionLog(), log};
+        for (AbstractTransactionLog each : logs) {
+            each.addTransaction(deposit);
+            each.addTransaction(withdrawal);
+        }
+        assertFalse(logs[1] instanceof TransactionLog);
+        for (AbstractTransactionLog each : logs) {
+            assertEquals(2, each.getNumTransactions());
+            assertEquals(150.0, each.getTotalAmount(), 0.001);
+            assertEquals(1, each.getNumTransactionsByType("withdrawal"));
+            assertEquals(100.0, each.getTotalAmountByType("Deposit"), 0.001);
+            assertEquals("TX200", each.findTransactionById("TX200").getTransactionId());
+            assertEquals(2, each.getTransactions().size());
+            assertEquals(logs[0].getTransactionDetails(), each.getTransactionDetails());
+        }
+    }
+
+    @Test
+    public void testTotals() {
+        log.addTransaction(deposit);
+        log.addTransaction(withdrawal);
+        log.addTransaction("TX300", 25.0, "Deposit");
+        assertEquals(175.0, log.getTotalAmount(), 0.001);
+        assertEquals(125.0, log.getTotalAmountByType("deposit"), 0.001);
+        assertEquals(50.0, log.getTotalAmountByType("Withdrawal"), 0.001);
+        assertEquals(2, log.getNumTransactionsByType("Deposit"));
+        assertEquals(1, log.getNumTransactionsByType("Withdrawal"));
+    }
+
+    @Test
+    public void testTotalAmountByTypeWithMinimum() {
+        log.addTransaction(deposit);
+        log.addTransaction("TX300", 25.0, "Deposit");
+        log.addTransaction(withdrawal);
+        assertEquals(100.0, log.getTotalAmountByType("Deposit", 50.0), 0.001);
+        assertEquals(0.0, log.getTotalAmountByType("Transfer", 0.0), 0.001);
+    }
+
+    @Test
+    public void testEmptyLog() {
+        assertEquals(0, log.getNumTransactions());
+        assertEquals("", log.getTransactionDetails());
+        assertEquals(0.0, log.getTotalAmount(), 0.001);
+    }
+
+    @Test
+    public void testSnapshotAndPageMaterializeRows() {
+        for (int i = 0; i < 10; i++) {
+            log.addTransaction("ID" + i, i + 1, "Deposit");
+        }
+        List<Transaction> snapshot = log.getTransactionsSnapshot();
+        log.addTransaction("ID10", 11.0, "Withdrawal");
+        assertEquals(10, snapshot.size());
+        List<Transaction> page = log.getTransactions(8, 5);
+        assertEquals(3, page.size());
+        assertEquals("ID10", page.get(2).getTransactionId());
+        assertEquals("Withdrawal", page.get(2).getType());
+    }
+
+    @Test
+    public void testTransactionsViewIsLive() {
+        List<Transaction> view = log.getTransactionsView();
+        log.addTransaction(deposit);
+        assertEquals(1, view.size());
+        assertEquals("TX100", view.get(0).getTransactionId());
+    }
+
+    @Test
+    public void testWriteTransactionDetailsMatchesString() throws IOException {
+        for (int i = 0; i < 3000; i++) {
+            log.addTransaction((i % 7 == 0 ? "\u00e9" : "ID") + i, i + 0.25, (i & 1) == 0 ? "Deposit" : "Withdrawal");
+        }
+        StringWriter out = new StringWriter();
+        log.writeTransactionDetails(out);
+        assertEquals(log.getTransactionDetails(), out.toString());
+    }
+}
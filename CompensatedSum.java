@@ -0,0 +1,42 @@
+/**
+ * Represents a running sum of double values that keeps the rounding error of each addition.
+ *
+ * <p> Uses Kahan-Babuska (Neumaier) compensated summation, so the result stays accurate to the
+ * last bit or two even after millions of additions of values with very different magnitudes.
+ */
+public class CompensatedSum {
+
+    /**
+     * The running sum, without the accumulated correction.
+     */
+    private double sum;
+
+    /**
+     * The accumulated rounding error of the additions so far.
+     */
+    private double compensation;
+
+    /**
+     * Adds a value to the sum.
+     *
+     * @param value the value to add
+     */
+    public void add(double value) {
+        double total = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - total) + value;
+        } else {
+            compensation += (value - total) + sum;
+        }
+        sum = total;
+    }
+
+    /**
+     * Returns the compensated sum of all values added so far.
+     *
+     * @return the sum
+     */
+    public double getSum() {
+        return sum + compensation;
+    }
+}
@@ -0,0 +1,38 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class CompensatedSumTest {
+
+    @Test
+    public void testEmptySumIsZero() {
+        assertEquals(0.0, new CompensatedSum().getSum(), 0.0);
+    }
+
+    @Test
+    public void testAddsValues() {
+        CompensatedSum sum = new CompensatedSum();
+        sum.add(100.0);
+        sum.add(50.5);
+        assertEquals(150.5, sum.getSum(), 0.0);
+    }
+
+    @Test
+    public void testManySmallValuesStayExact() {
+        CompensatedSum sum = new CompensatedSum();
+        for (int i = 0; i < 10_000_000; i++) {
+            sum.add(0.1);
+        }
+        assertEquals(1_000_000.0, sum.getSum(), 0.0);
+    }
+
+    @Test
+    public void testSmallValuesAfterLargeValue() {
+        CompensatedSum sum = new CompensatedSum();
+        sum.add(1e16);
+        for (int i = 0; i < 1000; i++) {
+            sum.add(1.0);
+        }
+        sum.add(-1e16);
+        assertEquals(1000.0, sum.getSum(), 0.0);
+    }
+}
@@ -0,0 +1,203 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Represents an ATM that can serve several sessions at the same time.
+ *
+ * <p> The cash balance is kept as a whole number of cents in an atomic field. Withdrawals use a
+ * compare-and-set loop, so the sufficient-cash check and the debit form one atomic step and
+ * concurrent sessions can never overdraw the machine.
+ *
+ * <p> Instead of polling {@link #isLowOnCash()}, callers can register a {@link LowCashListener}.
+ * It is notified once each time a withdrawal takes the balance from at least
+ * {@link #LOW_CASH_THRESHOLD} to below it; the single withdrawal whose update crosses the
+ * threshold notifies, on its own thread. A deposit that brings the balance back to the threshold
+ * or above re-arms the notification. A machine that starts below the threshold is not notified
+ * until it has been above it. A listener that throws is logged and skipped; it does not affect
+ * the other listeners or the withdrawal, which has already taken place.
+ */
+public class ConcurrentATM extends ATM {
+
+    /**
+     * The cash balance below which the ATM is low on cash.
+     */
+    public static final double LOW_CASH_THRESHOLD = 1000;
+
+    /**
+     * The low-cash threshold in cents.
+     */
+    private static final long LOW_CASH_THRESHOLD_CENTS = ConcurrentAccount.toCents(LOW_CASH_THRESHOLD);
+
+    /**
+     * The logger reporting failed listeners.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ConcurrentATM.class.getName());
+
+    /**
+     * Receives notice that an ATM has become low on cash.
+     */
+    public interface LowCashListener {
+
+        /**
+         * Called when a withdrawal takes the ATM's cash balance below the low-cash threshold.
+         *
+         * @param atm the ATM that became low on cash
+         * @param cashBalance the cash balance right after the withdrawal
+         */
+        void onLowCash(ConcurrentATM atm, double cashBalance);
+    }
+
+    /**
+     * Holds the cash balance of the ATM in cents.
+     */
+    private final AtomicLong cashCents;
+
+    /**
+     * The listeners notified when the ATM becomes low on cash.
+     */
+    private final List<LowCashListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs an ATM with a specified location and initial cash balance.
+     *
+     * @param location    The physical location of the ATM.
+     * @param initialCash The initial amount of cash the ATM contains, rounded to the nearest cent.
+     * @throws IllegalArgumentException if the initial cash balance is negative.
+     */
+    public ConcurrentATM(String location, double initialCash) {
+        super(location, initialCash);
+        this.cashCents = new AtomicLong(ConcurrentAccount.toCents(initialCash));
+    }
+
+    /**
+     * Registers a listener to be notified when the ATM becomes low on cash.
+     *
+     * @param listener the listener to add
+     * @throws IllegalArgumentException if the listener is null
+     */
+    public void addLowCashListener(LowCashListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered low-cash listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeLowCashListener(LowCashListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Deposits a specified amount of cash into the ATM.
+     *
+     * @param amount The amount to deposit, rounded to the nearest cent.
+     * @throws IllegalArgumentException if the deposit amount is negative or less than one cent.
+     */
+    @Override
+    public void depositCash(double amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Deposit amount cannot be negative.");
+        }
+        long cents = ConcurrentAccount.toCents(amount);
+        if (cents <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be at least one cent.");
+        }
+        cashCents.addAndGet(cents);
+    }
+
+    /**
+     * Withdraws a specified amount of cash from the ATM.
+     *
+     * @param amount The amount to withdraw, rounded to the nearest cent.
+     * @throws IllegalArgumentException if the withdrawal amount is less than one cent.
+     * @throws IllegalStateException    if the ATM does not have sufficient cash for
+     *                                  the withdrawal.
+     */
+    @Override
+    public void withdrawCash(double amount) {
+        if (!tryWithdrawCash(amount)) {
+            throw new IllegalStateException("ATM does not have sufficient cash.");
+        }
+    }
+
+    /**
+     * Withdraws a specified amount of cash from the ATM if it has enough.
+     *
+     * <p> The check and the debit are one atomic step, so a true result always means the cash was taken.
+     *
+     * @param amount The amount to withdraw, rounded to the nearest cent.
+     * @return true if the cash was withdrawn, false if the ATM did not have sufficient cash.
+     * @throws IllegalArgumentException if the withdrawal amount is less than one cent.
+     */
+    public boolean tryWithdrawCash(double amount) {
+        long cents = ConcurrentAccount.toCents(amount);
+        if (cents <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be greater than zero.");
+        }
+        while (true) {
+            long current = cashCents.get();
+            if (cents > current) {
+                return false;
+            }
+            long next = current - cents;
+            if (cashCents.compareAndSet(current, next)) {
+                if (current >= LOW_CASH_THRESHOLD_CENTS && next < LOW_CASH_THRESHOLD_CENTS) {
+                    notifyLowCash(next / 100.0);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the current cash balance in the ATM.
+     *
+     * @return The current cash balance.
+     */
+    @Override
+    public double getCashBalance() {
+        return cashCents.get() / 100.0;
+    }
+
+    /**
+     * Returns the current cash balance in the ATM in cents.
+     *
+     * @return The current cash balance in cents.
+     */
+    public long getCashBalanceCents() {
+        return cashCents.get();
+    }
+
+    /**
+     * Checks if the ATM is low on cash.
+     *
+     * @return true if the ATM's cash balance is less than 1000; false otherwise.
+     */
+    @Override
+    public boolean isLowOnCash() {
+        return cashCents.get() < LOW_CASH_THRESHOLD_CENTS;
+    }
+
+    /**
+     * Notifies every registered listener that the ATM has become low on cash. A listener that
+     * throws is logged and does not stop the others.
+     *
+     * @param cashBalance the cash balance right after the crossing withdrawal
+     */
+    private void notifyLowCash(double cashBalance) {
+        for (LowCashListener listener : listeners) {
+            try {
+                listener.onLowCash(this, cashBalance);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Low-cash listener failed.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ConcurrentATMTest {
+    private ConcurrentATM atm;
+    private AtomicInteger notifications;
+
+    @Before
+    public void setUp() {
+        atm = new ConcurrentATM("Downtown", 2000.0);
+        notifications = new AtomicInteger();
+        atm.addLowCashListener((machine, balance) -> notifications.incrementAndGet());
+    }
+
+    @Test
+    public void testDepositAndWithdraw() {
+        atm.depositCash(500.25);
+        atm.withdrawCash(1000.10);
+        assertEquals(1500.15, atm.getCashBalance(), 0.001);
+        assertEquals(150015, atm.getCashBalanceCents());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWithdrawMoreThanBalance() {
+        atm.withdrawCash(2000.01);
+    }
+
+    @Test
+    public void testTryWithdrawInsufficient() {
+        assertFalse(atm.tryWithdrawCash(2500));
+        assertEquals(2000, atm.getCashBalance(), 0);
+        assertTrue(atm.tryWithdrawCash(2000));
+        assertEquals(0, atm.getCashBalance(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithdrawZero() {
+        atm.withdrawCash(0);
+    }
+
+    @Test
+    public void testSubCentAmountsAreRejected() {
+        try {
+            atm.tryWithdrawCash(0.001);
+            fail("Expected a withdrawal below one cent to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Withdrawal amount must be greater than zero.", e.getMessage());
+        }
+        try {
+            atm.depositCash(0.001);
+            fail("Expected a deposit below one cent to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Deposit amount must be at least one cent.", e.getMessage());
+        }
+        assertEquals(2000.0, atm.getCashBalance(), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDepositNegative() {
+        atm.depositCash(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeInitialCash() {
+        new ConcurrentATM("Suburban", -1);
+    }
+
+    @Test
+    public void testLowCashNotifiedOncePerCrossing() {
+        atm.withdrawCash(900);
+        assertEquals(0, notifications.get());
+        assertFalse(atm.isLowOnCash());
+        atm.withdrawCash(200);
+        assertEquals(1, notifications.get());
+        assertTrue(atm.isLowOnCash());
+        atm.withdrawCash(100);
+        assertEquals(1, notifications.get());
+        atm.depositCash(500);
+        assertFalse(atm.isLowOnCash());
+        atm.withdrawCash(300.01);
+        assertEquals(2, notifications.get());
+    }
+
+    @Test
+    public void testListenerReceivesBalance() {
+        List<Double> balances = new ArrayList<>();
+        atm.addLowCashListener((machine, balance) -> {
+            assertSame(atm, machine);
+            balances.add(balance);
+        });
+        atm.withdrawCash(1500);
+        assertEquals(1, balances.size());
+        assertEquals(500, balances.get(0), 0);
+    }
+
+    @Test
+    public void testRemovedListenerIsNotNotified() {
+        ConcurrentATM machine = new ConcurrentATM("Airport", 1500);
+        AtomicInteger count = new AtomicInteger();
+        ConcurrentATM.LowCashListener listener = (m, balance) -> count.incrementAndGet();
+        machine.addLowCashListener(listener);
+        machine.removeLowCashListener(listener);
+        machine.withdrawCash(1000);
+        assertEquals(0, count.get());
+    }
+
+    @Test
+    public void testStartingBelowThresholdIsNotNotified() {
+        ConcurrentATM machine = new ConcurrentATM("Airport", 500);
+        AtomicInteger count = new AtomicInteger();
+        machine.addLowCashListener((m, balance) -> count.incrementAndGet());
+        machine.withdrawCash(100);
+        assertEquals(0, count.get());
+        assertTrue(machine.isLowOnCash());
+    }
+
+    @Test
+    public void testConcurrentWithdrawalsNeverOverdraw() throws Exception {
+        ConcurrentATM machine = new ConcurrentATM("Station", 10000);
+        AtomicInteger count = new AtomicInteger();
+        machine.addLowCashListener((m, balance) -> count.incrementAndGet());
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int successes = 0;
+                for (int i = 0; i < 1000; i++) {
+                    if (machine.tryWithdrawCash(20)) {
+                        successes++;
+                    }
+                }
+                return successes;
+            }));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(500, total);
+        assertEquals(0, machine.getCashBalanceCents());
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testFailingListenerDoesNotFailWithdrawal() {
+        Logger logger = Logger.getLogger(ConcurrentATM.class.getName());
+        Level level = logger.getLevel();
+        logger.setLevel(Level.OFF);
+        try {
+            ConcurrentATM atm = new ConcurrentATM("Main", 1500.0);
+            AtomicInteger calls = new AtomicInteger();
+            atm.addLowCashListener((machine, balance) -> {
+                throw new IllegalStateException("listener failure");
+            });
+            atm.addLowCashListener((machine, balance) -> calls.incrementAndGet());
+            atm.withdrawCash(600.0);
+            assertEquals(900.0, atm.getCashBalance(), 0.001);
+            assertEquals(1, calls.get());
+        } finally {
+            logger.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents a bank account that can be shared safely between threads.
+ *
+ * <p> The balance is kept as a whole number of cents in an atomic field, so deposits
+ * and withdrawals never lose updates and do not accumulate floating-point rounding drift.
+ * Withdrawals use a compare-and-set loop, which keeps the insufficient-funds check atomic
+ * with the debit without taking a lock. Amounts are rounded to the nearest cent and must come to
+ * at least one cent. Every method of Account that reads the balance is overridden, so the
+ * balance inherited from Account is never used.
+ */
+public class ConcurrentAccount extends Account {
+
+    /**
+     * Coordinates transfers between all concurrent accounts.
+     */
+    private static final TransferCoordinator TRANSFERS = new TransferCoordinator();
+
+    /**
+     * Maintains the current balance of the account in cents.
+     */
+    private final AtomicLong balanceCents;
+
+    /**
+     * Initializes a new ConcurrentAccount instance with a specified account number and initial balance.
+     *
+     * @param accountNumber the unique identifier for the account
+     * @param initialBalance the initial balance of the account, rounded to the nearest cent
+     */
+    public ConcurrentAccount(String accountNumber, double initialBalance) {
+        super(accountNumber, 0);
+        this.balanceCents = new AtomicLong(toCents(initialBalance));
+    }
+
+    /**
+     * Deposits the specified amount into the account.
+     *
+     * @param amount the amount to be deposited, rounded to the nearest cent
+     * @throws IllegalArgumentException if the deposit amount is less than one cent
+     */
+    @Override
+    public void deposit(double amount) {
+        long cents = toCents(amount);
+        if (cents <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive.");
+        }
+        balanceCents.addAndGet(cents);
+    }
+
+    /**
+     * Withdraws the specified amount from the account.
+     *
+     * <p> The funds check and the debit are applied as one atomic step, so concurrent
+     * withdrawals can never take the balance below zero.
+     *
+     * @param amount the amount to be withdrawn, rounded to the nearest cent
+     * @throws IllegalArgumentException if the withdrawal amount is less than one cent or if insufficient funds are available
+     */
+    @Override
+    public void withdraw(double amount) {
+        long cents = toCents(amount);
+        if (cents <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive.");
+        }
+        if (!tryDebit(cents)) {
+            throw new IllegalArgumentException("Insufficient funds.");
+        }
+    }
+
+    /**
+     * Transfers the specified amount from this account to another account.
+     *
+     * <p> Both balances change while the lock stripes of the two accounts are held, so
+     * concurrent transfers between the same accounts, in either direction, are atomic
+     * with respect to each other and cannot deadlock.
+     *
+     * @param otherAccount the recipient account of the transfer
+     * @param amount the amount to be transferred, rounded to the nearest cent
+     * @throws IllegalArgumentException if the transfer amount is less than one cent or if insufficient funds are available for transfer
+     */
+    @Override
+    public void transferTo(Account otherAccount, double amount) {
+        if (toCents(amount) <= 0) {
+            throw new IllegalArgumentException("Transfer amount must be positive.");
+        }
+        TRANSFERS.transfer(this, otherAccount, amount);
+    }
+
+    /**
+     * Returns the current balance of the account.
+     *
+     * @return the current balance
+     */
+    @Override
+    public double getBalance() {
+        return balanceCents.get() / 100.0;
+    }
+
+    /**
+     * Returns the current balance of the account in cents.
+     *
+     * @return the current balance in cents
+     */
+    public long getBalanceCents() {
+        return balanceCents.get();
+    }
+
+    /**
+     * Checks if the account balance is negative, indicating an overdrawn account.
+     *
+     * @return true if the account is overdrawn, otherwise false
+     */
+    @Override
+    public boolean isOverdrawn() {
+        return balanceCents.get() < 0;
+    }
+
+    /**
+     * Subtracts the given number of cents if the balance covers it.
+     *
+     * @param cents the amount to debit in cents
+     * @return true if the debit was applied, false if the funds were insufficient
+     */
+    private boolean tryDebit(long cents) {
+        while (true) {
+            long current = balanceCents.get();
+            if (cents > current) {
+                return false;
+            }
+            if (balanceCents.compareAndSet(current, current - cents)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Converts an amount of money to a whole number of cents.
+     *
+     * @param amount the amount of money
+     * @return the amount rounded to the nearest cent
+     */
+    static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+}
@@ -0,0 +1,169 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ConcurrentAccountTest {
+    private ConcurrentAccount account;
+    private ConcurrentAccount recipientAccount;
+
+    @Before
+    public void setUp() {
+        account = new ConcurrentAccount("123456", 1000.0);
+        recipientAccount = new ConcurrentAccount("654321", 200.0);
+    }
+
+    @Test
+    public void testDepositSuccessfully() {
+        account.deposit(500.0);
+        assertEquals(1500.0, account.getBalance(), 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDepositZeroAmount() {
+        account.deposit(0);
+    }
+
+    @Test
+    public void testSubCentAmountsAreRejected() {
+        try {
+            account.deposit(0.001);
+            fail("Expected a deposit below one cent to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Deposit amount must be positive.", e.getMessage());
+        }
+        try {
+            account.withdraw(0.004);
+            fail("Expected a withdrawal below one cent to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Withdrawal amount must be positive.", e.getMessage());
+        }
+        try {
+            account.transferTo(recipientAccount, 0.001);
+            fail("Expected a transfer below one cent to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Transfer amount must be positive.", e.getMessage());
+        }
+        assertEquals(100000, account.getBalanceCents());
+        assertEquals(20000, recipientAccount.getBalanceCents());
+    }
+
+    @Test
+    public void testTransferFromPlainAccountKeepsMoneyWhole() {
+        Account plain = new Account("P", 10.0);
+        ConcurrentAccount concurrent = new ConcurrentAccount("C", 0.0);
+        try {
+            plain.transferTo(concurrent, 0.004);
+            fail("Expected a transfer below one cent to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Deposit amount must be positive.", e.getMessage());
+        }
+        assertEquals(10.0, plain.getBalance(), 0.0);
+        assertEquals(0, concurrent.getBalanceCents());
+        plain.transferTo(concurrent, 2.505);
+        assertEquals(251, concurrent.getBalanceCents());
+        assertEquals(10.0 - 2.51, plain.getBalance(), 1e-9);
+    }
+
+    @Test
+    public void testOverdrawnReadsTheCentBalance() {
+        assertFalse(account.isOverdrawn());
+        account.withdraw(1000.0);
+        assertEquals(0, account.getBalanceCents());
+        assertFalse(account.isOverdrawn());
+    }
+
+    @Test
+    public void testWithdrawSuccessfully() {
+        account.withdraw(300.0);
+        assertEquals(700.0, account.getBalance(), 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWithdrawInsufficientFunds() {
+        account.withdraw(1200.0);
+    }
+
+    @Test
+    public void testWithdrawInsufficientFundsLeavesBalance() {
+        try {
+            account.withdraw(1000.01);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals(1000.0, account.getBalance(), 0.001);
+        }
+    }
+
+    @Test
+    public void testTransferSuccessfully() {
+        account.transferTo(recipientAccount, 500.0);
+        assertEquals(500.0, account.getBalance(), 0.001);
+        assertEquals(700.0, recipientAccount.getBalance(), 0.001);
+    }
+
+    @Test
+    public void testTransferToPlainAccount() {
+        Account plain = new Account("111111", 0);
+        account.transferTo(plain, 250.0);
+        assertEquals(750.0, account.getBalance(), 0.001);
+        assertEquals(250.0, plain.getBalance(), 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTransferInsufficientFunds() {
+        account.transferTo(recipientAccount, 1500.0);
+    }
+
+    @Test
+    public void testBalanceIsExactInCents() {
+        ConcurrentAccount cents = new ConcurrentAccount("222222", 0);
+        for (int i = 0; i < 1000; i++) {
+            cents.deposit(0.1);
+        }
+        assertEquals(10000, cents.getBalanceCents());
+        assertEquals(100.0, cents.getBalance(), 0.0);
+    }
+
+    @Test
+    public void testIsOverdrawnFalse() {
+        assertFalse(account.isOverdrawn());
+    }
+
+    @Test
+    public void testConcurrentDepositsAreNotLost() throws InterruptedException {
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    account.deposit(0.01);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(100000 + 8 * 10000, account.getBalanceCents());
+    }
+
+    @Test
+    public void testConcurrentWithdrawalsNeverOverdraw() throws InterruptedException {
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    try {
+                        account.withdraw(1.0);
+                    } catch (IllegalArgumentException e) {
+                        // Expected once the balance runs out.
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, account.getBalanceCents());
+        assertFalse(account.isOverdrawn());
+    }
+}
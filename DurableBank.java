@@ -0,0 +1,402 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+
+/**
+ * Represents a banking system whose state survives restarts.
+ *
+ * <p> Every successful {@link #createAccount(String, double)}, {@link #closeAccount(String)} and
+ * {@link #depositToAccount(String, double)} is recorded in a {@link WriteAheadLog} and synced to
+ * disk before the call returns. When the bank is opened, the log is replayed to rebuild the
+ * accounts. Operations are applied and logged under the bank's monitor, which keeps the log in
+ * the same order as the in-memory state, and wait for the disk sync outside of it, so
+ * concurrent callers share syncs through the log's group commit. The batch methods log all
+ * successful items of a batch and wait for a single sync.
+ *
+ * <p> If the log fails to sync, the changes that did not reach the disk are undone in memory,
+ * so readers only see durable state, and every later change is rejected with an
+ * UncheckedIOException before it is applied.
+ */
+public class DurableBank extends Bank implements Closeable {
+
+    /**
+     * The log recording every state change of the bank.
+     */
+    private final WriteAheadLog log;
+
+    /**
+     * The number of log records replayed when the bank was opened.
+     */
+    private final long recoveredRecords;
+
+    /**
+     * The changes applied in memory whose log records may not be durable yet, oldest first.
+     */
+    private final ArrayDeque<Change> undurable = new ArrayDeque<>();
+
+    /**
+     * A change applied in memory, with what is needed to undo it.
+     */
+    private static final class Change {
+
+        /**
+         * The sequence number of the change's log record.
+         */
+        final long sequence;
+
+        /**
+         * The operation code of the change.
+         */
+        final byte operation;
+
+        /**
+         * The account number the change applies to.
+         */
+        final String accountNumber;
+
+        /**
+         * The balance of the account before the change, or 0 for a creation.
+         */
+        final double previousBalance;
+
+        /**
+         * Constructs a change.
+         *
+         * @param sequence the sequence number of the change's log record
+         * @param operation the operation code of the change
+         * @param accountNumber the account number the change applies to
+         * @param previousBalance the balance of the account before the change
+         */
+        Change(long sequence, byte operation, String accountNumber, double previousBalance) {
+            this.sequence = sequence;
+            this.operation = operation;
+            this.accountNumber = accountNumber;
+            this.previousBalance = previousBalance;
+        }
+    }
+
+    /**
+     * Opens the bank stored in the given log file, creating an empty bank if the file does not exist.
+     *
+     * @param logFile the path of the write-ahead log
+     * @throws IOException if the log cannot be opened or read
+     */
+    public DurableBank(Path logFile) throws IOException {
+        this.log = new WriteAheadLog(logFile);
+        this.recoveredRecords = log.replay(this::applyRecord);
+    }
+
+    /**
+     * Creates a new account with the specified account number and initial deposit, and
+     * returns once the creation is durable.
+     *
+     * @param accountNumber  The unique identifier for the new account.
+     * @param initialDeposit The initial amount to deposit into the account.
+     * @throws IllegalArgumentException If an account with the specified account number already exists,
+     *                                  or the account number is too long for the log.
+     * @throws UncheckedIOException If the operation cannot be written to the log, or the log has failed.
+     */
+    @Override
+    public void createAccount(String accountNumber, double initialDeposit) throws IllegalArgumentException {
+        WriteAheadLog.checkAccountNumber(accountNumber);
+        long sequence;
+        synchronized (this) {
+            checkWritable();
+            super.createAccount(accountNumber, initialDeposit);
+            sequence = record(WriteAheadLog.CREATE, accountNumber, initialDeposit, 0);
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Closes an account identified by the specified account number, and returns once the
+     * closure is durable.
+     *
+     * @param accountNumber The account number of the account to be closed.
+     * @throws IllegalArgumentException If no account with the specified account number exists.
+     * @throws UncheckedIOException If the operation cannot be written to the log, or the log has failed.
+     */
+    @Override
+    public void closeAccount(String accountNumber) throws IllegalArgumentException {
+        long sequence;
+        synchronized (this) {
+            checkWritable();
+            double balance = super.getAccountBalance(accountNumber);
+            super.closeAccount(accountNumber);
+            sequence = record(WriteAheadLog.CLOSE, accountNumber, 0, balance);
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Deposits a specified amount into an account identified by the account number, and
+     * returns once the deposit is durable.
+     *
+     * @param accountNumber The account number of the account to deposit into.
+     * @param amount The amount to deposit.
+     * @throws IllegalArgumentException If the specified account does not exist or the deposit amount is not positive.
+     * @throws UncheckedIOException If the operation cannot be written to the log, or the log has failed.
+     */
+    @Override
+    public void depositToAccount(String accountNumber, double amount) {
+        long sequence;
+        synchronized (this) {
+            checkWritable();
+            double balance = super.getAccountBalance(accountNumber);
+            super.depositToAccount(accountNumber, amount);
+            sequence = record(WriteAheadLog.DEPOSIT, accountNumber, amount, balance);
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Creates one account for each item of the batch, and returns once the creations are durable.
+     *
+     * <p> The successful items are logged under the bank's monitor and made durable together
+     * by one group commit. Items whose account number is too long for the log fail.
+     *
+     * @param accountNumbers the account numbers of the new accounts
+     * @param initialDeposits the initial deposit of each new account
+     * @return a BitSet with the bit of each failed item set
+     * @throws IllegalArgumentException if an array is null or the arrays differ in length
+     * @throws UncheckedIOException If the operations cannot be written to the log, or the log has failed.
+     */
+    @Override
+    public BitSet createAccounts(String[] accountNumbers, double[] initialDeposits) {
+        checkBatch(accountNumbers, initialDeposits);
+        String[] loggable = accountNumbers;
+        for (int i = 0; i < accountNumbers.length; i++) {
+            if (!WriteAheadLog.fitsInRecord(accountNumbers[i])) {
+                if (loggable == accountNumbers) {
+                    loggable = accountNumbers.clone();
+                }
+                loggable[i] = null;
+            }
+        }
+        BitSet failed;
+        long sequence = 0;
+        synchronized (this) {
+            checkWritable();
+            failed = super.createAccounts(loggable, initialDeposits);
+            for (int i = failed.nextClearBit(0); i < accountNumbers.length; i = failed.nextClearBit(i + 1)) {
+                sequence = record(WriteAheadLog.CREATE, accountNumbers[i], initialDeposits[i], 0);
+            }
+        }
+        awaitDurable(sequence);
+        return failed;
+    }
+
+    /**
+     * Deposits an amount into the account of each item of the batch, and returns once the
+     * deposits are durable.
+     *
+     * <p> The successful items are logged under the bank's monitor and made durable together
+     * by one group commit.
+     *
+     * @param accountNumbers the account numbers of the accounts to deposit into
+     * @param amounts the amount to deposit for each item
+     * @return a BitSet with the bit of each failed item set
+     * @throws IllegalArgumentException if an array is null or the arrays differ in length
+     * @throws UncheckedIOException If the operations cannot be written to the log, or the log has failed.
+     */
+    @Override
+    public BitSet depositToAccounts(String[] accountNumbers, double[] amounts) {
+        BitSet failed;
+        long sequence = 0;
+        synchronized (this) {
+            checkWritable();
+            double[] balances = new double[accountNumbers.length];
+            super.getAccountBalances(accountNumbers, balances);
+            failed = super.depositToAccounts(accountNumbers, amounts);
+            for (int i = failed.nextClearBit(0); i < accountNumbers.length; i = failed.nextClearBit(i + 1)) {
+                sequence = record(WriteAheadLog.DEPOSIT, accountNumbers[i], amounts[i], balances[i]);
+            }
+        }
+        awaitDurable(sequence);
+        return failed;
+    }
+
+    /**
+     * Reads the balance of the account of each item of the batch.
+     *
+     * @param accountNumbers the account numbers of the accounts to read
+     * @param balances receives the balance of each item, or NaN for a failed item
+     * @return a BitSet with the bit of each failed item set
+     * @throws IllegalArgumentException if an array is null or the arrays differ in length
+     */
+    @Override
+    public synchronized BitSet getAccountBalances(String[] accountNumbers, double[] balances) {
+        return super.getAccountBalances(accountNumbers, balances);
+    }
+
+    /**
+     * Returns the total number of accounts in the bank.
+     *
+     * @return The total number of accounts.
+     */
+    @Override
+    public synchronized int getNumAccounts() {
+        return super.getNumAccounts();
+    }
+
+    /**
+     * Prints the details of an account identified by the specified account number.
+     *
+     * @param accountNumber The account number of the account whose details are to be printed.
+     * @throws IllegalArgumentException If no account with the specified account number exists.
+     */
+    @Override
+    public synchronized void printAccountDetails(String accountNumber) throws IllegalArgumentException {
+        super.printAccountDetails(accountNumber);
+    }
+
+    /**
+     * Checks whether an account exists in the bank for the specified account number.
+     *
+     * @param accountNumber The account number to check.
+     * @return true if the account exists, false otherwise.
+     */
+    @Override
+    public synchronized boolean hasAccount(String accountNumber) {
+        return super.hasAccount(accountNumber);
+    }
+
+    /**
+     * Retrieves the balance for the account identified by the specified account number.
+     *
+     * @param accountNumber The account number of the account whose balance is to be retrieved.
+     * @return The balance of the account.
+     * @throws IllegalArgumentException If no account with the specified account number exists.
+     */
+    @Override
+    public synchronized double getAccountBalance(String accountNumber) {
+        return super.getAccountBalance(accountNumber);
+    }
+
+    /**
+     * Returns the number of log records that were replayed when the bank was opened.
+     *
+     * @return the number of recovered records
+     */
+    public long getRecoveredRecords() {
+        return recoveredRecords;
+    }
+
+    /**
+     * Returns the number of disk syncs performed since the bank was opened.
+     *
+     * @return the number of syncs
+     */
+    public long getSyncCount() {
+        return log.getSyncCount();
+    }
+
+    /**
+     * Syncs any outstanding operations and closes the log.
+     *
+     * @throws IOException if the log cannot be synced or closed
+     */
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    /**
+     * Applies one replayed log record to the in-memory state.
+     *
+     * @param operation the operation code
+     * @param accountNumber the account number the operation applies to
+     * @param amount the amount of the operation
+     */
+    private void applyRecord(byte operation, String accountNumber, double amount) {
+        switch (operation) {
+            case WriteAheadLog.CREATE:
+                super.createAccount(accountNumber, amount);
+                break;
+            case WriteAheadLog.CLOSE:
+                super.closeAccount(accountNumber);
+                break;
+            case WriteAheadLog.DEPOSIT:
+                super.depositToAccount(accountNumber, amount);
+                break;
+            default:
+                throw new IllegalStateException("Unknown log operation: " + operation);
+        }
+    }
+
+    /**
+     * Rejects a change once the log has failed, before the change is applied in memory.
+     * Must be called under the bank's monitor.
+     *
+     * @throws UncheckedIOException if the log has failed
+     */
+    private void checkWritable() {
+        if (log.isFailed()) {
+            throw new UncheckedIOException("The bank log has failed; no more changes are accepted.",
+                    new IOException("The log failed to write an earlier batch."));
+        }
+    }
+
+    /**
+     * Appends a change that was just applied in memory to the log and remembers how to undo it
+     * until it is durable. Must be called under the bank's monitor.
+     *
+     * @param operation the operation code
+     * @param accountNumber the account number the operation applies to
+     * @param amount the amount of the operation, or 0 for a closure
+     * @param previousBalance the balance of the account before the change, or 0 for a creation
+     * @return the sequence number of the appended record
+     */
+    private long record(byte operation, String accountNumber, double amount, double previousBalance) {
+        long durable = log.getDurableSequence();
+        while (!undurable.isEmpty() && undurable.peekFirst().sequence <= durable) {
+            undurable.pollFirst();
+        }
+        long sequence = log.append(operation, accountNumber, amount);
+        undurable.addLast(new Change(sequence, operation, accountNumber, previousBalance));
+        return sequence;
+    }
+
+    /**
+     * Undoes, newest first, every change applied in memory whose log record did not become
+     * durable, so that the in-memory state matches what replaying the log yields.
+     */
+    private synchronized void rollBack() {
+        long durable = log.getDurableSequence();
+        Change change;
+        while ((change = undurable.pollLast()) != null && change.sequence > durable) {
+            switch (change.operation) {
+                case WriteAheadLog.CREATE:
+                    super.closeAccount(change.accountNumber);
+                    break;
+                case WriteAheadLog.CLOSE:
+                    super.createAccount(change.accountNumber, change.previousBalance);
+                    break;
+                default:
+                    super.closeAccount(change.accountNumber);
+                    super.createAccount(change.accountNumber, change.previousBalance);
+                    break;
+            }
+        }
+        undurable.clear();
+    }
+
+    /**
+     * Waits until the log record with the given sequence number is on disk. If the log fails,
+     * the changes that are not durable are undone in memory first.
+     *
+     * @param sequence the sequence number of the record
+     * @throws UncheckedIOException if the record cannot be written or synced
+     */
+    private void awaitDurable(long sequence) {
+        try {
+            log.awaitDurable(sequence);
+        } catch (IOException e) {
+            rollBack();
+            throw new UncheckedIOException("Failed to write the bank log.", e);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.BitSet;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class DurableBankTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path logFile;
+
+    @Before
+    public void setUp() {
+        logFile = new File(folder.getRoot(), "bank.wal").toPath();
+    }
+
+    @Test
+    public void testEmptyBankOnNewLog() throws IOException {
+        try (DurableBank bank = new DurableBank(logFile)) {
+            assertEquals(0, bank.getNumAccounts());
+            assertEquals(0, bank.getRecoveredRecords());
+        }
+    }
+
+    @Test
+    public void testStateSurvivesReopen() throws IOException {
+        try (DurableBank bank = new DurableBank(logFile)) {
+            bank.createAccount("123", 500.0);
+            bank.createAccount("456", 100.0);
+            bank.depositToAccount("123", 250.0);
+            bank.closeAccount("456");
+        }
+        try (DurableBank bank = new DurableBank(logFile)) {
+            assertEquals(4, bank.getRecoveredRecords());
+            assertEquals(1, bank.getNumAccounts());
+            assertEquals(750.0, bank.getAccountBalance("123"), 0.001);
+            assertFalse(bank.hasAccount("456"));
+        }
+    }
+
+    @Test
+    public void testFailedOperationIsNotLogged() throws IOException {
+        try (DurableBank bank = new DurableBank(logFile)) {
+            bank.createAccount("123", 500.0);
+            try {
+                bank.createAccount("123", 600.0);
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException e) {
+                // Duplicate account.
+            }
+        }
+        try (DurableBank bank = new DurableBank(logFile)) {
+            assertEquals(1, bank.getRecoveredRecords());
+            assertEquals(500.0, bank.getAccountBalance("123"), 0.001);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDepositToMissingAccount() throws IOException {
+        try (DurableBank bank = new DurableBank(logFile)) {
+            bank.depositToAccount("999", 10.0);
+        }
+    }
+
+    @Test
+    public void testTornTailIsDiscarded() throws IOException {
+        try (DurableBank bank = new DurableBank(logFile)) {
+            bank.createAccount("123", 500.0);
+            bank.depositToAccount("123", 100.0);
+        }
+        long fullLength = logFile.toFile().length();
+        try (RandomAccessFile file = new RandomAccessFile(logFile.toFile(), "rw")) {
+            file.setLength(fullLength - 3);
+        }
+        try (DurableBank bank = new DurableBank(logFile)) {
+            assertEquals(1, bank.getRecoveredRecords());
+            assertEquals(500.0, bank.getAccountBalance("123"), 0.001);
+            bank.depositToAccount("123", 1.0);
+        }
+        try (DurableBank bank = new DurableBank(logFile)) {
+            assertEquals(2, bank.getRecoveredRecords());
+            assertEquals(501.0, bank.getAccountBalance("123"), 0.001);
+        }
+    }
+
+    @Test
+    public void testConcurrentDepositsShareSyncs() throws Exception {
+        try (DurableBank bank = new DurableBank(logFile)) {
+            bank.createAccount("HOT", 0.0);
+            Thread[] threads = new Thread[8];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        bank.depositToAccount("HOT", 1.0);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(400.0, bank.getAccountBalance("HOT"), 0.001);
+            assertTrue(bank.getSyncCount() <= 401);
+        }
+        try (DurableBank bank = new DurableBank(logFile)) {
+            assertEquals(400.0, bank.getAccountBalance("HOT"), 0.001);
+        }
+    }
+
+    @Test
+    public void testBatchesLogOnlySuccessfulItemsWithOneSync() throws IOException {
+        try (DurableBank bank = new DurableBank(logFile)) {
+            bank.createAccount("A", 10.0);
+            long syncs = bank.getSyncCount();
+            BitSet failed = bank.createAccounts(new String[] {"A", "B", "C"}, new double[] {1.0, 2.0, 3.0});
+            assertEquals("{0}", failed.toString());
+            failed = bank.depositToAccounts(new String[] {"A", "MISSING", "C"}, new double[] {5.0, 5.0, 1.0});
+            assertEquals("{1}", failed.toString());
+            assertEquals(syncs + 2, bank.getSyncCount());
+        }
+        try (DurableBank bank = new DurableBank(logFile)) {
+            assertEquals(5, bank.getRecoveredRecords());
+            double[] balances = new double[3];
+            assertTrue(bank.getAccountBalances(new String[] {"A", "B", "C"}, balances).isEmpty());
+            assertEquals(15.0, balances[0], 0.001);
+            assertEquals(2.0, balances[1], 0.001);
+            assertEquals(4.0, balances[2], 0.001);
+        }
+    }
+
+    @Test
+    public void testOverlongAccountNumberIsRejected() throws IOException {
+        StringBuilder id = new StringBuilder();
+        for (int i = 0; i <= WriteAheadLog.MAX_ACCOUNT_NUMBER_BYTES; i++) {
+            id.append('x');
+        }
+        String longId = id.toString();
+        try (DurableBank bank = new DurableBank(logFile)) {
+            try {
+                bank.createAccount(longId, 10.0);
+                fail("Expected IllegalArgumentException");
+            } catch (IllegalArgumentException e) {
+                assertEquals("Account number is too long for the log.", e.getMessage());
+            }
+            assertFalse(bank.hasAccount(longId));
+            BitSet failed = bank.createAccounts(new String[] {"A", longId}, new double[] {1.0, 2.0});
+            assertEquals("{1}", failed.toString());
+            assertFalse(bank.hasAccount(longId));
+        }
+        try (DurableBank bank = new DurableBank(logFile)) {
+            assertEquals(1, bank.getRecoveredRecords());
+        }
+    }
+
+    @Test
+    public void testFailedSyncFailsEveryLaterSync() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(logFile);
+        long first = log.append(WriteAheadLog.CREATE, "A", 1.0);
+        log.awaitDurable(first);
+        long second = log.append(WriteAheadLog.DEPOSIT, "A", 2.0);
+        log.close();
+        long third = log.append(WriteAheadLog.DEPOSIT, "A", 3.0);
+        try {
+            log.awaitDurable(third);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            // The channel is closed.
+        }
+        assertTrue(log.isFailed());
+        try {
+            log.awaitDurable(third);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("The log failed to write an earlier batch.", e.getMessage());
+        }
+        log.awaitDurable(second);
+    }
+
+    @Test
+    public void testLogFailureLeavesOnlyDurableStateVisible() throws IOException {
+        DurableBank bank = new DurableBank(logFile);
+        bank.createAccount("A", 10.0);
+        bank.createAccount("B", 1.0);
+        bank.close();
+        try {
+            bank.depositToAccount("A", 5.0);
+            fail("Expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            // The log is closed, so the deposit cannot be synced.
+        }
+        try {
+            bank.depositToAccount("A", 5.0);
+            fail("Expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            assertEquals("The bank log has failed; no more changes are accepted.", e.getMessage());
+        }
+        try {
+            bank.depositToAccounts(new String[] {"A", "B"}, new double[] {1.0, 2.0});
+            fail("Expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            // Rejected before the batch is applied.
+        }
+        try {
+            bank.closeAccount("B");
+            fail("Expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            // Rejected before the account is closed.
+        }
+        assertEquals(10.0, bank.getAccountBalance("A"), 0.0);
+        assertEquals(1.0, bank.getAccountBalance("B"), 0.0);
+        assertEquals(2, bank.getNumAccounts());
+        try (DurableBank reopened = new DurableBank(logFile)) {
+            assertEquals(10.0, reopened.getAccountBalance("A"), 0.0);
+            assertEquals(1.0, reopened.getAccountBalance("B"), 0.0);
+            assertEquals(2, reopened.getNumAccounts());
+        }
+    }
+
+    @Test
+    public void testFailedBatchIsUndoneInMemory() throws IOException {
+        DurableBank bank = new DurableBank(logFile);
+        bank.createAccount("A", 10.0);
+        bank.close();
+        try {
+            bank.depositToAccounts(new String[] {"A", "A"}, new double[] {1.0, 2.0});
+            fail("Expected UncheckedIOException");
+        } catch (UncheckedIOException e) {
+            // The log is closed, so the batch cannot be synced.
+        }
+        assertEquals(10.0, bank.getAccountBalance("A"), 0.0);
+        try (DurableBank reopened = new DurableBank(logFile)) {
+            assertEquals(10.0, reopened.getAccountBalance("A"), 0.0);
+            assertEquals(1, reopened.getNumAccounts());
+        }
+    }
+}
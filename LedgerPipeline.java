@@ -0,0 +1,531 @@
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executes bank operations on a single writer thread that owns all account state.
+ *
+ * <p> Callers do not touch the accounts. Each request is written into a preallocated slot of a
+ * ring buffer and handed to the writer thread, which applies the requests one after another in
+ * the order they were claimed and completes the returned future with the resulting balance. As
+ * only the writer reads or changes the accounts, neither the account map nor the balances need
+ * any lock, and a transfer is atomic without locking both accounts.
+ *
+ * <p> Producers claim a sequence number with a compare-and-set on a shared counter, fill the slot
+ * it maps to and publish the slot by storing the sequence number in it. The writer consumes the
+ * published slots in runs and releases a whole run at once; a producer that finds the ring full
+ * yields until the writer has caught up. The requests of one producer are applied in the order
+ * it submitted them.
+ *
+ * <p> Futures are completed on the writer thread, so dependent actions attached with the
+ * non-async methods of {@link CompletableFuture} run there and hold up the pipeline. Failed
+ * operations complete their future exceptionally with the same IllegalArgumentException that
+ * {@link Bank} throws. If applying a request throws an Error instead, the accounts can no longer
+ * be trusted: the pipeline closes, that request's future fails with the Error, every other
+ * accepted request fails with an IllegalStateException, and the writer thread logs the Error
+ * and ends.
+ */
+public class LedgerPipeline implements Closeable {
+
+    /**
+     * The logger reporting an Error that stopped the writer.
+     */
+    private static final Logger LOGGER = Logger.getLogger(LedgerPipeline.class.getName());
+
+    /**
+     * The default number of slots in the ring buffer.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The number of empty polls the writer spins for before it parks.
+     */
+    private static final int SPIN_LIMIT = 100;
+
+    /**
+     * The value of the claim counter once the pipeline is closed.
+     */
+    private static final long CLOSED = -1;
+
+    /**
+     * Operation code for account creation.
+     */
+    private static final byte CREATE = 1;
+
+    /**
+     * Operation code for account closure.
+     */
+    private static final byte CLOSE = 2;
+
+    /**
+     * Operation code for a deposit.
+     */
+    private static final byte DEPOSIT = 3;
+
+    /**
+     * Operation code for a transfer.
+     */
+    private static final byte TRANSFER = 4;
+
+    /**
+     * Operation code for a balance read.
+     */
+    private static final byte BALANCE = 5;
+
+    /**
+     * The preallocated request slots; the length is always a power of two.
+     */
+    private final Request[] slots;
+
+    /**
+     * The sequence number last published into each slot, or -1 if none has been.
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * The next sequence number to claim, or {@link #CLOSED} once the pipeline is closed.
+     */
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    /**
+     * The number of requests the writer has finished with; slots below it may be reused.
+     */
+    private volatile long consumed;
+
+    /**
+     * The number of requests accepted before the pipeline was closed, or Long.MAX_VALUE while it is open.
+     */
+    private volatile long endSequence = Long.MAX_VALUE;
+
+    /**
+     * Whether the writer is parked or about to park waiting for requests.
+     */
+    private volatile boolean writerSleeping;
+
+    /**
+     * The Error that stopped the writer, or null while it runs normally; owned by the writer thread.
+     */
+    private Throwable failure;
+
+    /**
+     * The accounts, owned by the writer thread.
+     */
+    private final Map<String, Account> accounts = new HashMap<>();
+
+    /**
+     * Creates the object for each new account from its account number and initial deposit.
+     */
+    private final BiFunction<String, Double, Account> accountFactory;
+
+    /**
+     * The writer thread.
+     */
+    private final Thread writer;
+
+    /**
+     * Constructs a pipeline with the default capacity and starts its writer thread.
+     */
+    public LedgerPipeline() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a pipeline with at least the given number of ring slots and starts its writer thread.
+     *
+     * @param capacity the minimum number of slots; rounded up to a power of two
+     * @throws IllegalArgumentException if the capacity is not positive or too large
+     */
+    public LedgerPipeline(int capacity) {
+        this(capacity, Account::new);
+    }
+
+    /**
+     * Constructs a pipeline with at least the given number of ring slots whose accounts are
+     * created by the given factory, and starts its writer thread.
+     *
+     * <p> The factory runs on the writer thread, once for each account created.
+     *
+     * @param capacity the minimum number of slots; rounded up to a power of two
+     * @param accountFactory creates an account from its account number and initial deposit
+     * @throws IllegalArgumentException if the capacity is not positive or too large, or the factory is null
+     */
+    public LedgerPipeline(int capacity, BiFunction<String, Double, Account> accountFactory) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+        }
+        if (accountFactory == null) {
+            throw new IllegalArgumentException("Account factory cannot be null.");
+        }
+        this.accountFactory = accountFactory;
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Request[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Request();
+            published.set(i, -1);
+        }
+        this.writer = new Thread(this::runWriter, "ledger-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Creates a new account with the specified account number and initial deposit.
+     *
+     * @param accountNumber  The unique identifier for the new account.
+     * @param initialDeposit The initial amount to deposit into the account.
+     * @return a future completed with the balance of the new account, or exceptionally with an
+     *         IllegalArgumentException if an account with the specified account number already exists
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    public CompletableFuture<Double> createAccount(String accountNumber, double initialDeposit) {
+        return submit(CREATE, accountNumber, null, initialDeposit);
+    }
+
+    /**
+     * Closes an account identified by the specified account number.
+     *
+     * @param accountNumber The account number of the account to be closed.
+     * @return a future completed with the final balance of the account, or exceptionally with an
+     *         IllegalArgumentException if no account with the specified account number exists
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    public CompletableFuture<Double> closeAccount(String accountNumber) {
+        return submit(CLOSE, accountNumber, null, 0);
+    }
+
+    /**
+     * Deposits a specified amount into an account identified by the account number.
+     *
+     * @param accountNumber The account number of the account to deposit into.
+     * @param amount The amount to deposit.
+     * @return a future completed with the new balance of the account, or exceptionally with an
+     *         IllegalArgumentException if the account does not exist or the amount is not positive
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    public CompletableFuture<Double> depositToAccount(String accountNumber, double amount) {
+        return submit(DEPOSIT, accountNumber, null, amount);
+    }
+
+    /**
+     * Transfers the specified amount from one account to another as a single step.
+     *
+     * @param fromAccountNumber the account number of the account to take the money from
+     * @param toAccountNumber the account number of the recipient account
+     * @param amount the amount to be transferred
+     * @return a future completed with the new balance of the source account, or exceptionally with
+     *         an IllegalArgumentException if either account does not exist, the amount is not
+     *         positive or the source account has insufficient funds
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    public CompletableFuture<Double> transfer(String fromAccountNumber, String toAccountNumber, double amount) {
+        return submit(TRANSFER, fromAccountNumber, toAccountNumber, amount);
+    }
+
+    /**
+     * Retrieves the balance for the account identified by the specified account number.
+     *
+     * <p> The balance reflects every request claimed before this one.
+     *
+     * @param accountNumber The account number of the account whose balance is to be retrieved.
+     * @return a future completed with the balance of the account, or exceptionally with an
+     *         IllegalArgumentException if no account with the specified account number exists
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    public CompletableFuture<Double> getAccountBalance(String accountNumber) {
+        return submit(BALANCE, accountNumber, null, 0);
+    }
+
+    /**
+     * Returns the number of slots in the ring buffer.
+     *
+     * @return the capacity of the ring
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the number of requests the writer has applied so far.
+     *
+     * @return the number of processed requests
+     */
+    public long getProcessedCount() {
+        return consumed;
+    }
+
+    /**
+     * Stops accepting requests, waits until every accepted request has been applied and stops
+     * the writer thread. Calling it again has no effect.
+     *
+     * <p> When called on the writer thread itself, for example from an action attached to one of
+     * the returned futures, it cannot wait for the writer and returns as soon as new requests are
+     * refused; the writer applies the remaining accepted requests after the action returns.
+     */
+    @Override
+    public void close() {
+        stopAccepting();
+        if (Thread.currentThread() == writer) {
+            return;
+        }
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Closes the claim counter and records how many requests were accepted before it closed.
+     */
+    private void stopAccepting() {
+        long sequence;
+        do {
+            sequence = nextSequence.get();
+        } while (sequence != CLOSED && !nextSequence.compareAndSet(sequence, CLOSED));
+        if (sequence != CLOSED) {
+            endSequence = sequence;
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Claims a slot, fills it with the request and publishes it to the writer.
+     *
+     * @param operation the operation code
+     * @param accountNumber the account the operation applies to
+     * @param otherAccountNumber the recipient account of a transfer, or null
+     * @param amount the amount of the operation
+     * @return the future completed when the writer has applied the request
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    private CompletableFuture<Double> submit(byte operation, String accountNumber, String otherAccountNumber,
+            double amount) {
+        long sequence = claim();
+        while (sequence - slots.length >= consumed) {
+            Thread.yield();
+        }
+        int index = (int) sequence & (slots.length - 1);
+        Request request = slots[index];
+        CompletableFuture<Double> result = new CompletableFuture<>();
+        request.operation = operation;
+        request.accountNumber = accountNumber;
+        request.otherAccountNumber = otherAccountNumber;
+        request.amount = amount;
+        request.result = result;
+        published.set(index, sequence);
+        if (writerSleeping) {
+            writerSleeping = false;
+            LockSupport.unpark(writer);
+        }
+        return result;
+    }
+
+    /**
+     * Claims the next sequence number.
+     *
+     * @return the claimed sequence number
+     * @throws IllegalStateException if the pipeline is closed
+     */
+    private long claim() {
+        while (true) {
+            long sequence = nextSequence.get();
+            if (sequence == CLOSED) {
+                throw new IllegalStateException("Ledger pipeline is closed.");
+            }
+            if (nextSequence.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * The writer loop: applies published requests in sequence order until the pipeline is
+     * closed and every accepted request has been applied.
+     */
+    private void runWriter() {
+        int mask = slots.length - 1;
+        long next = 0;
+        int idle = 0;
+        while (true) {
+            long available = next;
+            while (published.get((int) available & mask) == available) {
+                apply(slots[(int) available & mask]);
+                available++;
+                if (failure != null) {
+                    consumed = available;
+                    failRemaining(available);
+                    return;
+                }
+            }
+            if (available > next) {
+                next = available;
+                consumed = next;
+                idle = 0;
+            } else if (next >= endSequence) {
+                return;
+            } else if (++idle < SPIN_LIMIT) {
+                Thread.onSpinWait();
+            } else {
+                writerSleeping = true;
+                if (published.get((int) next & mask) != next && next < endSequence) {
+                    LockSupport.park(this);
+                }
+                writerSleeping = false;
+                idle = 0;
+            }
+        }
+    }
+
+    /**
+     * Stops the pipeline after an Error: refuses new requests, fails every accepted request from
+     * the given sequence number on, and logs the Error.
+     *
+     * @param next the sequence number of the first request not yet applied
+     */
+    private void failRemaining(long next) {
+        stopAccepting();
+        while (endSequence == Long.MAX_VALUE) {
+            Thread.yield();
+        }
+        IllegalStateException rejected = new IllegalStateException("Ledger pipeline failed.", failure);
+        int mask = slots.length - 1;
+        for (long sequence = next; sequence < endSequence; sequence++) {
+            while (published.get((int) sequence & mask) != sequence) {
+                Thread.yield();
+            }
+            Request request = slots[(int) sequence & mask];
+            request.result.completeExceptionally(rejected);
+            clear(request);
+            consumed = sequence + 1;
+        }
+        LOGGER.log(Level.SEVERE, "Ledger writer failed; the pipeline is closed.", failure);
+    }
+
+    /**
+     * Applies one request to the accounts, completes its future and clears the slot. An Error or
+     * other unexpected throwable also fails the future and is recorded in {@link #failure}.
+     *
+     * @param request the request to apply
+     */
+    private void apply(Request request) {
+        CompletableFuture<Double> result = request.result;
+        try {
+            result.complete(execute(request));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        } catch (Throwable e) {
+            failure = e;
+            result.completeExceptionally(e);
+        }
+        clear(request);
+    }
+
+    /**
+     * Drops the references a slot holds so that they can be collected.
+     *
+     * @param request the slot to clear
+     */
+    private static void clear(Request request) {
+        request.accountNumber = null;
+        request.otherAccountNumber = null;
+        request.result = null;
+    }
+
+    /**
+     * Executes one request against the accounts.
+     *
+     * @param request the request to execute
+     * @return the resulting balance of the request's account
+     * @throws IllegalArgumentException if the operation is not valid for the accounts
+     */
+    private double execute(Request request) {
+        switch (request.operation) {
+            case CREATE: {
+                if (accounts.containsKey(request.accountNumber)) {
+                    throw new IllegalArgumentException("Account already exists.");
+                }
+                Account account = accountFactory.apply(request.accountNumber, request.amount);
+                accounts.put(request.accountNumber, account);
+                return account.getBalance();
+            }
+            case CLOSE:
+                return find(accounts.remove(request.accountNumber)).getBalance();
+            case DEPOSIT: {
+                Account account = find(accounts.get(request.accountNumber));
+                account.deposit(request.amount);
+                return account.getBalance();
+            }
+            case TRANSFER: {
+                Account from = find(accounts.get(request.accountNumber));
+                from.transferTo(find(accounts.get(request.otherAccountNumber)), request.amount);
+                return from.getBalance();
+            }
+            case BALANCE:
+                return find(accounts.get(request.accountNumber)).getBalance();
+            default:
+                throw new IllegalStateException("Unknown ledger operation: " + request.operation);
+        }
+    }
+
+    /**
+     * Checks that an account lookup found an account.
+     *
+     * @param account the account found, or null
+     * @return the account
+     * @throws IllegalArgumentException if the account is null
+     */
+    private static Account find(Account account) {
+        if (account == null) {
+            throw new IllegalArgumentException("Account not found.");
+        }
+        return account;
+    }
+
+    /**
+     * One reusable slot of the ring buffer.
+     */
+    private static final class Request {
+
+        /**
+         * The operation code.
+         */
+        byte operation;
+
+        /**
+         * The account the operation applies to.
+         */
+        String accountNumber;
+
+        /**
+         * The recipient account of a transfer, or null.
+         */
+        String otherAccountNumber;
+
+        /**
+         * The amount of the operation.
+         */
+        double amount;
+
+        /**
+         * The future to complete with the outcome.
+         */
+        CompletableFuture<Double> result;
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures mixed request throughput of the lock-based banks and the single-writer LedgerPipeline
+ * at 1, 2, 4, ... 64 producer threads.
+ *
+ * <p> Every request picks a random account; 80% are balance reads, 15% deposits and 5%
+ * close-and-recreate pairs, as in BankBenchmark. Bank is guarded by its monitor, ShardedBank
+ * by its shard locks. Pipeline producers submit requests without waiting for each one and wait
+ * for the last of every {@link #WINDOW} requests, so every request is complete when a run ends.
+ */
+public class LedgerPipelineBenchmark {
+
+    /**
+     * The number of requests a pipeline producer submits before it waits for completion.
+     */
+    private static final int WINDOW = 1024;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional account count, requests per thread and maximum producer thread count
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int requestsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        String[] numbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            numbers[i] = "ACC" + i;
+        }
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double lockedRate = 0;
+            double shardedRate = 0;
+            double pipelineRate = 0;
+            for (int round = 0; round < 2; round++) {
+                Bank locked = new Bank();
+                Bank sharded = new ShardedBank();
+                for (String number : numbers) {
+                    locked.createAccount(number, 1000);
+                    sharded.createAccount(number, 1000);
+                }
+                lockedRate = run(threads, () -> runBank(locked, numbers, requestsPerThread, true), requestsPerThread);
+                shardedRate = run(threads, () -> runBank(sharded, numbers, requestsPerThread, false), requestsPerThread);
+                try (LedgerPipeline pipeline = new LedgerPipeline()) {
+                    for (String number : numbers) {
+                        pipeline.createAccount(number, 1000);
+                    }
+                    pipeline.getAccountBalance(numbers[0]).join();
+                    pipelineRate = run(threads, () -> runPipeline(pipeline, numbers, requestsPerThread),
+                            requestsPerThread);
+                }
+            }
+            System.out.printf("%3d producers: Bank (synchronized) %7.2f Mops/s, ShardedBank %7.2f Mops/s,"
+                    + " LedgerPipeline %7.2f Mops/s%n", threads, lockedRate, shardedRate, pipelineRate);
+        }
+    }
+
+    /**
+     * Runs the producer body on the given number of threads.
+     *
+     * @param threads the number of producer threads
+     * @param producer the work of one producer
+     * @param requestsPerThread the number of requests each producer sends
+     * @return the throughput in millions of requests per second
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    private static double run(int threads, Runnable producer, int requestsPerThread) throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(producer);
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long nanos = System.nanoTime() - start;
+        return (double) threads * requestsPerThread / (nanos / 1000.0);
+    }
+
+    /**
+     * Sends the mixed workload of one producer to a lock-based bank.
+     *
+     * @param bank the bank under test
+     * @param numbers the account numbers
+     * @param requests the number of requests to send
+     * @param synchronize whether every request takes the bank's monitor
+     */
+    private static void runBank(Bank bank, String[] numbers, int requests, boolean synchronize) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < requests; i++) {
+            String number = numbers[random.nextInt(numbers.length)];
+            int dice = random.nextInt(100);
+            try {
+                if (synchronize) {
+                    synchronized (bank) {
+                        apply(bank, number, dice);
+                    }
+                } else {
+                    apply(bank, number, dice);
+                }
+            } catch (IllegalArgumentException e) {
+                // Another thread closed the account in between.
+            }
+        }
+    }
+
+    /**
+     * Applies one benchmark request to a lock-based bank.
+     *
+     * @param bank the bank under test
+     * @param number the account number
+     * @param dice a random number between 0 and 99 selecting the request
+     */
+    private static void apply(Bank bank, String number, int dice) {
+        if (dice < 80) {
+            bank.getAccountBalance(number);
+        } else if (dice < 95) {
+            bank.depositToAccount(number, 1);
+        } else {
+            bank.closeAccount(number);
+            bank.createAccount(number, 1000);
+        }
+    }
+
+    /**
+     * Sends the mixed workload of one producer to the pipeline.
+     *
+     * @param pipeline the pipeline under test
+     * @param numbers the account numbers
+     * @param requests the number of requests to send
+     */
+    private static void runPipeline(LedgerPipeline pipeline, String[] numbers, int requests) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CompletableFuture<Double> last = null;
+        for (int i = 0; i < requests; i++) {
+            String number = numbers[random.nextInt(numbers.length)];
+            int dice = random.nextInt(100);
+            if (dice < 80) {
+                last = pipeline.getAccountBalance(number);
+            } else if (dice < 95) {
+                last = pipeline.depositToAccount(number, 1);
+            } else {
+                pipeline.closeAccount(number);
+                last = pipeline.createAccount(number, 1000);
+            }
+            if (i % WINDOW == WINDOW - 1) {
+                last.exceptionally(e -> null).join();
+            }
+        }
+        if (last != null) {
+            last.exceptionally(e -> null).join();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LedgerPipelineTest {
+
+    private LedgerPipeline pipeline;
+
+    @Before
+    public void setUp() {
+        pipeline = new LedgerPipeline(8);
+    }
+
+    @After
+    public void tearDown() {
+        pipeline.close();
+    }
+
+    private static void assertFailsWith(String message, CompletableFuture<Double> future) {
+        try {
+            future.join();
+            fail("Expected the request to fail.");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+            assertEquals(message, e.getCause().getMessage());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testCreateAccountAndReadBalance() {
+        assertEquals(500.0, pipeline.createAccount("123", 500.0).join(), 0.001);
+        assertEquals(500.0, pipeline.getAccountBalance("123").join(), 0.001);
+    }
+
+    @Test
+    public void testCreateAccountDuplicate() {
+        pipeline.createAccount("123", 500.0);
+        assertFailsWith("Account already exists.", pipeline.createAccount("123", 600.0));
+        assertEquals(500.0, pipeline.getAccountBalance("123").join(), 0.001);
+    }
+
+    @Test
+    public void testCloseAccountReturnsFinalBalance() {
+        pipeline.createAccount("125", 500.0);
+        assertEquals(500.0, pipeline.closeAccount("125").join(), 0.001);
+        assertFailsWith("Account not found.", pipeline.getAccountBalance("125"));
+    }
+
+    @Test
+    public void testCloseAccountNonExistent() {
+        assertFailsWith("Account not found.", pipeline.closeAccount("999"));
+    }
+
+    @Test
+    public void testDepositToAccount() {
+        pipeline.createAccount("126", 100.0);
+        assertEquals(150.0, pipeline.depositToAccount("126", 50.0).join(), 0.001);
+    }
+
+    @Test
+    public void testDepositRejectsInvalidRequests() {
+        pipeline.createAccount("126", 100.0);
+        assertFailsWith("Account not found.", pipeline.depositToAccount("999", 50.0));
+        assertFailsWith("Deposit amount must be positive.", pipeline.depositToAccount("126", -5.0));
+    }
+
+    @Test
+    public void testTransferMovesMoney() {
+        pipeline.createAccount("A", 100.0);
+        pipeline.createAccount("B", 20.0);
+        assertEquals(70.0, pipeline.transfer("A", "B", 30.0).join(), 0.001);
+        assertEquals(50.0, pipeline.getAccountBalance("B").join(), 0.001);
+    }
+
+    @Test
+    public void testTransferWithInsufficientFundsChangesNothing() {
+        pipeline.createAccount("A", 100.0);
+        pipeline.createAccount("B", 20.0);
+        assertFailsWith("Insufficient funds for transfer.", pipeline.transfer("A", "B", 130.0));
+        assertEquals(100.0, pipeline.getAccountBalance("A").join(), 0.001);
+        assertEquals(20.0, pipeline.getAccountBalance("B").join(), 0.001);
+    }
+
+    @Test
+    public void testTransferToMissingAccountChangesNothing() {
+        pipeline.createAccount("A", 100.0);
+        assertFailsWith("Account not found.", pipeline.transfer("A", "Z", 10.0));
+        assertFailsWith("Account not found.", pipeline.transfer("Z", "A", 10.0));
+        assertEquals(100.0, pipeline.getAccountBalance("A").join(), 0.001);
+    }
+
+    @Test
+    public void testRequestsOfOneProducerAreAppliedInOrder() {
+        pipeline.createAccount("A", 0.0);
+        CompletableFuture<Double> last = null;
+        for (int i = 1; i <= 100; i++) {
+            last = pipeline.depositToAccount("A", 1.0);
+        }
+        assertEquals(100.0, last.join(), 0.001);
+        assertEquals(101, pipeline.getProcessedCount());
+    }
+
+    @Test
+    public void testCapacityIsRoundedUpToPowerOfTwo() {
+        LedgerPipeline other = new LedgerPipeline(100);
+        try {
+            assertEquals(128, other.getCapacity());
+        } finally {
+            other.close();
+        }
+        assertEquals(8, pipeline.getCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new LedgerPipeline(0);
+    }
+
+    @Test
+    public void testAccountFactoryCreatesTheAccounts() {
+        LedgerPipeline cents = new LedgerPipeline(8, ConcurrentAccount::new);
+        try {
+            assertEquals(10.0, cents.createAccount("A", 10.004).join(), 0.0);
+            assertEquals(10.01, cents.depositToAccount("A", 0.006).join(), 1e-9);
+        } finally {
+            cents.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullAccountFactory() {
+        new LedgerPipeline(8, null);
+    }
+
+    @Test
+    public void testConcurrentProducersConserveMoney() throws InterruptedException {
+        int accounts = 10;
+        for (int i = 0; i < accounts; i++) {
+            pipeline.createAccount("ACC" + i, 1000.0);
+        }
+        int threads = 8;
+        int requestsPerThread = 2000;
+        Thread[] producers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < requestsPerThread; i++) {
+                    String from = "ACC" + ((seed + i) % accounts);
+                    String to = "ACC" + ((seed + 3 * i + 1) % accounts);
+                    if (i % 2 == 0) {
+                        pipeline.transfer(from, to, 7.0);
+                    } else {
+                        pipeline.depositToAccount(to, 1.0);
+                    }
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        double total = 0;
+        for (int i = 0; i < accounts; i++) {
+            total += pipeline.getAccountBalance("ACC" + i).join();
+        }
+        assertEquals(accounts * 1000.0 + threads * requestsPerThread / 2, total, 0.001);
+    }
+
+    @Test
+    public void testCloseAppliesPendingRequestsAndRejectsNewOnes() {
+        pipeline.createAccount("A", 0.0);
+        CompletableFuture<Double> last = null;
+        for (int i = 0; i < 50; i++) {
+            last = pipeline.depositToAccount("A", 2.0);
+        }
+        pipeline.close();
+        assertTrue(last.isDone());
+        assertEquals(100.0, last.join(), 0.001);
+        try {
+            pipeline.depositToAccount("A", 1.0);
+            fail("Expected the closed pipeline to reject requests.");
+        } catch (IllegalStateException e) {
+            assertEquals("Ledger pipeline is closed.", e.getMessage());
+        }
+        pipeline.close();
+    }
+
+    @Test(timeout = 10_000)
+    public void testCloseFromWriterThreadDoesNotHang() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LedgerPipeline gated = new LedgerPipeline(8, (accountNumber, initialDeposit) -> {
+            entered.countDown();
+            await(release);
+            return new Account(accountNumber, initialDeposit);
+        });
+        CompletableFuture<Double> created = gated.createAccount("A", 10.0);
+        entered.await();
+        CompletableFuture<Void> closed = created.thenRun(gated::close);
+        CompletableFuture<Double> deposit = gated.depositToAccount("A", 5.0);
+        release.countDown();
+        closed.join();
+        assertEquals(15.0, deposit.join(), 0.001);
+        gated.close();
+        try {
+            gated.getAccountBalance("A");
+            fail("Expected the closed pipeline to reject requests.");
+        } catch (IllegalStateException e) {
+            assertEquals("Ledger pipeline is closed.", e.getMessage());
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testErrorFailsAcceptedRequestsAndClosesPipeline() throws InterruptedException {
+        Logger logger = Logger.getLogger(LedgerPipeline.class.getName());
+        Level level = logger.getLevel();
+        logger.setLevel(Level.OFF);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LedgerPipeline broken = new LedgerPipeline(8, (accountNumber, initialDeposit) -> {
+            if (accountNumber.equals("BAD")) {
+                entered.countDown();
+                await(release);
+                throw new AssertionError("account store corrupted");
+            }
+            return new Account(accountNumber, initialDeposit);
+        });
+        try {
+            broken.createAccount("A", 10.0).join();
+            CompletableFuture<Double> bad = broken.createAccount("BAD", 1.0);
+            entered.await();
+            CompletableFuture<?>[] pending = new CompletableFuture<?>[5];
+            for (int i = 0; i < pending.length; i++) {
+                pending[i] = broken.depositToAccount("A", 1.0);
+            }
+            release.countDown();
+            try {
+                bad.join();
+                fail("Expected the failing request to fail.");
+            } catch (CompletionException e) {
+                assertTrue(e.getCause() instanceof AssertionError);
+            }
+            for (CompletableFuture<?> future : pending) {
+                try {
+                    future.join();
+                    fail("Expected the pending request to fail.");
+                } catch (CompletionException e) {
+                    assertTrue(e.getCause() instanceof IllegalStateException);
+                    assertTrue(e.getCause().getCause() instanceof AssertionError);
+                }
+            }
+            try {
+                broken.getAccountBalance("A");
+                fail("Expected the failed pipeline to reject requests.");
+            } catch (IllegalStateException e) {
+                assertEquals("Ledger pipeline is closed.", e.getMessage());
+            }
+            broken.close();
+        } finally {
+            release.countDown();
+            logger.setLevel(level);
+        }
+    }
+}
@@ -56,6 +56,24 @@ public class Loan {
         return amount + calculateInterest();
     }
 
+    /**
+     * Returns the principal amount of the loan.
+     *
+     * @return the principal amount
+     */
+    public double getAmount() {
+        return amount;
+    }
+
+    /**
+     * Returns the annual interest rate of the loan.
+     *
+     * @return the annual interest rate in percent
+     */
+    public double getInterestRate() {
+        return interestRate;
+    }
+
     /**
      * Returns the duration of the loan in years.
      *
@@ -112,11 +130,34 @@ public class Loan {
     /**
      * Calculates the monthly payment amount for the loan.
      *
+     * <p> The annuity factor for the rate and duration comes from the shared {@link AnnuityFactorCache}.
+     *
      * @return the monthly payment amount
      */
     public double calculateMonthlyPayment() {
-        double monthlyRate = interestRate / 12 / 100;
-        double numberOfPayments = duration * 12;
-        return (amount * monthlyRate) / (1 - Math.pow(1 + monthlyRate, -numberOfPayments));
+        return amount * AnnuityFactorCache.shared().factor(interestRate, duration);
+    }
+
+    /**
+     * Writes the month-by-month amortization schedule of the loan into the given arrays.
+     *
+     * @param interest receives the interest part of each payment
+     * @param principal receives the principal part of each payment
+     * @param balance receives the balance remaining after each payment
+     * @param offset the array index of the first row
+     * @return the number of rows written
+     * @throws IllegalArgumentException if the arrays are too short
+     */
+    public int writeAmortizationSchedule(double[] interest, double[] principal, double[] balance, int offset) {
+        return AmortizationSchedule.fill(amount, interestRate, duration, interest, principal, balance, offset);
+    }
+
+    /**
+     * Passes each month of the amortization schedule of the loan to the consumer.
+     *
+     * @param consumer the consumer receiving the rows
+     */
+    public void forEachAmortizationRow(AmortizationSchedule.RowConsumer consumer) {
+        AmortizationSchedule.forEachRow(amount, interestRate, duration, consumer);
     }
 }
@@ -41,12 +41,12 @@ public class LoanAnalysisTool {
     /**
      * Calculates the monthly payment amount for the loan.
      *
+     * <p> The annuity factor for the rate and duration comes from the shared {@link AnnuityFactorCache}.
+     *
      * @return the monthly payment amount
      */
     public double calculateMonthlyPayment() {
-        double monthlyInterestRate = annualInterestRate / 12 / 100;
-        int numberOfPayments = years * 12;
-        return principal * monthlyInterestRate / (1 - Math.pow(1 + monthlyInterestRate, -numberOfPayments));
+        return principal * AnnuityFactorCache.shared().factor(annualInterestRate, years);
     }
 
     /**
@@ -79,6 +79,10 @@ public class LoanAnalysisTool {
     /**
      * Determines if the loan is affordable based on a predefined affordability threshold.
      *
+     * <p> The threshold and the payment both scale with the principal, so the result depends only on
+     * the rate and the duration; {@link LoanSolver#breakEvenRate(int)} returns the rate below which
+     * a loan of a given duration is affordable.
+     *
      * @return true if the loan is considered affordable, false otherwise
      */
     public boolean isAffordable() {
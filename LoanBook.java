@@ -0,0 +1,349 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * A compact collection of loans stored column by column in parallel primitive arrays.
+ *
+ * <p> Each loan is identified by its index, in the order loans were added, and offers the same
+ * operations as {@link Loan}. A loan takes 20 bytes instead of a Loan object and a reference to
+ * it, and scans over the book read contiguous arrays. Bulk filters return the indices of the
+ * matching loans as a BitSet rather than a list of objects.
+ *
+ * <p> Like {@link Loan}, a LoanBook is not safe for concurrent modification.
+ */
+public class LoanBook {
+
+    /**
+     * The principal amount of each loan.
+     */
+    private double[] amounts;
+
+    /**
+     * The annual interest rate of each loan.
+     */
+    private double[] interestRates;
+
+    /**
+     * The duration of each loan in years.
+     */
+    private int[] durations;
+
+    /**
+     * The number of loans in the book.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty LoanBook.
+     */
+    public LoanBook() {
+        this(16);
+    }
+
+    /**
+     * Constructs an empty LoanBook with room for the given number of loans.
+     *
+     * @param initialCapacity the number of loans to allocate room for
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public LoanBook(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative.");
+        }
+        this.amounts = new double[initialCapacity];
+        this.interestRates = new double[initialCapacity];
+        this.durations = new int[initialCapacity];
+    }
+
+    /**
+     * Adds a loan to the book.
+     *
+     * @param amount the principal amount of the loan; must be greater than 0
+     * @param interestRate the annual interest rate of the loan; must be greater than 0
+     * @param duration the duration of the loan in years; must be greater than 0
+     * @return the index of the new loan
+     * @throws IllegalArgumentException if the amount, interest rate, or duration is not greater than 0
+     */
+    public int addLoan(double amount, double interestRate, int duration) {
+        if (amount <= 0 || interestRate <= 0 || duration <= 0) {
+            throw new IllegalArgumentException("Amount, interest rate, and duration must be greater than 0.");
+        }
+        if (size == amounts.length) {
+            int capacity = Math.max(16, size * 2);
+            amounts = Arrays.copyOf(amounts, capacity);
+            interestRates = Arrays.copyOf(interestRates, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+        }
+        amounts[size] = amount;
+        interestRates[size] = interestRate;
+        durations[size] = duration;
+        return size++;
+    }
+
+    /**
+     * Adds a copy of a loan to the book.
+     *
+     * @param loan the loan to add
+     * @return the index of the new loan
+     * @throws IllegalArgumentException if the loan is null
+     */
+    public int addLoan(Loan loan) {
+        if (loan == null) {
+            throw new IllegalArgumentException("Loan cannot be null.");
+        }
+        return addLoan(loan.getAmount(), loan.getInterestRate(), loan.getDuration());
+    }
+
+    /**
+     * Returns the number of loans in the book.
+     *
+     * @return the number of loans
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a new Loan with the current values of the loan at the given index.
+     *
+     * @param index the index of the loan
+     * @return a copy of the loan
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Loan getLoan(int index) {
+        Objects.checkIndex(index, size);
+        return new Loan(amounts[index], interestRates[index], durations[index]);
+    }
+
+    /**
+     * Returns the principal amount of a loan.
+     *
+     * @param index the index of the loan
+     * @return the principal amount
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getAmount(int index) {
+        return amounts[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Returns the annual interest rate of a loan.
+     *
+     * @param index the index of the loan
+     * @return the annual interest rate in percent
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getInterestRate(int index) {
+        return interestRates[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Returns the duration of a loan in years.
+     *
+     * @param index the index of the loan
+     * @return the duration of the loan
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public int getDuration(int index) {
+        return durations[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Calculates the total interest to be paid on a loan, as {@link Loan#calculateInterest()} does.
+     *
+     * @param index the index of the loan
+     * @return the total interest for the entire duration of the loan
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double calculateInterest(int index) {
+        Objects.checkIndex(index, size);
+        return amounts[index] * interestRates[index] * durations[index] / 100;
+    }
+
+    /**
+     * Calculates the total amount to be repaid for a loan (principal + interest).
+     *
+     * @param index the index of the loan
+     * @return the total amount due
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double getTotalAmount(int index) {
+        return amounts[Objects.checkIndex(index, size)] + calculateInterest(index);
+    }
+
+    /**
+     * Calculates the monthly payment amount for a loan, as {@link Loan#calculateMonthlyPayment()} does.
+     *
+     * @param index the index of the loan
+     * @return the monthly payment amount
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public double calculateMonthlyPayment(int index) {
+        Objects.checkIndex(index, size);
+        return amounts[index] * AnnuityFactorCache.shared().factor(interestRates[index], durations[index]);
+    }
+
+    /**
+     * Checks if a loan is short-term, defined as 5 years or less.
+     *
+     * @param index the index of the loan
+     * @return true if the loan is short-term, false otherwise
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean isShortTerm(int index) {
+        return durations[Objects.checkIndex(index, size)] <= 5;
+    }
+
+    /**
+     * Checks if a loan is considered long-term, defined as more than 10 years.
+     *
+     * @param index the index of the loan
+     * @return true if the loan is long-term, false otherwise
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public boolean isLongTerm(int index) {
+        return durations[Objects.checkIndex(index, size)] > 10;
+    }
+
+    /**
+     * Adjusts the amount of a loan to a new value.
+     *
+     * @param index the index of the loan
+     * @param newAmount the new amount of the loan. Must be greater than 0
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalArgumentException if the new amount is not greater than 0
+     */
+    public void adjustAmount(int index, double newAmount) {
+        Objects.checkIndex(index, size);
+        if (newAmount <= 0) {
+            throw new IllegalArgumentException("New amount must be greater than 0.");
+        }
+        amounts[index] = newAmount;
+    }
+
+    /**
+     * Modifies the interest rate of a loan to a new value.
+     *
+     * @param index the index of the loan
+     * @param newRate the new interest rate of the loan. Must be greater than 0
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @throws IllegalArgumentException if the new interest rate is not greater than 0
+     */
+    public void modifyInterestRate(int index, double newRate) {
+        Objects.checkIndex(index, size);
+        if (newRate <= 0) {
+            throw new IllegalArgumentException("New interest rate must be greater than 0.");
+        }
+        interestRates[index] = newRate;
+    }
+
+    /**
+     * Returns the indices of all short-term loans.
+     *
+     * @return a BitSet with the bit of each short-term loan set
+     */
+    public BitSet findShortTermLoans() {
+        return findByDuration(1, 5);
+    }
+
+    /**
+     * Returns the indices of all long-term loans.
+     *
+     * @return a BitSet with the bit of each long-term loan set
+     */
+    public BitSet findLongTermLoans() {
+        return findByDuration(11, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the indices of all loans with a duration in the given range.
+     *
+     * @param minYears the shortest duration to include
+     * @param maxYears the longest duration to include
+     * @return a BitSet with the bit of each matching loan set
+     */
+    public BitSet findByDuration(int minYears, int maxYears) {
+        BitSet matches = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            int duration = durations[i];
+            if (duration >= minYears && duration <= maxYears) {
+                matches.set(i);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the indices of all loans with an interest rate in the given range.
+     *
+     * @param minRate the lowest interest rate to include
+     * @param maxRate the highest interest rate to include
+     * @return a BitSet with the bit of each matching loan set
+     */
+    public BitSet findByInterestRate(double minRate, double maxRate) {
+        BitSet matches = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            double rate = interestRates[i];
+            if (rate >= minRate && rate <= maxRate) {
+                matches.set(i);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the indices of all loans with an amount of at least the given value.
+     *
+     * @param minAmount the lowest amount to include
+     * @return a BitSet with the bit of each matching loan set
+     */
+    public BitSet findByMinimumAmount(double minAmount) {
+        BitSet matches = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (amounts[i] >= minAmount) {
+                matches.set(i);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the total interest of the selected loans, as {@link #calculateInterest(int)} computes it.
+     *
+     * @param selection the indices of the loans to sum
+     * @return the sum of the interest of the selected loans
+     * @throws IndexOutOfBoundsException if the selection contains an index out of range
+     */
+    public double calculateInterest(BitSet selection) {
+        if (selection.length() > size) {
+            throw new IndexOutOfBoundsException("Selection exceeds the book size: " + selection.length());
+        }
+        CompensatedSum total = new CompensatedSum();
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            total.add(amounts[i] * interestRates[i] * durations[i] / 100);
+        }
+        return total.getSum();
+    }
+
+    /**
+     * Returns the total principal of the selected loans. Filters can be combined with the
+     * BitSet operations before summing.
+     *
+     * <p> Unlike {@link #getTotalAmount(int)}, the sum does not include interest.
+     *
+     * @param selection the indices of the loans to sum
+     * @return the sum of the principal amounts of the selected loans
+     * @throws IndexOutOfBoundsException if the selection contains an index out of range
+     */
+    public double getTotalPrincipal(BitSet selection) {
+        if (selection.length() > size) {
+            throw new IndexOutOfBoundsException("Selection exceeds the book size: " + selection.length());
+        }
+        CompensatedSum total = new CompensatedSum();
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            total.add(amounts[i]);
+        }
+        return total.getSum();
+    }
+}
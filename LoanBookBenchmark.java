@@ -0,0 +1,71 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares a list of Loan objects with a {@link LoanBook} holding the same loans.
+ *
+ * <p> Reports heap bytes per loan and the time of a portfolio scan that finds the long-term
+ * loans and sums their total interest. The list is shuffled after it is filled, so that, as in a
+ * long-running application, consecutive elements are not neighbours on the heap.
+ */
+public class LoanBookBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of loans
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Random random = new Random(1);
+        double[] amounts = new double[count];
+        double[] rates = new double[count];
+        int[] durations = new int[count];
+        for (int i = 0; i < count; i++) {
+            amounts[i] = 1000 + random.nextInt(500_000);
+            rates[i] = 0.5 + random.nextInt(200) / 10.0;
+            durations[i] = 1 + random.nextInt(40);
+        }
+
+        long baseline = TransactionLogBenchmark.usedMemory();
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            loans.add(new Loan(amounts[i], rates[i], durations[i]));
+        }
+        long listBytes = TransactionLogBenchmark.usedMemory() - baseline;
+        Collections.shuffle(loans, random);
+
+        baseline = TransactionLogBenchmark.usedMemory();
+        LoanBook book = new LoanBook();
+        for (int i = 0; i < count; i++) {
+            book.addLoan(amounts[i], rates[i], durations[i]);
+        }
+        long bookBytes = TransactionLogBenchmark.usedMemory() - baseline;
+        System.out.printf("Memory per loan: List<Loan> %.1f bytes, LoanBook %.1f bytes%n",
+                (double) listBytes / count, (double) bookBytes / count);
+
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            double listInterest = 0;
+            int listMatches = 0;
+            for (Loan loan : loans) {
+                if (loan.isLongTerm()) {
+                    listInterest += loan.calculateInterest();
+                    listMatches++;
+                }
+            }
+            long listNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            BitSet longTerm = book.findLongTermLoans();
+            double bookInterest = book.calculateInterest(longTerm);
+            long bookNanos = System.nanoTime() - start;
+            System.out.printf("Round %d, long-term scan of %d loans: List<Loan> %.1f ms, LoanBook %.1f ms (%d / %d, %.0f / %.0f)%n",
+                    round + 1, count, listNanos / 1e6, bookNanos / 1e6, listMatches, longTerm.cardinality(),
+                    listInterest, bookInterest);
+        }
+    }
+}
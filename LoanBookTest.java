@@ -0,0 +1,95 @@
+import java.util.BitSet;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LoanBookTest {
+
+    private LoanBook book;
+
+    @Before
+    public void setUp() {
+        book = new LoanBook(2);
+        book.addLoan(10000, 5, 3);
+        book.addLoan(new Loan(20000, 4, 15));
+        book.addLoan(30000, 6, 8);
+        book.addLoan(40000, 3.5, 30);
+    }
+
+    @Test
+    public void testSizeAndGrowth() {
+        assertEquals(4, book.size());
+        assertEquals(4, book.addLoan(5000, 2, 1));
+        assertEquals(5, book.size());
+    }
+
+    @Test
+    public void testOperationsMatchLoan() {
+        for (int i = 0; i < book.size(); i++) {
+            Loan loan = book.getLoan(i);
+            assertEquals(loan.calculateInterest(), book.calculateInterest(i), 1e-9);
+            assertEquals(loan.getTotalAmount(), book.getTotalAmount(i), 1e-9);
+            assertEquals(loan.calculateMonthlyPayment(), book.calculateMonthlyPayment(i), 1e-9);
+            assertEquals(loan.isShortTerm(), book.isShortTerm(i));
+            assertEquals(loan.isLongTerm(), book.isLongTerm(i));
+        }
+    }
+
+    @Test
+    public void testAdjustAmountAndModifyInterestRate() {
+        book.adjustAmount(1, 25000);
+        book.modifyInterestRate(1, 4.5);
+        assertEquals(25000, book.getAmount(1), 0);
+        assertEquals(4.5, book.getInterestRate(1), 0);
+        assertEquals(15, book.getDuration(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAdjustAmountInvalid() {
+        book.adjustAmount(0, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testModifyInterestRateInvalid() {
+        book.modifyInterestRate(0, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddInvalidLoan() {
+        book.addLoan(1000, 5, 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfRange() {
+        book.getAmount(4);
+    }
+
+    @Test
+    public void testFilters() {
+        BitSet expectedLong = new BitSet();
+        expectedLong.set(1);
+        expectedLong.set(3);
+        assertEquals(expectedLong, book.findLongTermLoans());
+        assertEquals(BitSet.valueOf(new long[] {1}), book.findShortTermLoans());
+        assertEquals(BitSet.valueOf(new long[] {0b0101}), book.findByDuration(3, 8));
+        assertEquals(BitSet.valueOf(new long[] {0b1010}), book.findByInterestRate(3, 4));
+        assertEquals(BitSet.valueOf(new long[] {0b1100}), book.findByMinimumAmount(30000));
+    }
+
+    @Test
+    public void testTotalPrincipalOfCombinedFilters() {
+        BitSet selection = book.findLongTermLoans();
+        selection.and(book.findByMinimumAmount(30000));
+        assertEquals(40000, book.getTotalPrincipal(selection), 0);
+        assertEquals(100000, book.getTotalPrincipal(book.findByDuration(1, 100)), 0);
+        assertEquals(book.calculateInterest(1) + book.calculateInterest(3),
+                book.calculateInterest(book.findLongTermLoans()), 1e-9);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testTotalPrincipalSelectionOutOfRange() {
+        BitSet selection = new BitSet();
+        selection.set(10);
+        book.getTotalPrincipal(selection);
+    }
+}
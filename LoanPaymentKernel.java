@@ -0,0 +1,184 @@
+/**
+ * Computes monthly payments, total interest and affordability for batches of loans held in arrays.
+ *
+ * <p> The results match {@link LoanAnalysisTool#calculateMonthlyPayment()},
+ * {@link LoanAnalysisTool#getTotalInterest()} and {@link LoanAnalysisTool#isAffordable()}.
+ * {@link #get()} returns a SIMD kernel built on the incubating Vector API when the JVM was
+ * started with {@code --add-modules jdk.incubator.vector}, and a scalar loop otherwise. The SIMD
+ * kernel lives in {@code VectorLoanPaymentKernel}, which is compiled separately with the same flag
+ * and loaded by name, so the rest of the application builds and runs without the module.
+ */
+public abstract class LoanPaymentKernel {
+
+    /**
+     * The name of the class implementing the SIMD kernel.
+     */
+    static final String VECTOR_KERNEL_CLASS = "VectorLoanPaymentKernel";
+
+    /**
+     * The name of the module providing the Vector API.
+     */
+    static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * The scalar kernel.
+     */
+    private static final LoanPaymentKernel SCALAR = new ScalarKernel();
+
+    /**
+     * The best kernel available in this JVM.
+     */
+    private static final LoanPaymentKernel BEST = loadBest();
+
+    /**
+     * Constructs a kernel. Implementations are obtained through {@link #get()} or {@link #scalar()}.
+     */
+    protected LoanPaymentKernel() {
+    }
+
+    /**
+     * Returns the fastest kernel available in this JVM.
+     *
+     * @return the SIMD kernel if the Vector API module is enabled, otherwise the scalar kernel
+     */
+    public static LoanPaymentKernel get() {
+        return BEST;
+    }
+
+    /**
+     * Returns the scalar kernel, which is always available.
+     *
+     * @return the scalar kernel
+     */
+    public static LoanPaymentKernel scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Returns whether this kernel uses SIMD instructions through the Vector API.
+     *
+     * @return true for the SIMD kernel, false for the scalar kernel
+     */
+    public abstract boolean isVectorized();
+
+    /**
+     * Computes the results of every loan in the arrays.
+     *
+     * <p> Each output array must be at least as long as the input arrays. If a loan has an invalid
+     * input, an exception is thrown and the outputs are left partly filled.
+     *
+     * @param principals the principal amount of each loan; must be greater than 0
+     * @param annualInterestRates the annual interest rate of each loan in percent; must be greater than 0
+     * @param years the duration of each loan in years; must be greater than 0
+     * @param monthlyPayments receives the monthly payment of each loan
+     * @param totalInterests receives the total interest of each loan
+     * @param affordable receives whether each loan meets the affordability threshold of {@link LoanAnalysisTool#isAffordable()}
+     * @throws IllegalArgumentException if the array lengths do not match or a loan has an input that is not greater than 0
+     */
+    public final void compute(double[] principals, double[] annualInterestRates, int[] years,
+                              double[] monthlyPayments, double[] totalInterests, boolean[] affordable) {
+        int count = principals.length;
+        if (annualInterestRates.length != count || years.length != count) {
+            throw new IllegalArgumentException("Loan arrays must have the same length.");
+        }
+        if (monthlyPayments.length < count || totalInterests.length < count || affordable.length < count) {
+            throw new IllegalArgumentException("Result arrays are too short.");
+        }
+        computeRange(principals, annualInterestRates, years, monthlyPayments, totalInterests, affordable, 0, count);
+    }
+
+    /**
+     * Computes the results of the loans in the index range [from, to). The arrays have been checked
+     * to be long enough.
+     *
+     * @param principals the principal amount of each loan
+     * @param annualInterestRates the annual interest rate of each loan in percent
+     * @param years the duration of each loan in years
+     * @param monthlyPayments receives the monthly payment of each loan
+     * @param totalInterests receives the total interest of each loan
+     * @param affordable receives whether each loan is affordable
+     * @param from the first index to compute
+     * @param to the index after the last one to compute
+     * @throws IllegalArgumentException if a loan has an input that is not greater than 0
+     */
+    protected abstract void computeRange(double[] principals, double[] annualInterestRates, int[] years,
+                                         double[] monthlyPayments, double[] totalInterests, boolean[] affordable,
+                                         int from, int to);
+
+    /**
+     * Computes the results of the loans in the index range [from, to) one loan at a time. SIMD
+     * kernels use it for the elements that do not fill a whole vector.
+     *
+     * @param principals the principal amount of each loan
+     * @param annualInterestRates the annual interest rate of each loan in percent
+     * @param years the duration of each loan in years
+     * @param monthlyPayments receives the monthly payment of each loan
+     * @param totalInterests receives the total interest of each loan
+     * @param affordable receives whether each loan is affordable
+     * @param from the first index to compute
+     * @param to the index after the last one to compute
+     * @throws IllegalArgumentException if a loan has an input that is not greater than 0
+     */
+    protected static void computeScalar(double[] principals, double[] annualInterestRates, int[] years,
+                                        double[] monthlyPayments, double[] totalInterests, boolean[] affordable,
+                                        int from, int to) {
+        for (int i = from; i < to; i++) {
+            double principal = principals[i];
+            double annualRate = annualInterestRates[i];
+            int term = years[i];
+            if (principal <= 0 || annualRate <= 0 || term <= 0) {
+                throw invalidLoan(i);
+            }
+            double monthlyRate = annualRate / 12 / 100;
+            int payments = term * 12;
+            double payment = principal * monthlyRate / (1 - Math.pow(1 + monthlyRate, -payments));
+            monthlyPayments[i] = payment;
+            totalInterests[i] = payment * payments - principal;
+            affordable[i] = payment < principal / 12 * 0.1;
+        }
+    }
+
+    /**
+     * Creates the exception reported for a loan with an input that is not greater than 0.
+     *
+     * @param index the index of the loan
+     * @return the exception to throw
+     */
+    protected static IllegalArgumentException invalidLoan(int index) {
+        return new IllegalArgumentException("Principal, interest rate, and years must be greater than 0 (loan " + index + ").");
+    }
+
+    /**
+     * Loads the SIMD kernel if the Vector API module is part of the boot layer.
+     *
+     * @return the SIMD kernel, or the scalar kernel if it is not available
+     */
+    private static LoanPaymentKernel loadBest() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return SCALAR;
+        }
+        try {
+            return (LoanPaymentKernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+
+    /**
+     * The kernel computing one loan at a time.
+     */
+    private static final class ScalarKernel extends LoanPaymentKernel {
+
+        @Override
+        public boolean isVectorized() {
+            return false;
+        }
+
+        @Override
+        protected void computeRange(double[] principals, double[] annualInterestRates, int[] years,
+                                    double[] monthlyPayments, double[] totalInterests, boolean[] affordable,
+                                    int from, int to) {
+            computeScalar(principals, annualInterestRates, years, monthlyPayments, totalInterests, affordable, from, to);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.Random;
+
+/**
+ * Compares batch payment calculation with per-object LoanAnalysisTool calls.
+ *
+ * <p> Computes the monthly payment, total interest and affordability of every loan in a batch
+ * with one LoanAnalysisTool per loan, with the scalar {@link LoanPaymentKernel}, and with
+ * {@link LoanPaymentKernel#get()}, which is the SIMD kernel when the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}.
+ */
+public class LoanPaymentKernelBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional batch size
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        double[] principals = new double[count];
+        double[] rates = new double[count];
+        int[] years = new int[count];
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++) {
+            principals[i] = 1000 + random.nextInt(500_000);
+            rates[i] = 0.5 + random.nextInt(200) / 10.0;
+            years[i] = 1 + random.nextInt(40);
+        }
+        double[] payments = new double[count];
+        double[] interests = new double[count];
+        boolean[] affordable = new boolean[count];
+        LoanPaymentKernel scalar = LoanPaymentKernel.scalar();
+        LoanPaymentKernel best = LoanPaymentKernel.get();
+        System.out.println("Best kernel: " + (best.isVectorized() ? "SIMD" : "scalar (Vector API module not enabled)"));
+
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            double checksum = 0;
+            for (int i = 0; i < count; i++) {
+                LoanAnalysisTool tool = new LoanAnalysisTool(principals[i], rates[i], years[i]);
+                checksum += tool.calculateMonthlyPayment() + tool.getTotalInterest() + (tool.isAffordable() ? 1 : 0);
+            }
+            long objectNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            scalar.compute(principals, rates, years, payments, interests, affordable);
+            long scalarNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            best.compute(principals, rates, years, payments, interests, affordable);
+            long bestNanos = System.nanoTime() - start;
+            System.out.printf("Round %d, %d loans: LoanAnalysisTool %.1f ns/loan, scalar kernel %.1f ns/loan, best kernel %.1f ns/loan (%.0f)%n",
+                    round + 1, count, (double) objectNanos / count, (double) scalarNanos / count,
+                    (double) bestNanos / count, checksum);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LoanPaymentKernelTest {
+
+    private static final int COUNT = 1003;
+
+    private final double[] principals = new double[COUNT];
+    private final double[] rates = new double[COUNT];
+    private final int[] years = new int[COUNT];
+
+    public LoanPaymentKernelTest() {
+        Random random = new Random(3);
+        for (int i = 0; i < COUNT; i++) {
+            principals[i] = 1000 + random.nextInt(500_000);
+            rates[i] = 0.5 + random.nextInt(400) / 10.0;
+            years[i] = 1 + random.nextInt(40);
+        }
+    }
+
+    private void assertMatchesLoanAnalysisTool(LoanPaymentKernel kernel) {
+        double[] payments = new double[COUNT];
+        double[] interests = new double[COUNT];
+        boolean[] affordable = new boolean[COUNT];
+        kernel.compute(principals, rates, years, payments, interests, affordable);
+        for (int i = 0; i < COUNT; i++) {
+            LoanAnalysisTool tool = new LoanAnalysisTool(principals[i], rates[i], years[i]);
+            assertEquals(tool.calculateMonthlyPayment(), payments[i], 1e-9 * payments[i]);
+            assertEquals(tool.getTotalInterest(), interests[i], 1e-6);
+            assertEquals(tool.isAffordable(), affordable[i]);
+        }
+    }
+
+    @Test
+    public void testScalarKernelMatchesLoanAnalysisTool() {
+        LoanPaymentKernel kernel = LoanPaymentKernel.scalar();
+        assertFalse(kernel.isVectorized());
+        assertMatchesLoanAnalysisTool(kernel);
+    }
+
+    @Test
+    public void testBestKernelMatchesLoanAnalysisTool() {
+        assertMatchesLoanAnalysisTool(LoanPaymentKernel.get());
+    }
+
+    @Test
+    public void testBestKernelIsScalarWithoutVectorModule() {
+        boolean moduleEnabled = ModuleLayer.boot().findModule(LoanPaymentKernel.VECTOR_MODULE).isPresent();
+        if (!moduleEnabled) {
+            assertSame(LoanPaymentKernel.scalar(), LoanPaymentKernel.get());
+        }
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        LoanPaymentKernel.get().compute(new double[0], new double[0], new int[0],
+                new double[0], new double[0], new boolean[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLoanInFullVector() {
+        rates[5] = 0;
+        LoanPaymentKernel.get().compute(principals, rates, years,
+                new double[COUNT], new double[COUNT], new boolean[COUNT]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLoanInRemainder() {
+        years[COUNT - 1] = 0;
+        LoanPaymentKernel.get().compute(principals, rates, years,
+                new double[COUNT], new double[COUNT], new boolean[COUNT]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMismatchedArrays() {
+        LoanPaymentKernel.get().compute(principals, new double[1], years,
+                new double[COUNT], new double[COUNT], new boolean[COUNT]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testResultArraysTooShort() {
+        LoanPaymentKernel.get().compute(principals, rates, years,
+                new double[COUNT], new double[COUNT - 1], new boolean[COUNT]);
+    }
+}
@@ -0,0 +1,50 @@
+import java.util.Random;
+
+/**
+ * Compares evaluating a loan portfolio with LoanAnalysisTool objects against the batch evaluator.
+ *
+ * <p> The object path constructs one LoanAnalysisTool per loan and calls its four analysis
+ * methods, which recompute the annuity factor each time; the batch path runs
+ * {@link LoanPortfolioEvaluator#evaluate} over parallel arrays.
+ */
+public class LoanPortfolioBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of loans
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        double[] principals = new double[count];
+        double[] rates = new double[count];
+        int[] years = new int[count];
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++) {
+            principals[i] = 1000 + random.nextInt(500_000);
+            rates[i] = 0.5 + random.nextInt(200) / 10.0;
+            years[i] = 1 + random.nextInt(40);
+        }
+        double[] payment = new double[count];
+        double[] total = new double[count];
+        double[] interest = new double[count];
+        boolean[] affordable = new boolean[count];
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            double checksum = 0;
+            for (int i = 0; i < count; i++) {
+                LoanAnalysisTool tool = new LoanAnalysisTool(principals[i], rates[i], years[i]);
+                checksum += tool.calculateMonthlyPayment() + tool.calculateTotalPayment() + tool.getTotalInterest();
+                checksum += tool.isAffordable() ? 1 : 0;
+            }
+            long objectNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            LoanPortfolioEvaluator.evaluate(principals, rates, years, payment, total, interest, affordable);
+            long batchNanos = System.nanoTime() - start;
+            System.out.printf("Round %d, %d loans: LoanAnalysisTool %.1f ns/loan, batch %.1f ns/loan (%.0f)%n",
+                    round + 1, count, (double) objectNanos / count, (double) batchNanos / count, checksum);
+        }
+    }
+}
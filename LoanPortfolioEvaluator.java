@@ -0,0 +1,194 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evaluates whole loan portfolios in one pass, with the same results as {@link LoanAnalysisTool}.
+ *
+ * <p> Loans are given as parallel arrays of principals, annual interest rates (in percent) and
+ * terms (in years). For every loan the evaluator computes the monthly payment, total payment,
+ * total interest and affordability into caller-provided arrays, computing the annuity factor
+ * only once per loan. Large portfolios are split across cores with fork/join.
+ */
+public final class LoanPortfolioEvaluator {
+
+    /**
+     * Number of loans below which a portfolio slice is evaluated on the current thread.
+     */
+    static final int PARALLEL_THRESHOLD = 32_768;
+
+    /**
+     * Prevents instantiation; all methods are static.
+     */
+    private LoanPortfolioEvaluator() {
+    }
+
+    /**
+     * Evaluates every loan of the portfolio.
+     *
+     * <p> Each output array must be at least as long as the input arrays. If a loan has an invalid
+     * input, an exception is thrown and the outputs are left partly filled.
+     *
+     * @param principals the principal amount of each loan; must be greater than 0
+     * @param annualInterestRates the annual interest rate of each loan in percent; must be greater than 0
+     * @param years the duration of each loan in years; must be greater than 0
+     * @param monthlyPayments receives the monthly payment of each loan
+     * @param totalPayments receives the total payment over the life of each loan
+     * @param totalInterests receives the total interest of each loan
+     * @param affordable receives whether each loan meets the affordability threshold of {@link LoanAnalysisTool#isAffordable()}
+     * @throws IllegalArgumentException if the array lengths do not match or a loan has an input that is not greater than 0
+     */
+    public static void evaluate(double[] principals, double[] annualInterestRates, int[] years,
+                                double[] monthlyPayments, double[] totalPayments, double[] totalInterests,
+                                boolean[] affordable) {
+        int count = principals.length;
+        if (annualInterestRates.length != count || years.length != count) {
+            throw new IllegalArgumentException("Loan arrays must have the same length.");
+        }
+        if (monthlyPayments.length < count || totalPayments.length < count || totalInterests.length < count
+                || affordable.length < count) {
+            throw new IllegalArgumentException("Result arrays are too short.");
+        }
+        EvaluateTask task = new EvaluateTask(principals, annualInterestRates, years,
+                monthlyPayments, totalPayments, totalInterests, affordable, 0, count);
+        if (count <= PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    /**
+     * Evaluates the loans in the index range [from, to) on the current thread.
+     *
+     * @param principals the principal amount of each loan
+     * @param annualInterestRates the annual interest rate of each loan in percent
+     * @param years the duration of each loan in years
+     * @param monthlyPayments receives the monthly payment of each loan
+     * @param totalPayments receives the total payment over the life of each loan
+     * @param totalInterests receives the total interest of each loan
+     * @param affordable receives whether each loan is affordable
+     * @param from the first index to evaluate
+     * @param to the index after the last one to evaluate
+     * @throws IllegalArgumentException if a loan has an input that is not greater than 0
+     */
+    static void evaluateRange(double[] principals, double[] annualInterestRates, int[] years,
+                              double[] monthlyPayments, double[] totalPayments, double[] totalInterests,
+                              boolean[] affordable, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double principal = principals[i];
+            double annualRate = annualInterestRates[i];
+            int term = years[i];
+            if (principal <= 0 || annualRate <= 0 || term <= 0) {
+                throw new IllegalArgumentException("Principal, interest rate, and years must be greater than 0 (loan " + i + ").");
+            }
+            double monthlyRate = annualRate / 12 / 100;
+            int payments = term * 12;
+            double payment = principal * monthlyRate / (1 - Math.pow(1 + monthlyRate, -payments));
+            double total = payment * payments;
+            monthlyPayments[i] = payment;
+            totalPayments[i] = total;
+            totalInterests[i] = total - principal;
+            affordable[i] = payment < principal / 12 * 0.1;
+        }
+    }
+
+    /**
+     * Fork/join task evaluating one slice of a portfolio, splitting it in halves while it is large.
+     */
+    private static final class EvaluateTask extends RecursiveAction {
+
+        /**
+         * Serialization version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The principal of each loan.
+         */
+        private final double[] principals;
+
+        /**
+         * The annual interest rate of each loan, in percent.
+         */
+        private final double[] annualInterestRates;
+
+        /**
+         * The term of each loan, in years.
+         */
+        private final int[] years;
+
+        /**
+         * Receives the monthly payment of each loan.
+         */
+        private final double[] monthlyPayments;
+
+        /**
+         * Receives the total payment of each loan.
+         */
+        private final double[] totalPayments;
+
+        /**
+         * Receives the total interest of each loan.
+         */
+        private final double[] totalInterests;
+
+        /**
+         * Receives whether each loan is affordable.
+         */
+        private final boolean[] affordable;
+
+        /**
+         * The first loan of the slice.
+         */
+        private final int from;
+
+        /**
+         * The end of the slice, exclusive.
+         */
+        private final int to;
+
+        /**
+         * Constructs a task for the loans in the index range [from, to).
+         *
+         * @param principals the principal of each loan
+         * @param annualInterestRates the annual interest rate of each loan, in percent
+         * @param years the term of each loan, in years
+         * @param monthlyPayments receives the monthly payment of each loan
+         * @param totalPayments receives the total payment of each loan
+         * @param totalInterests receives the total interest of each loan
+         * @param affordable receives whether each loan is affordable
+         * @param from the first loan of the slice
+         * @param to the end of the slice, exclusive
+         */
+        EvaluateTask(double[] principals, double[] annualInterestRates, int[] years,
+                     double[] monthlyPayments, double[] totalPayments, double[] totalInterests,
+                     boolean[] affordable, int from, int to) {
+            this.principals = principals;
+            this.annualInterestRates = annualInterestRates;
+            this.years = years;
+            this.monthlyPayments = monthlyPayments;
+            this.totalPayments = totalPayments;
+            this.totalInterests = totalInterests;
+            this.affordable = affordable;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Evaluates the slice, or splits it in halves and evaluates them in parallel.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                evaluateRange(principals, annualInterestRates, years, monthlyPayments, totalPayments,
+                        totalInterests, affordable, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluateTask(principals, annualInterestRates, years, monthlyPayments, totalPayments,
+                            totalInterests, affordable, from, middle),
+                    new EvaluateTask(principals, annualInterestRates, years, monthlyPayments, totalPayments,
+                            totalInterests, affordable, middle, to));
+        }
+    }
+}
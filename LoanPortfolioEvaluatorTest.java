@@ -0,0 +1,71 @@
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LoanPortfolioEvaluatorTest {
+
+    @Test
+    public void testSingleLoanMatchesLoanAnalysisTool() {
+        double[] payment = new double[1];
+        double[] total = new double[1];
+        double[] interest = new double[1];
+        boolean[] affordable = new boolean[1];
+        LoanPortfolioEvaluator.evaluate(new double[] {10000}, new double[] {5}, new int[] {5},
+                payment, total, interest, affordable);
+        LoanAnalysisTool tool = new LoanAnalysisTool(10000, 5, 5);
+        assertEquals(tool.calculateMonthlyPayment(), payment[0], 1e-9);
+        assertEquals(tool.calculateTotalPayment(), total[0], 1e-9);
+        assertEquals(tool.getTotalInterest(), interest[0], 1e-9);
+        assertEquals(tool.isAffordable(), affordable[0]);
+    }
+
+    @Test
+    public void testLargePortfolioMatchesLoanAnalysisTool() {
+        int count = 3 * LoanPortfolioEvaluator.PARALLEL_THRESHOLD + 17;
+        double[] principals = new double[count];
+        double[] rates = new double[count];
+        int[] years = new int[count];
+        Random random = new Random(7);
+        for (int i = 0; i < count; i++) {
+            principals[i] = 1000 + random.nextInt(500_000);
+            rates[i] = 0.5 + random.nextInt(200) / 10.0;
+            years[i] = 1 + random.nextInt(40);
+        }
+        double[] payment = new double[count];
+        double[] total = new double[count];
+        double[] interest = new double[count];
+        boolean[] affordable = new boolean[count];
+        LoanPortfolioEvaluator.evaluate(principals, rates, years, payment, total, interest, affordable);
+        for (int i = 0; i < count; i += 97) {
+            LoanAnalysisTool tool = new LoanAnalysisTool(principals[i], rates[i], years[i]);
+            assertEquals(tool.calculateMonthlyPayment(), payment[i], 1e-9);
+            assertEquals(tool.getTotalInterest(), interest[i], 1e-6);
+            assertEquals(tool.isAffordable(), affordable[i]);
+        }
+        assertTrue(payment[count - 1] > 0);
+    }
+
+    @Test
+    public void testEmptyPortfolio() {
+        LoanPortfolioEvaluator.evaluate(new double[0], new double[0], new int[0],
+                new double[0], new double[0], new double[0], new boolean[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMismatchedInputArrays() {
+        LoanPortfolioEvaluator.evaluate(new double[2], new double[1], new int[2],
+                new double[2], new double[2], new double[2], new boolean[2]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testResultArraysTooShort() {
+        LoanPortfolioEvaluator.evaluate(new double[] {1000}, new double[] {5}, new int[] {5},
+                new double[0], new double[1], new double[1], new boolean[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLoan() {
+        LoanPortfolioEvaluator.evaluate(new double[] {1000}, new double[] {0}, new int[] {5},
+                new double[1], new double[1], new double[1], new boolean[1]);
+    }
+}
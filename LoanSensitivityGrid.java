@@ -0,0 +1,256 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A what-if grid of monthly payments and total interest for one principal over a range of
+ * interest rates and terms.
+ *
+ * <p> Row {@code i} of the grid holds the results for the i-th rate and column {@code j} those for
+ * a term of {@code j + 1} years. Each row needs a single {@code Math.pow}: the yearly discount
+ * {@code (1 + r)^-12} is computed once per rate and multiplied up across the terms. Large grids
+ * are filled in parallel with fork/join, one band of rows per task.
+ */
+public class LoanSensitivityGrid {
+
+    /**
+     * The longest term a grid can cover, in years.
+     */
+    public static final int MAX_YEARS = 100;
+
+    /**
+     * Number of grid cells below which a band of rows is filled on the current thread.
+     */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * The principal amount of the loan.
+     */
+    private final double principal;
+
+    /**
+     * The annual interest rates of the rows, in percent.
+     */
+    private final double[] rates;
+
+    /**
+     * The longest term of the grid, in years.
+     */
+    private final int maxYears;
+
+    /**
+     * The monthly payments, indexed by rate and term minus one.
+     */
+    private final double[][] monthlyPayments;
+
+    /**
+     * The total interest, indexed by rate and term minus one.
+     */
+    private final double[][] totalInterests;
+
+    /**
+     * Computes the grid for the given principal, rates and terms of 1 to maxYears years.
+     *
+     * @param principal the principal amount of the loan; must be greater than 0
+     * @param annualInterestRates the annual interest rates of the rows in percent; each must be greater than 0
+     * @param maxYears the longest term of the grid, in years; must be between 1 and {@link #MAX_YEARS}
+     * @throws IllegalArgumentException if the principal or a rate is not greater than 0 or maxYears is out of range
+     */
+    public LoanSensitivityGrid(double principal, double[] annualInterestRates, int maxYears) {
+        if (principal <= 0) {
+            throw new IllegalArgumentException("Principal must be greater than 0.");
+        }
+        if (maxYears <= 0 || maxYears > MAX_YEARS) {
+            throw new IllegalArgumentException("Maximum years must be between 1 and " + MAX_YEARS + ".");
+        }
+        for (double rate : annualInterestRates) {
+            if (!(rate > 0)) {
+                throw new IllegalArgumentException("Interest rates must be greater than 0.");
+            }
+        }
+        this.principal = principal;
+        this.rates = annualInterestRates.clone();
+        this.maxYears = maxYears;
+        this.monthlyPayments = new double[rates.length][maxYears];
+        this.totalInterests = new double[rates.length][maxYears];
+        FillTask task = new FillTask(0, rates.length);
+        if ((long) rates.length * maxYears <= PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    /**
+     * Computes the grid around a loan: its principal, rates in steps of rateStep on either side of
+     * its rate, and terms of 1 to maxYears years. Rates that would not be greater than 0 are left out.
+     *
+     * @param loan the loan to vary
+     * @param rateStep the distance between neighbouring rates, in percentage points; must be greater than 0
+     * @param stepsEachSide the number of rates below and above the loan's rate
+     * @param maxYears the longest term of the grid, in years; must be between 1 and {@link #MAX_YEARS}
+     * @return the grid
+     * @throws IllegalArgumentException if the step is not greater than 0, the number of steps is
+     *                                  negative, or maxYears is out of range
+     */
+    public static LoanSensitivityGrid around(Loan loan, double rateStep, int stepsEachSide, int maxYears) {
+        if (!(rateStep > 0) || stepsEachSide < 0) {
+            throw new IllegalArgumentException("Rate step must be greater than 0 and steps cannot be negative.");
+        }
+        double center = loan.getInterestRate();
+        int lowest = -Math.min(stepsEachSide, (int) Math.ceil(center / rateStep) - 1);
+        double[] rates = new double[stepsEachSide - lowest + 1];
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = center + (lowest + i) * rateStep;
+        }
+        return new LoanSensitivityGrid(loan.getAmount(), rates, maxYears);
+    }
+
+    /**
+     * Returns the principal amount the grid was computed for.
+     *
+     * @return the principal amount
+     */
+    public double getPrincipal() {
+        return principal;
+    }
+
+    /**
+     * Returns the number of rates, which is the number of rows.
+     *
+     * @return the number of rates
+     */
+    public int getRateCount() {
+        return rates.length;
+    }
+
+    /**
+     * Returns the longest term of the grid, which is the number of columns.
+     *
+     * @return the longest term in years
+     */
+    public int getMaxYears() {
+        return maxYears;
+    }
+
+    /**
+     * Returns the annual interest rate of a row.
+     *
+     * @param rateIndex the index of the row
+     * @return the annual interest rate in percent
+     */
+    public double getRate(int rateIndex) {
+        return rates[rateIndex];
+    }
+
+    /**
+     * Returns the monthly payment for one rate and term.
+     *
+     * @param rateIndex the index of the rate
+     * @param years the term in years, from 1 to {@link #getMaxYears()}
+     * @return the monthly payment
+     */
+    public double getMonthlyPayment(int rateIndex, int years) {
+        return monthlyPayments[rateIndex][years - 1];
+    }
+
+    /**
+     * Returns the total interest for one rate and term.
+     *
+     * @param rateIndex the index of the rate
+     * @param years the term in years, from 1 to {@link #getMaxYears()}
+     * @return the total interest
+     */
+    public double getTotalInterest(int rateIndex, int years) {
+        return totalInterests[rateIndex][years - 1];
+    }
+
+    /**
+     * Returns the monthly payments of the whole grid, indexed by rate and term minus one.
+     *
+     * <p> The array is not copied; callers must not modify it.
+     *
+     * @return the monthly payments
+     */
+    public double[][] getMonthlyPayments() {
+        return monthlyPayments;
+    }
+
+    /**
+     * Returns the total interest of the whole grid, indexed by rate and term minus one.
+     *
+     * <p> The array is not copied; callers must not modify it.
+     *
+     * @return the total interest
+     */
+    public double[][] getTotalInterests() {
+        return totalInterests;
+    }
+
+    /**
+     * Fills the rows in the range [from, to).
+     *
+     * @param from the first row to fill
+     * @param to the row after the last one to fill
+     */
+    private void fillRows(int from, int to) {
+        for (int row = from; row < to; row++) {
+            double monthlyRate = rates[row] / 12 / 100;
+            double yearlyDiscount = Math.pow(1 + monthlyRate, -12);
+            double perUnit = principal * monthlyRate;
+            double[] payments = monthlyPayments[row];
+            double[] interests = totalInterests[row];
+            double discount = 1;
+            for (int column = 0; column < payments.length; column++) {
+                discount *= yearlyDiscount;
+                double payment = perUnit / (1 - discount);
+                payments[column] = payment;
+                interests[column] = payment * (column + 1) * 12 - principal;
+            }
+        }
+    }
+
+    /**
+     * Fork/join task filling a band of rows, splitting it in halves while it is large.
+     */
+    private final class FillTask extends RecursiveAction {
+
+        /**
+         * Serialization version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first row of the band.
+         */
+        private final int from;
+
+        /**
+         * The end of the band, exclusive.
+         */
+        private final int to;
+
+        /**
+         * Constructs a task for the rows in the range [from, to).
+         *
+         * @param from the first row of the band
+         * @param to the end of the band, exclusive
+         */
+        FillTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Fills the band, or splits it in halves and fills them in parallel.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= 1 || (long) (to - from) * maxYears <= PARALLEL_THRESHOLD) {
+                fillRows(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new FillTask(from, middle), new FillTask(middle, to));
+        }
+    }
+}
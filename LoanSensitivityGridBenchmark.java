@@ -0,0 +1,48 @@
+/**
+ * Compares building a rate and term sensitivity grid from LoanAnalysisTool objects with
+ * {@link LoanSensitivityGrid}.
+ *
+ * <p> The grid covers 500 rates in 0.1 point steps and terms of 1 to 40 years. The object path
+ * constructs one LoanAnalysisTool per cell and asks it for the payment and total interest.
+ * Every twentieth of 200 rounds is reported, so the later lines show warmed-up code.
+ */
+public class LoanSensitivityGridBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of rates
+     */
+    public static void main(String[] args) {
+        int rateCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int maxYears = 40;
+        double[] rates = new double[rateCount];
+        for (int i = 0; i < rateCount; i++) {
+            rates[i] = 0.1 * (i + 1);
+        }
+        double[][] payments = new double[rateCount][maxYears];
+        double[][] interests = new double[rateCount][maxYears];
+
+        for (int round = 0; round < 200; round++) {
+            long start = System.nanoTime();
+            for (int row = 0; row < rateCount; row++) {
+                for (int years = 1; years <= maxYears; years++) {
+                    LoanAnalysisTool tool = new LoanAnalysisTool(250000, rates[row], years);
+                    payments[row][years - 1] = tool.calculateMonthlyPayment();
+                    interests[row][years - 1] = tool.getTotalInterest();
+                }
+            }
+            long objectNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            LoanSensitivityGrid grid = new LoanSensitivityGrid(250000, rates, maxYears);
+            long gridNanos = System.nanoTime() - start;
+            if ((round + 1) % 20 != 0) {
+                continue;
+            }
+            System.out.printf("Round %d, %dx%d grid: LoanAnalysisTool %.1f us, LoanSensitivityGrid %.1f us (%.2f / %.2f)%n",
+                    round + 1, rateCount, maxYears, objectNanos / 1e3, gridNanos / 1e3,
+                    payments[rateCount - 1][maxYears - 1], grid.getMonthlyPayment(rateCount - 1, maxYears));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LoanSensitivityGridTest {
+
+    private static void assertMatchesLoanAnalysisTool(LoanSensitivityGrid grid) {
+        for (int row = 0; row < grid.getRateCount(); row++) {
+            for (int years = 1; years <= grid.getMaxYears(); years++) {
+                LoanAnalysisTool tool = new LoanAnalysisTool(grid.getPrincipal(), grid.getRate(row), years);
+                double payment = tool.calculateMonthlyPayment();
+                assertEquals(payment, grid.getMonthlyPayment(row, years), payment * 1e-12);
+                assertEquals(tool.getTotalInterest(), grid.getTotalInterest(row, years), 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void testSmallGridMatchesLoanAnalysisTool() {
+        LoanSensitivityGrid grid = new LoanSensitivityGrid(15000, new double[] {1, 3.5, 5, 12}, 40);
+        assertEquals(4, grid.getRateCount());
+        assertEquals(40, grid.getMaxYears());
+        assertMatchesLoanAnalysisTool(grid);
+    }
+
+    @Test
+    public void testLargeGridMatchesLoanAnalysisTool() {
+        double[] rates = new double[500];
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = 0.1 * (i + 1);
+        }
+        LoanSensitivityGrid grid = new LoanSensitivityGrid(250000, rates, 40);
+        assertEquals(500, grid.getMonthlyPayments().length);
+        assertEquals(40, grid.getTotalInterests()[499].length);
+        assertMatchesLoanAnalysisTool(grid);
+    }
+
+    @Test
+    public void testAroundLoan() {
+        Loan loan = new Loan(10000, 5, 10);
+        LoanSensitivityGrid grid = LoanSensitivityGrid.around(loan, 0.5, 3, 30);
+        assertEquals(7, grid.getRateCount());
+        assertEquals(3.5, grid.getRate(0), 1e-12);
+        assertEquals(6.5, grid.getRate(6), 1e-12);
+        assertEquals(loan.calculateMonthlyPayment(), grid.getMonthlyPayment(3, 10), 1e-9);
+    }
+
+    @Test
+    public void testAroundLoanLeavesOutNonPositiveRates() {
+        LoanSensitivityGrid grid = LoanSensitivityGrid.around(new Loan(10000, 0.3, 10), 0.1, 5, 5);
+        assertEquals(8, grid.getRateCount());
+        assertTrue(grid.getRate(0) > 0);
+        assertEquals(0.8, grid.getRate(7), 1e-12);
+    }
+
+    @Test
+    public void testEmptyRates() {
+        LoanSensitivityGrid grid = new LoanSensitivityGrid(1000, new double[0], 40);
+        assertEquals(0, grid.getRateCount());
+        assertEquals(40, grid.getMaxYears());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRate() {
+        new LoanSensitivityGrid(1000, new double[] {5, 0}, 40);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxYears() {
+        new LoanSensitivityGrid(1000, new double[] {5}, 0);
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Solves the loan payment formula for its inputs instead of its payment.
+ *
+ * <p> {@link LoanAnalysisTool} answers questions about one fixed loan, so finding the loan that
+ * meets a target used to take repeated trial calls. These solvers answer directly: the largest
+ * principal a monthly payment can carry, the rate and the term that give a target payment, and
+ * the highest rate at which a loan is affordable. Principal and term have closed forms; the rate
+ * is found with Newton's method, limited to {@link #MAX_ITERATIONS} steps.
+ *
+ * <p> Rates are annual and in percent and terms are in whole years, as in {@link LoanAnalysisTool}.
+ */
+public final class LoanSolver {
+
+    /**
+     * The maximum number of Newton steps taken when solving for a rate.
+     */
+    public static final int MAX_ITERATIONS = 100;
+
+    /**
+     * The relative change of the monthly rate below which a Newton solve stops.
+     */
+    private static final double RATE_TOLERANCE = 1e-12;
+
+    /**
+     * The monthly payment per unit of principal at the affordability threshold of
+     * {@link LoanAnalysisTool#isAffordable()}.
+     */
+    private static final double AFFORDABLE_FACTOR = 0.1 / 12;
+
+    /**
+     * Prevents instantiation; all methods are static.
+     */
+    private LoanSolver() {
+    }
+
+    /**
+     * Returns the largest principal whose monthly payment does not exceed the given payment.
+     *
+     * @param monthlyPayment the monthly payment available; must be greater than 0
+     * @param annualInterestRate the annual interest rate in percent; must be greater than 0
+     * @param years the duration of the loan in years; must be greater than 0
+     * @return the maximum principal
+     * @throws IllegalArgumentException if an input is not greater than 0
+     */
+    public static double maxPrincipal(double monthlyPayment, double annualInterestRate, int years) {
+        if (monthlyPayment <= 0 || annualInterestRate <= 0 || years <= 0) {
+            throw new IllegalArgumentException("Payment, interest rate, and years must be greater than 0.");
+        }
+        return monthlyPayment / AnnuityFactorCache.shared().factor(annualInterestRate, years);
+    }
+
+    /**
+     * Returns the annual interest rate at which a loan has the given monthly payment.
+     *
+     * @param principal the principal amount of the loan; must be greater than 0
+     * @param monthlyPayment the target monthly payment; must be greater than 0
+     * @param years the duration of the loan in years; must be greater than 0
+     * @return the annual interest rate in percent
+     * @throws IllegalArgumentException if an input is not greater than 0, or if the payments do not
+     *                                  add up to more than the principal, so no positive rate exists
+     * @throws IllegalStateException if the rate does not converge within {@link #MAX_ITERATIONS} steps
+     */
+    public static double rateForPayment(double principal, double monthlyPayment, int years) {
+        if (principal <= 0 || monthlyPayment <= 0 || years <= 0) {
+            throw new IllegalArgumentException("Principal, payment, and years must be greater than 0.");
+        }
+        int payments = years * 12;
+        double target = monthlyPayment / principal;
+        if (target * payments <= 1) {
+            throw new IllegalArgumentException("Payments must add up to more than the principal.");
+        }
+        // The payment per unit of principal exceeds the monthly rate and is convex in it, so
+        // Newton's method started at the target approaches the root from above without overshooting.
+        double rate = target;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            // expm1 and log1p keep 1 - (1 + r)^-n accurate for the small rates near the root.
+            double exponent = -payments * Math.log1p(rate);
+            double discount = Math.exp(exponent);
+            double denominator = -Math.expm1(exponent);
+            double value = rate / denominator - target;
+            double slope = (denominator - rate * payments * discount / (1 + rate)) / (denominator * denominator);
+            double next = rate - value / slope;
+            if (!(next > 0)) {
+                next = rate / 2;
+            }
+            if (Math.abs(next - rate) <= RATE_TOLERANCE * rate) {
+                return next * 12 * 100;
+            }
+            rate = next;
+        }
+        throw new IllegalStateException("Interest rate did not converge.");
+    }
+
+    /**
+     * Returns the shortest term in whole years for which a loan's monthly payment does not exceed
+     * the given payment.
+     *
+     * @param principal the principal amount of the loan; must be greater than 0
+     * @param monthlyPayment the monthly payment available; must be greater than 0
+     * @param annualInterestRate the annual interest rate in percent; must be greater than 0
+     * @return the term in years
+     * @throws IllegalArgumentException if an input is not greater than 0, or if the payment does not
+     *                                  exceed the monthly interest, so the loan is never repaid
+     */
+    public static int yearsForPayment(double principal, double monthlyPayment, double annualInterestRate) {
+        if (principal <= 0 || monthlyPayment <= 0 || annualInterestRate <= 0) {
+            throw new IllegalArgumentException("Principal, payment, and interest rate must be greater than 0.");
+        }
+        double monthlyRate = annualInterestRate / 12 / 100;
+        double interestShare = principal * monthlyRate / monthlyPayment;
+        if (interestShare >= 1) {
+            throw new IllegalArgumentException("Payment must exceed the monthly interest.");
+        }
+        double payments = -Math.log1p(-interestShare) / Math.log1p(monthlyRate);
+        double years = Math.ceil(payments / 12 - 1e-9);
+        if (years > Integer.MAX_VALUE / 12) {
+            throw new IllegalArgumentException("Payment does not repay the loan in a representable term.");
+        }
+        int term = Math.max(1, (int) years);
+        // Rounding in the logarithms can leave the payment a hair above the target.
+        if (principal * AnnuityFactorCache.computeFactor(annualInterestRate, term) > monthlyPayment) {
+            term++;
+        }
+        return term;
+    }
+
+    /**
+     * Returns the highest annual interest rate at which a loan of the given term is affordable.
+     *
+     * <p> {@link LoanAnalysisTool#isAffordable()} compares the monthly payment with a tenth of a
+     * twelfth of the principal. Both scale with the principal, so affordability depends only on
+     * the rate and the term: a loan is affordable exactly when its rate is below this break-even
+     * rate, whatever its principal. There is no maximum affordable principal to solve for; a
+     * payment budget is answered by {@link #maxPrincipal(double, double, int)} instead.
+     *
+     * @param years the duration of the loan in years; must be greater than 0
+     * @return the break-even annual interest rate in percent, or 0 if no positive rate is
+     *         affordable, which is the case for terms of 10 years or less
+     * @throws IllegalArgumentException if the years are not greater than 0
+     */
+    public static double breakEvenRate(int years) {
+        if (years <= 0) {
+            throw new IllegalArgumentException("Years must be greater than 0.");
+        }
+        if (AFFORDABLE_FACTOR * years * 12 <= 1) {
+            return 0;
+        }
+        return rateForPayment(1, AFFORDABLE_FACTOR, years);
+    }
+}
@@ -0,0 +1,71 @@
+import java.util.Random;
+
+/**
+ * Compares finding the maximum principal for a payment budget by probing LoanAnalysisTool with
+ * one direct solve.
+ *
+ * <p> The probing path adjusts the principal of a LoanAnalysisTool in a bisection over
+ * [0, 10,000,000] until it is within a cent, the way a pre-approval loop would. The solver path
+ * calls {@link LoanSolver#maxPrincipal(double, double, int)}. The benchmark also times
+ * {@link LoanSolver#rateForPayment(double, double, int)}.
+ */
+public class LoanSolverBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of applicants
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        double[] budgets = new double[count];
+        double[] rates = new double[count];
+        int[] years = new int[count];
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++) {
+            budgets[i] = 200 + random.nextInt(5000);
+            rates[i] = 1 + random.nextInt(150) / 10.0;
+            years[i] = 5 + random.nextInt(26);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            double probed = 0;
+            long probes = 0;
+            for (int i = 0; i < count; i++) {
+                LoanAnalysisTool tool = new LoanAnalysisTool(1, rates[i], years[i]);
+                double low = 0;
+                double high = 10_000_000;
+                while (high - low > 0.01) {
+                    double middle = (low + high) / 2;
+                    tool.adjustPrincipal(middle);
+                    probes++;
+                    if (tool.calculateMonthlyPayment() <= budgets[i]) {
+                        low = middle;
+                    } else {
+                        high = middle;
+                    }
+                }
+                probed += low;
+            }
+            long probeNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            double solved = 0;
+            for (int i = 0; i < count; i++) {
+                solved += LoanSolver.maxPrincipal(budgets[i], rates[i], years[i]);
+            }
+            long solveNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            double rateSum = 0;
+            for (int i = 0; i < count; i++) {
+                rateSum += LoanSolver.rateForPayment(50_000, budgets[i] + 1000, years[i]);
+            }
+            long rateNanos = System.nanoTime() - start;
+            System.out.printf("Round %d, %d applicants: probing %.0f ns (%.1f probes), maxPrincipal %.1f ns, rateForPayment %.1f ns per applicant (%.0f / %.0f / %.1f)%n",
+                    round + 1, count, (double) probeNanos / count, (double) probes / count, (double) solveNanos / count,
+                    (double) rateNanos / count, probed, solved, rateSum);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LoanSolverTest {
+
+    @Test
+    public void testMaxPrincipalGivesTargetPayment() {
+        double principal = LoanSolver.maxPrincipal(188.71, 5, 5);
+        assertEquals(10000, principal, 1);
+        LoanAnalysisTool tool = new LoanAnalysisTool(principal, 5, 5);
+        assertEquals(188.71, tool.calculateMonthlyPayment(), 1e-9);
+    }
+
+    @Test
+    public void testRateForPaymentRoundTrips() {
+        double[] rates = {0.1, 1, 4.5, 12, 35, 120};
+        int[] terms = {1, 5, 15, 30, 40};
+        for (double rate : rates) {
+            for (int years : terms) {
+                double payment = new LoanAnalysisTool(250000, rate, years).calculateMonthlyPayment();
+                assertEquals(rate, LoanSolver.rateForPayment(250000, payment, years), rate * 1e-6);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRateForPaymentWithoutPositiveRate() {
+        LoanSolver.rateForPayment(12000, 100, 10);
+    }
+
+    @Test
+    public void testYearsForPaymentIsShortestAffordableTerm() {
+        int years = LoanSolver.yearsForPayment(200000, 1500, 6);
+        assertTrue(new LoanAnalysisTool(200000, 6, years).calculateMonthlyPayment() <= 1500);
+        assertTrue(new LoanAnalysisTool(200000, 6, years - 1).calculateMonthlyPayment() > 1500);
+    }
+
+    @Test
+    public void testYearsForPaymentExactTerm() {
+        double payment = new LoanAnalysisTool(200000, 6, 20).calculateMonthlyPayment();
+        assertEquals(20, LoanSolver.yearsForPayment(200000, payment, 6));
+    }
+
+    @Test
+    public void testYearsForLargePaymentIsOneYear() {
+        assertEquals(1, LoanSolver.yearsForPayment(1000, 5000, 6));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testYearsForPaymentBelowInterest() {
+        LoanSolver.yearsForPayment(200000, 1000, 6);
+    }
+
+    @Test
+    public void testBreakEvenRateSeparatesAffordability() {
+        for (int years = 11; years <= 40; years++) {
+            double rate = LoanSolver.breakEvenRate(years);
+            assertTrue(rate > 0);
+            assertTrue(new LoanAnalysisTool(50000, rate * 0.999, years).isAffordable());
+            assertFalse(new LoanAnalysisTool(50000, rate * 1.001, years).isAffordable());
+        }
+    }
+
+    @Test
+    public void testBreakEvenRateForShortTerms() {
+        for (int years = 1; years <= 10; years++) {
+            assertEquals(0, LoanSolver.breakEvenRate(years), 0);
+        }
+        assertFalse(new LoanAnalysisTool(50000, 0.01, 10).isAffordable());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidInput() {
+        LoanSolver.maxPrincipal(0, 5, 5);
+    }
+}
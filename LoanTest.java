@@ -105,4 +105,23 @@ public class LoanTest {
         assertTrue(monthlyPayment > 0);
     }
 
+    @Test
+    public void testGetAmountAndInterestRate() {
+        Loan loan = new Loan(10000, 5, 10);
+        assertEquals(10000, loan.getAmount(), 0.001);
+        assertEquals(5, loan.getInterestRate(), 0.001);
+    }
+
+    @Test
+    public void testForEachAmortizationRow() {
+        Loan loan = new Loan(1200, 12, 1);
+        double[] lastBalance = {-1};
+        int[] rows = {0};
+        loan.forEachAmortizationRow((index, month, payment, interest, principal, balance) -> {
+            rows[0]++;
+            lastBalance[0] = balance;
+        });
+        assertEquals(12, rows[0]);
+        assertEquals(0.0, lastBalance[0], 0.0);
+    }
 }
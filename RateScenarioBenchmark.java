@@ -0,0 +1,42 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how the rate scenario simulator scales with the number of worker threads.
+ *
+ * <p> Runs the same scenarios of a randomly generated loan book on fork/join pools of 1, 2, 4, ...
+ * threads up to the number of available processors and reports scenarios per second, together
+ * with the 99% value at risk, which is the same for every pool.
+ */
+public class RateScenarioBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of scenarios and number of loans
+     */
+    public static void main(String[] args) {
+        int scenarios = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        int loanCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        List<Loan> loans = new ArrayList<>();
+        Random random = new Random(1);
+        for (int i = 0; i < loanCount; i++) {
+            loans.add(new Loan(1000 + random.nextInt(500_000), 2 + random.nextInt(80) / 10.0, 1 + random.nextInt(30)));
+        }
+        RateScenarioSimulator simulator = new RateScenarioSimulator(loans, 4, 4.5, 0.3, 1.2, 10);
+        simulator.simulate(Math.min(scenarios, 200), 1);
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            long start = System.nanoTime();
+            RateScenarioSummary summary = simulator.simulate(scenarios, 42, pool);
+            long nanos = System.nanoTime() - start;
+            pool.shutdown();
+            System.out.printf("%d threads: %d scenarios x %d loans in %.0f ms, %.0f scenarios/s, 99%% VaR %.0f%n",
+                    threads, scenarios, loanCount, nanos / 1e6, scenarios / (nanos / 1e9), summary.getValueAtRisk(0.99));
+        }
+    }
+}
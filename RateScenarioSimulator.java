@@ -0,0 +1,248 @@
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stress-tests a loan book under random interest rate paths.
+ *
+ * <p> The reference rate follows a Vasicek process, {@code dr = speed * (mean - r) dt + volatility dW},
+ * stepped monthly from its initial value. Every loan's rate moves with the reference rate, so a loan
+ * priced at the initial rate pays its own rate plus the change of the reference rate since the
+ * start, never less than {@link #MIN_LOAN_RATE}. Once a year each loan is repriced like an
+ * adjustable-rate mortgage: the outstanding balance is amortized over the remaining term at the
+ * current rate with the annuity formula of {@link Loan#calculateMonthlyPayment()}, and the balance
+ * then runs down month by month at that rate. A loan stops paying at the end of its term. The cost
+ * of a scenario is the sum of all payments over the horizon.
+ *
+ * <p> Scenarios run on a fork/join pool. Each task owns a {@link SplittableRandom} split from its
+ * parent's in a fixed order and summarizes its scenarios in its own {@link RateScenarioSummary};
+ * the summaries are merged along the same fixed task tree, so results depend only on the seed and
+ * not on the number of threads. Neither the rate paths nor the individual costs are stored.
+ */
+public class RateScenarioSimulator {
+
+    /**
+     * The lowest annual interest rate a loan is charged, in percent.
+     */
+    public static final double MIN_LOAN_RATE = 0.01;
+
+    /**
+     * Number of scenarios below which a task runs its scenarios instead of splitting.
+     */
+    static final int SCENARIOS_PER_TASK = 32;
+
+    /**
+     * The length of one step of the rate process, in years.
+     */
+    private static final double MONTH = 1.0 / 12;
+
+    /**
+     * The principal amount of each loan.
+     */
+    private final double[] amounts;
+
+    /**
+     * The annual interest rate of each loan at the start, in percent.
+     */
+    private final double[] rates;
+
+    /**
+     * The duration of each loan in years.
+     */
+    private final int[] durations;
+
+    /**
+     * The reference rate at the start, in percent.
+     */
+    private final double initialRate;
+
+    /**
+     * The long-run mean the reference rate reverts to, in percent.
+     */
+    private final double meanRate;
+
+    /**
+     * The speed of mean reversion, per year.
+     */
+    private final double reversionSpeed;
+
+    /**
+     * The annual volatility of the reference rate, in percentage points.
+     */
+    private final double volatility;
+
+    /**
+     * The number of years simulated.
+     */
+    private final int horizonYears;
+
+    /**
+     * Constructs a simulator for the given loans and rate model. The loans are read once; later
+     * changes to them do not affect the simulator.
+     *
+     * @param loans the loan book
+     * @param initialRate the reference rate at the start, in percent
+     * @param meanRate the long-run mean of the reference rate, in percent
+     * @param reversionSpeed the speed of mean reversion per year; must not be negative
+     * @param volatility the annual volatility of the reference rate in percentage points; must not be negative
+     * @param horizonYears the number of years to simulate; must be greater than 0
+     * @throws IllegalArgumentException if the loan book is null or contains null, or a model parameter is out of range
+     */
+    public RateScenarioSimulator(List<Loan> loans, double initialRate, double meanRate, double reversionSpeed,
+                                 double volatility, int horizonYears) {
+        if (loans == null || loans.contains(null)) {
+            throw new IllegalArgumentException("Loan book cannot be null or contain null loans.");
+        }
+        if (reversionSpeed < 0 || volatility < 0 || horizonYears <= 0) {
+            throw new IllegalArgumentException("Speed and volatility cannot be negative and the horizon must be greater than 0.");
+        }
+        int count = loans.size();
+        this.amounts = new double[count];
+        this.rates = new double[count];
+        this.durations = new int[count];
+        for (int i = 0; i < count; i++) {
+            Loan loan = loans.get(i);
+            amounts[i] = loan.getAmount();
+            rates[i] = loan.getInterestRate();
+            durations[i] = loan.getDuration();
+        }
+        this.initialRate = initialRate;
+        this.meanRate = meanRate;
+        this.reversionSpeed = reversionSpeed;
+        this.volatility = volatility;
+        this.horizonYears = horizonYears;
+    }
+
+    /**
+     * Runs the given number of scenarios on the common fork/join pool.
+     *
+     * @param scenarios the number of scenarios; must be greater than 0
+     * @param seed the seed the scenarios are derived from
+     * @return the distribution of the scenario costs
+     * @throws IllegalArgumentException if the number of scenarios is not greater than 0
+     */
+    public RateScenarioSummary simulate(int scenarios, long seed) {
+        return simulate(scenarios, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the given number of scenarios on the given fork/join pool. The result is the same for
+     * every pool.
+     *
+     * @param scenarios the number of scenarios; must be greater than 0
+     * @param seed the seed the scenarios are derived from
+     * @param pool the pool to run the scenarios on
+     * @return the distribution of the scenario costs
+     * @throws IllegalArgumentException if the number of scenarios is not greater than 0
+     */
+    public RateScenarioSummary simulate(int scenarios, long seed, ForkJoinPool pool) {
+        if (scenarios <= 0) {
+            throw new IllegalArgumentException("Number of scenarios must be greater than 0.");
+        }
+        ScenarioTask task = new ScenarioTask(0, scenarios, new SplittableRandom(seed));
+        pool.invoke(task);
+        return task.summary;
+    }
+
+    /**
+     * Simulates one rate path and returns the total payments of the loan book along it.
+     *
+     * @param random the random number generator of the scenario
+     * @param balances scratch space for the outstanding balance of each loan
+     * @return the cost of the scenario
+     */
+    private double runScenario(SplittableRandom random, double[] balances) {
+        System.arraycopy(amounts, 0, balances, 0, amounts.length);
+        double stepVolatility = volatility * Math.sqrt(MONTH);
+        double reference = initialRate;
+        double cost = 0;
+        for (int year = 0; year < horizonYears; year++) {
+            double shift = reference - initialRate;
+            double yearCost = 0;
+            for (int i = 0; i < amounts.length; i++) {
+                if (durations[i] > year) {
+                    double rate = Math.max(rates[i] + shift, MIN_LOAN_RATE);
+                    double payment = balances[i] * AnnuityFactorCache.computeFactor(rate, durations[i] - year);
+                    double growth = 1 + rate / 12 / 100;
+                    double balance = balances[i];
+                    for (int month = 0; month < 12; month++) {
+                        balance = balance * growth - payment;
+                    }
+                    balances[i] = balance;
+                    yearCost += payment;
+                }
+            }
+            cost += yearCost * 12;
+            for (int month = 0; month < 12; month++) {
+                reference += reversionSpeed * (meanRate - reference) * MONTH + stepVolatility * random.nextGaussian();
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Fork/join task running a range of scenarios, splitting it in halves while it is large.
+     */
+    private final class ScenarioTask extends RecursiveAction {
+
+        /**
+         * Serialization version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The first scenario of the range.
+         */
+        private final int from;
+
+        /**
+         * The end of the range, exclusive.
+         */
+        private final int to;
+
+        /**
+         * The random number generator of the range.
+         */
+        private final SplittableRandom random;
+
+        /**
+         * The summary of the costs of the range, set when the task completes.
+         */
+        private RateScenarioSummary summary;
+
+        /**
+         * Constructs a task for the scenarios in the range [from, to).
+         *
+         * @param from the first scenario of the range
+         * @param to the end of the range, exclusive
+         * @param random the random number generator of the range
+         */
+        ScenarioTask(int from, int to, SplittableRandom random) {
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        /**
+         * Runs the scenarios of the range, or splits it and merges the summaries of the halves.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= SCENARIOS_PER_TASK) {
+                summary = new RateScenarioSummary();
+                double[] balances = new double[amounts.length];
+                for (int scenario = from; scenario < to; scenario++) {
+                    summary.add(runScenario(random, balances));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            ScenarioTask left = new ScenarioTask(from, middle, random.split());
+            ScenarioTask right = new ScenarioTask(middle, to, random);
+            invokeAll(left, right);
+            left.summary.merge(right.summary);
+            summary = left.summary;
+        }
+    }
+}
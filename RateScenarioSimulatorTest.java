@@ -0,0 +1,120 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class RateScenarioSimulatorTest {
+
+    private static List<Loan> book() {
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            loans.add(new Loan(10000 + 1000 * i, 3 + i % 7, 1 + i % 30));
+        }
+        return loans;
+    }
+
+    @Test
+    public void testWithoutVolatilityCostIsScheduledPayments() {
+        List<Loan> loans = book();
+        RateScenarioSimulator simulator = new RateScenarioSimulator(loans, 4, 4, 0.5, 0, 10);
+        RateScenarioSummary summary = simulator.simulate(10, 1);
+        double expected = 0;
+        for (Loan loan : loans) {
+            expected += loan.calculateMonthlyPayment() * 12 * Math.min(loan.getDuration(), 10);
+        }
+        assertEquals(expected, summary.getMean(), expected * 1e-12);
+        assertEquals(summary.getMin(), summary.getMax(), expected * 1e-12);
+    }
+
+    @Test
+    public void testRateChangesRepriceOutstandingBalanceOverRemainingTerm() {
+        Loan loan = new Loan(100000, 5, 3);
+        RateScenarioSimulator simulator = new RateScenarioSimulator(Arrays.asList(loan), 4, 8, 0.5, 0, 10);
+        double reference = 4;
+        double balance = 100000;
+        double expected = 0;
+        for (int year = 0; year < 3; year++) {
+            double rate = 5 + reference - 4;
+            double payment = balance * AnnuityFactorCache.computeFactor(rate, 3 - year);
+            for (int month = 0; month < 12; month++) {
+                balance = balance * (1 + rate / 1200) - payment;
+            }
+            expected += payment * 12;
+            for (int month = 0; month < 12; month++) {
+                reference += 0.5 * (8 - reference) / 12;
+            }
+        }
+        assertEquals(0, balance, 1e-6);
+        assertEquals(expected, simulator.simulate(1, 1).getMean(), expected * 1e-12);
+        assertTrue(expected > loan.calculateMonthlyPayment() * 36);
+    }
+
+    @Test
+    public void testSameSeedGivesSameResult() {
+        RateScenarioSimulator simulator = new RateScenarioSimulator(book(), 4, 5, 0.3, 1.5, 10);
+        RateScenarioSummary first = simulator.simulate(500, 42);
+        RateScenarioSummary second = simulator.simulate(500, 42);
+        assertEquals(first.getMean(), second.getMean(), 0);
+        assertEquals(first.getQuantile(0.99), second.getQuantile(0.99), 0);
+        RateScenarioSummary other = simulator.simulate(500, 43);
+        assertNotEquals(first.getMean(), other.getMean(), 0);
+    }
+
+    @Test
+    public void testResultDoesNotDependOnParallelism() {
+        RateScenarioSimulator simulator = new RateScenarioSimulator(book(), 4, 5, 0.3, 1.5, 5);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            RateScenarioSummary one = simulator.simulate(300, 7, single);
+            RateScenarioSummary four = simulator.simulate(300, 7, several);
+            for (double q : new double[] {0, 0.1, 0.5, 0.9, 0.99, 1}) {
+                assertEquals(one.getQuantile(q), four.getQuantile(q), 0);
+            }
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    public void testHigherVolatilityWidensTail() {
+        RateScenarioSummary calm = new RateScenarioSimulator(book(), 4, 4, 0.2, 0.5, 10).simulate(1000, 5);
+        RateScenarioSummary wild = new RateScenarioSimulator(book(), 4, 4, 0.2, 3, 10).simulate(1000, 5);
+        assertTrue(wild.getValueAtRisk(0.99) > calm.getValueAtRisk(0.99));
+        assertTrue(wild.getStandardDeviation() > calm.getStandardDeviation());
+    }
+
+    @Test
+    public void testRisingRatesRaiseCost() {
+        RateScenarioSummary flat = new RateScenarioSimulator(book(), 4, 4, 0.5, 0, 10).simulate(1, 1);
+        RateScenarioSummary rising = new RateScenarioSimulator(book(), 4, 8, 0.5, 0, 10).simulate(1, 1);
+        assertTrue(rising.getMean() > flat.getMean());
+    }
+
+    @Test
+    public void testLoansAreCopied() {
+        List<Loan> loans = book();
+        RateScenarioSimulator simulator = new RateScenarioSimulator(loans, 4, 4, 0.5, 0, 10);
+        double before = simulator.simulate(1, 1).getMean();
+        loans.get(0).adjustAmount(1_000_000);
+        assertEquals(before, simulator.simulate(1, 1).getMean(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullLoan() {
+        new RateScenarioSimulator(Arrays.asList(new Loan(1000, 5, 5), null), 4, 4, 0.5, 1, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeVolatility() {
+        new RateScenarioSimulator(book(), 4, 4, 0.5, -1, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoScenarios() {
+        new RateScenarioSimulator(book(), 4, 4, 0.5, 1, 10).simulate(0, 1);
+    }
+}
@@ -0,0 +1,323 @@
+/**
+ * The distribution of scenario costs produced by a {@link RateScenarioSimulator}.
+ *
+ * <p> The summary is built in one pass and does not keep the individual costs, so its size does
+ * not grow with the number of scenarios. Count, mean, standard deviation, minimum and maximum
+ * are exact. Quantiles and tail measures come from a histogram with logarithmically sized
+ * buckets: a cost x falls into bucket {@code ceil(log(x) / log(gamma))} with
+ * {@code gamma = (1 + a) / (1 - a)} for the relative accuracy a = {@value #RELATIVE_ACCURACY},
+ * so every quantile is within that fraction of the exact nearest-rank value. Summaries of
+ * disjoint sets of scenarios can be merged.
+ */
+public class RateScenarioSummary {
+
+    /**
+     * The relative accuracy of quantiles and tail measures.
+     */
+    public static final double RELATIVE_ACCURACY = 0.001;
+
+    /**
+     * The ratio between the upper bounds of neighbouring buckets.
+     */
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+
+    /**
+     * The natural logarithm of {@link #GAMMA}.
+     */
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    /**
+     * The number of costs in each bucket; element i counts bucket {@code offset + i}.
+     */
+    private long[] counts = new long[0];
+
+    /**
+     * The bucket index of the first element of {@link #counts}.
+     */
+    private int offset;
+
+    /**
+     * The number of costs equal to zero.
+     */
+    private long zeroCount;
+
+    /**
+     * The number of costs.
+     */
+    private int count;
+
+    /**
+     * The mean cost.
+     */
+    private double mean;
+
+    /**
+     * The sum of the squared deviations of the costs from the mean.
+     */
+    private double squaredDeviations;
+
+    /**
+     * The lowest cost.
+     */
+    private double min = Double.POSITIVE_INFINITY;
+
+    /**
+     * The highest cost.
+     */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Constructs an empty summary.
+     */
+    RateScenarioSummary() {
+    }
+
+    /**
+     * Constructs a summary of the given costs.
+     *
+     * @param costs the cost of each scenario; must not be empty
+     * @throws IllegalArgumentException if there are no costs or a cost is negative or not finite
+     */
+    RateScenarioSummary(double[] costs) {
+        if (costs.length == 0) {
+            throw new IllegalArgumentException("At least one scenario is required.");
+        }
+        for (double cost : costs) {
+            add(cost);
+        }
+    }
+
+    /**
+     * Adds the cost of one scenario.
+     *
+     * @param cost the cost of the scenario
+     * @throws IllegalArgumentException if the cost is negative or not finite
+     */
+    void add(double cost) {
+        if (!(cost >= 0) || cost == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("Scenario costs must be finite and not negative.");
+        }
+        count++;
+        double delta = cost - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (cost - mean);
+        min = Math.min(min, cost);
+        max = Math.max(max, cost);
+        if (cost == 0) {
+            zeroCount++;
+        } else {
+            int bucket = bucketOf(cost);
+            ensureBucket(bucket);
+            counts[bucket - offset]++;
+        }
+    }
+
+    /**
+     * Adds all costs of another summary to this one.
+     *
+     * @param other the summary of a disjoint set of scenarios
+     */
+    void merge(RateScenarioSummary other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            mean = other.mean;
+            squaredDeviations = other.squaredDeviations;
+        } else {
+            int total = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / total;
+            squaredDeviations += other.squaredDeviations + delta * delta * count * other.count / total;
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        zeroCount += other.zeroCount;
+        if (other.counts.length > 0) {
+            ensureBucket(other.offset);
+            ensureBucket(other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the number of scenarios.
+     *
+     * @return the number of scenarios
+     */
+    public int getScenarioCount() {
+        return count;
+    }
+
+    /**
+     * Returns the mean cost over all scenarios.
+     *
+     * @return the expected cost
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Returns the standard deviation of the scenario costs.
+     *
+     * @return the standard deviation
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(Math.max(0, squaredDeviations) / count);
+    }
+
+    /**
+     * Returns the lowest scenario cost.
+     *
+     * @return the minimum cost
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Returns the highest scenario cost.
+     *
+     * @return the maximum cost
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the cost that the given fraction of scenarios does not exceed (nearest rank),
+     * within {@link #RELATIVE_ACCURACY}. The quantiles 0 and 1 are the exact minimum and maximum.
+     *
+     * @param quantile the fraction of scenarios, from 0 to 1
+     * @return the quantile of the costs
+     * @throws IllegalArgumentException if the quantile is not between 0 and 1
+     */
+    public double getQuantile(double quantile) {
+        long rank = rank(quantile);
+        if (rank == 0) {
+            return min;
+        }
+        if (rank == count - 1) {
+            return max;
+        }
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                return valueOf(offset + i);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns how much the cost at the given confidence level exceeds the mean cost.
+     *
+     * @param confidence the confidence level, for example 0.99
+     * @return the value at risk
+     * @throws IllegalArgumentException if the confidence is not between 0 and 1
+     */
+    public double getValueAtRisk(double confidence) {
+        return getQuantile(confidence) - mean;
+    }
+
+    /**
+     * Returns the mean cost of the scenarios at or beyond the given confidence level, within
+     * {@link #RELATIVE_ACCURACY}.
+     *
+     * @param confidence the confidence level, for example 0.99
+     * @return the expected shortfall
+     * @throws IllegalArgumentException if the confidence is not between 0 and 1
+     */
+    public double getExpectedShortfall(double confidence) {
+        long from = rank(confidence);
+        CompensatedSum tail = new CompensatedSum();
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            long start = seen;
+            seen += counts[i];
+            if (seen > from) {
+                tail.add((seen - Math.max(start, from)) * valueOf(offset + i));
+            }
+        }
+        return tail.getSum() / (count - from);
+    }
+
+    /**
+     * Returns the number of histogram buckets currently allocated.
+     *
+     * @return the number of buckets
+     */
+    int getBucketCount() {
+        return counts.length;
+    }
+
+    /**
+     * Returns the index of the nearest-rank quantile among the sorted costs.
+     *
+     * @param quantile the fraction of scenarios, from 0 to 1
+     * @return the index
+     * @throws IllegalArgumentException if the quantile is not between 0 and 1
+     */
+    private long rank(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+        }
+        return Math.max(0, (long) Math.ceil(quantile * count) - 1);
+    }
+
+    /**
+     * Returns the bucket of a positive cost.
+     *
+     * @param cost the cost
+     * @return the bucket index
+     */
+    private static int bucketOf(double cost) {
+        return (int) Math.ceil(Math.log(cost) / LOG_GAMMA);
+    }
+
+    /**
+     * Returns the value that represents a bucket, limited to the range of the costs.
+     *
+     * @param bucket the bucket index
+     * @return the representative cost of the bucket
+     */
+    private double valueOf(int bucket) {
+        double value = 2 * Math.pow(GAMMA, bucket) / (GAMMA + 1);
+        return Math.min(Math.max(value, min), max);
+    }
+
+    /**
+     * Grows the bucket array so that it covers the given bucket.
+     *
+     * @param bucket the bucket index to cover
+     */
+    private void ensureBucket(int bucket) {
+        if (counts.length == 0) {
+            counts = new long[16];
+            offset = bucket - 8;
+            return;
+        }
+        int end = offset + counts.length;
+        if (bucket >= offset && bucket < end) {
+            return;
+        }
+        int newOffset = Math.min(offset, bucket);
+        int newEnd = Math.max(end, bucket + 1);
+        int length = Math.max(newEnd - newOffset, counts.length * 2);
+        if (bucket < offset) {
+            newOffset = newEnd - length;
+        }
+        long[] grown = new long[length];
+        System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+        counts = grown;
+        offset = newOffset;
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class RateScenarioSummaryTest {
+
+    private static RateScenarioSummary oneToHundred() {
+        double[] costs = new double[100];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = 100 - i;
+        }
+        return new RateScenarioSummary(costs);
+    }
+
+    @Test
+    public void testMoments() {
+        RateScenarioSummary summary = oneToHundred();
+        assertEquals(100, summary.getScenarioCount());
+        assertEquals(50.5, summary.getMean(), 1e-12);
+        assertEquals(Math.sqrt((100.0 * 100 - 1) / 12), summary.getStandardDeviation(), 1e-9);
+        assertEquals(1, summary.getMin(), 0);
+        assertEquals(100, summary.getMax(), 0);
+    }
+
+    @Test
+    public void testQuantiles() {
+        RateScenarioSummary summary = oneToHundred();
+        double accuracy = RateScenarioSummary.RELATIVE_ACCURACY;
+        assertEquals(1, summary.getQuantile(0), 0);
+        assertEquals(50, summary.getQuantile(0.5), 50 * accuracy);
+        assertEquals(95, summary.getQuantile(0.95), 95 * accuracy);
+        assertEquals(100, summary.getQuantile(1), 0);
+    }
+
+    @Test
+    public void testTailMeasures() {
+        RateScenarioSummary summary = oneToHundred();
+        double accuracy = RateScenarioSummary.RELATIVE_ACCURACY;
+        assertEquals(99 - 50.5, summary.getValueAtRisk(0.99), 99 * accuracy);
+        assertEquals(97.5, summary.getExpectedShortfall(0.95), 97.5 * accuracy);
+        assertEquals(100, summary.getExpectedShortfall(1), 100 * accuracy);
+    }
+
+    @Test
+    public void testSingleScenario() {
+        RateScenarioSummary summary = new RateScenarioSummary(new double[] {7});
+        assertEquals(7, summary.getQuantile(0.99), 0);
+        assertEquals(0, summary.getValueAtRisk(0.99), 0);
+        assertEquals(0, summary.getStandardDeviation(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQuantile() {
+        oneToHundred().getQuantile(1.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoCosts() {
+        new RateScenarioSummary(new double[0]);
+    }
+
+    @Test
+    public void testSizeDoesNotGrowWithScenarioCount() {
+        RateScenarioSummary summary = new RateScenarioSummary();
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 1_000_000; i++) {
+            summary.add(1_000_000 + 100_000 * random.nextGaussian());
+        }
+        assertEquals(1_000_000, summary.getScenarioCount());
+        assertTrue(summary.getBucketCount() < 2048);
+        assertEquals(1_000_000, summary.getMean(), 500);
+        assertEquals(100_000, summary.getStandardDeviation(), 500);
+        assertEquals(1_000_000 + 1.6449 * 100_000, summary.getQuantile(0.95), 2000);
+    }
+
+    @Test
+    public void testMergeMatchesAddingAllCosts() {
+        double[] costs = new double[1000];
+        SplittableRandom random = new SplittableRandom(9);
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = random.nextDouble(10, 1e6);
+        }
+        RateScenarioSummary all = new RateScenarioSummary(costs);
+        RateScenarioSummary merged = new RateScenarioSummary();
+        RateScenarioSummary low = new RateScenarioSummary(Arrays.copyOfRange(costs, 0, 300));
+        RateScenarioSummary high = new RateScenarioSummary(Arrays.copyOfRange(costs, 300, 1000));
+        merged.merge(low);
+        merged.merge(high);
+        assertEquals(all.getScenarioCount(), merged.getScenarioCount());
+        assertEquals(all.getMean(), merged.getMean(), 1e-6);
+        assertEquals(all.getStandardDeviation(), merged.getStandardDeviation(), 1e-6);
+        assertEquals(all.getMin(), merged.getMin(), 0);
+        assertEquals(all.getMax(), merged.getMax(), 0);
+        for (double q : new double[] {0.01, 0.25, 0.5, 0.9, 0.99}) {
+            assertEquals(all.getQuantile(q), merged.getQuantile(q), 0);
+        }
+    }
+
+    @Test
+    public void testQuantilesWithinRelativeAccuracy() {
+        double[] costs = new double[5000];
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = Math.exp(random.nextDouble(0, 20));
+        }
+        RateScenarioSummary summary = new RateScenarioSummary(costs.clone());
+        Arrays.sort(costs);
+        for (double q : new double[] {0.1, 0.5, 0.75, 0.95, 0.999}) {
+            double exact = costs[Math.max(0, (int) Math.ceil(q * costs.length) - 1)];
+            assertEquals(exact, summary.getQuantile(q), exact * RateScenarioSummary.RELATIVE_ACCURACY);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCost() {
+        new RateScenarioSummary(new double[] {1, -1});
+    }
+}
@@ -0,0 +1,320 @@
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents a banking system that can be used from several threads at once.
+ *
+ * <p> Accounts are spread over a fixed number of independent shards, routed by the hash of
+ * the account number. Each shard has its own map and its own lock: creating and closing
+ * accounts lock only the shard that owns the account number, while lookups such as
+ * {@link #hasAccount(String)} and {@link #getAccountBalance(String)} read the shard map
+ * without locking. Accounts are {@link ConcurrentAccount} instances, so deposits are
+ * applied atomically without any shard lock.
+ */
+public class ShardedBank extends Bank {
+
+    /**
+     * The shards holding the accounts; the length is always a power of two.
+     */
+    private final Shard[] shards;
+
+    /**
+     * Initializes a new bank instance with no accounts and four shards per available processor.
+     */
+    public ShardedBank() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Initializes a new bank instance with no accounts and at least the given number of shards.
+     *
+     * @param shardCount the minimum number of shards; rounded up to a power of two
+     * @throws IllegalArgumentException if the shard count is not positive
+     */
+    public ShardedBank(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive.");
+        }
+        int size = Integer.highestOneBit(shardCount);
+        if (size < shardCount) {
+            size <<= 1;
+        }
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Creates a new account with the specified account number and initial deposit.
+     *
+     * <p> The duplicate check and the insertion happen atomically under the shard lock.
+     *
+     * @param accountNumber  The unique identifier for the new account.
+     * @param initialDeposit The initial amount to deposit into the account.
+     * @throws IllegalArgumentException If an account with the specified account number already exists.
+     */
+    @Override
+    public void createAccount(String accountNumber, double initialDeposit) throws IllegalArgumentException {
+        Shard shard = shardFor(accountNumber);
+        synchronized (shard) {
+            if (shard.accounts.containsKey(accountNumber)) {
+                throw new IllegalArgumentException("Account already exists.");
+            }
+            shard.accounts.put(accountNumber, new ConcurrentAccount(accountNumber, initialDeposit));
+        }
+    }
+
+    /**
+     * Closes an account identified by the specified account number.
+     *
+     * @param accountNumber The account number of the account to be closed.
+     * @throws IllegalArgumentException If no account with the specified account number exists.
+     */
+    @Override
+    public void closeAccount(String accountNumber) throws IllegalArgumentException {
+        Shard shard = shardFor(accountNumber);
+        synchronized (shard) {
+            if (shard.accounts.remove(accountNumber) == null) {
+                throw new IllegalArgumentException("Account not found.");
+            }
+        }
+    }
+
+    /**
+     * Deposits a specified amount into an account identified by the account number.
+     *
+     * @param accountNumber The account number of the account to deposit into.
+     * @param amount The amount to deposit.
+     * @throws IllegalArgumentException If the specified account does not exist or the deposit amount is not positive.
+     */
+    @Override
+    public void depositToAccount(String accountNumber, double amount) {
+        Account account = shardFor(accountNumber).accounts.get(accountNumber);
+        if (account == null) {
+            throw new IllegalArgumentException("Account not found.");
+        }
+        account.deposit(amount);
+    }
+
+    /**
+     * Returns the total number of accounts in the bank.
+     *
+     * <p> The count is summed over all shards without locking, so it may not reflect
+     * accounts that are being created or closed at the same time.
+     *
+     * @return The total number of accounts.
+     */
+    @Override
+    public int getNumAccounts() {
+        int count = 0;
+        for (Shard shard : shards) {
+            count += shard.accounts.size();
+        }
+        return count;
+    }
+
+    /**
+     * Prints the details of an account identified by the specified account number.
+     *
+     * @param accountNumber The account number of the account whose details are to be printed.
+     * @throws IllegalArgumentException If no account with the specified account number exists.
+     */
+    @Override
+    public void printAccountDetails(String accountNumber) throws IllegalArgumentException {
+        if (!hasAccount(accountNumber)) {
+            throw new IllegalArgumentException("Account not found.");
+        }
+    }
+
+    /**
+     * Checks whether an account exists in the bank for the specified account number.
+     *
+     * @param accountNumber The account number to check.
+     * @return true if the account exists, false otherwise.
+     */
+    @Override
+    public boolean hasAccount(String accountNumber) {
+        return shardFor(accountNumber).accounts.containsKey(accountNumber);
+    }
+
+    /**
+     * Retrieves the balance for the account identified by the specified account number.
+     *
+     * @param accountNumber The account number of the account whose balance is to be retrieved.
+     * @return The balance of the account.
+     * @throws IllegalArgumentException If no account with the specified account number exists.
+     */
+    @Override
+    public double getAccountBalance(String accountNumber) {
+        Account account = shardFor(accountNumber).accounts.get(accountNumber);
+        if (account == null) {
+            throw new IllegalArgumentException("Account not found.");
+        }
+        return account.getBalance();
+    }
+
+    /**
+     * Creates one account for each item of the batch.
+     *
+     * <p> The items are grouped by shard and each shard is locked once for all of its items.
+     * Items of the same shard, and so all items with the same account number, are applied in
+     * batch order.
+     *
+     * @param accountNumbers the account numbers of the new accounts
+     * @param initialDeposits the initial deposit of each new account
+     * @return a BitSet with the bit of each failed item set
+     * @throws IllegalArgumentException if an array is null or the arrays differ in length
+     */
+    @Override
+    public BitSet createAccounts(String[] accountNumbers, double[] initialDeposits) {
+        checkBatch(accountNumbers, initialDeposits);
+        int count = accountNumbers.length;
+        BitSet failed = new BitSet(count);
+        int[] shardOf = new int[count];
+        int[] starts = new int[shards.length + 1];
+        for (int i = 0; i < count; i++) {
+            if (accountNumbers[i] == null) {
+                failed.set(i);
+                shardOf[i] = -1;
+            } else {
+                shardOf[i] = shardIndex(accountNumbers[i]);
+                starts[shardOf[i] + 1]++;
+            }
+        }
+        for (int s = 0; s < shards.length; s++) {
+            starts[s + 1] += starts[s];
+        }
+        int[] order = new int[starts[shards.length]];
+        int[] next = starts.clone();
+        for (int i = 0; i < count; i++) {
+            if (shardOf[i] >= 0) {
+                order[next[shardOf[i]]++] = i;
+            }
+        }
+        for (int s = 0; s < shards.length; s++) {
+            if (starts[s] == starts[s + 1]) {
+                continue;
+            }
+            Shard shard = shards[s];
+            synchronized (shard) {
+                for (int k = starts[s]; k < starts[s + 1]; k++) {
+                    int i = order[k];
+                    if (shard.accounts.containsKey(accountNumbers[i])) {
+                        failed.set(i);
+                    } else {
+                        shard.accounts.put(accountNumbers[i],
+                                new ConcurrentAccount(accountNumbers[i], initialDeposits[i]));
+                    }
+                }
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Deposits an amount into the account of each item of the batch.
+     *
+     * <p> Takes no shard lock; each deposit is applied atomically to its account. An item fails
+     * if its account does not exist or its amount is not finite or rounds to less than one cent;
+     * failed items change nothing and no item throws.
+     *
+     * @param accountNumbers the account numbers of the accounts to deposit into
+     * @param amounts the amount to deposit for each item
+     * @return a BitSet with the bit of each failed item set
+     * @throws IllegalArgumentException if an array is null or the arrays differ in length
+     */
+    @Override
+    public BitSet depositToAccounts(String[] accountNumbers, double[] amounts) {
+        checkBatch(accountNumbers, amounts);
+        BitSet failed = new BitSet(accountNumbers.length);
+        for (int i = 0; i < accountNumbers.length; i++) {
+            Account account = findAccount(accountNumbers[i]);
+            if (account == null || !Double.isFinite(amounts[i]) || ConcurrentAccount.toCents(amounts[i]) <= 0) {
+                failed.set(i);
+            } else {
+                account.deposit(amounts[i]);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Reads the balance of the account of each item of the batch without locking.
+     *
+     * @param accountNumbers the account numbers of the accounts to read
+     * @param balances receives the balance of each item, or NaN for a failed item
+     * @return a BitSet with the bit of each failed item set
+     * @throws IllegalArgumentException if an array is null or the arrays differ in length
+     */
+    @Override
+    public BitSet getAccountBalances(String[] accountNumbers, double[] balances) {
+        checkBatch(accountNumbers, balances);
+        BitSet failed = new BitSet(accountNumbers.length);
+        for (int i = 0; i < accountNumbers.length; i++) {
+            Account account = findAccount(accountNumbers[i]);
+            if (account == null) {
+                balances[i] = Double.NaN;
+                failed.set(i);
+            } else {
+                balances[i] = account.getBalance();
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Routes an account number to the shard that owns it.
+     *
+     * @param accountNumber the account number
+     * @return the shard owning the account number
+     * @throws IllegalArgumentException if the account number is null
+     */
+    private Shard shardFor(String accountNumber) {
+        if (accountNumber == null) {
+            throw new IllegalArgumentException("Account number cannot be null.");
+        }
+        return shards[shardIndex(accountNumber)];
+    }
+
+    /**
+     * Returns the index of the shard that owns a non-null account number.
+     *
+     * @param accountNumber the account number
+     * @return the index of the owning shard
+     */
+    private int shardIndex(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return (hash ^ (hash >>> 16)) & (shards.length - 1);
+    }
+
+    /**
+     * Looks up an account for a batch item without throwing.
+     *
+     * @param accountNumber the account number, possibly null
+     * @return the account, or null if the number is null or no such account exists
+     */
+    private Account findAccount(String accountNumber) {
+        return accountNumber == null ? null : shards[shardIndex(accountNumber)].accounts.get(accountNumber);
+    }
+
+    /**
+     * One partition of the accounts. Writers lock the shard itself; readers use the map directly.
+     */
+    private static final class Shard {
+
+        /**
+         * The accounts owned by this shard.
+         */
+        private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+    }
+}
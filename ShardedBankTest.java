@@ -0,0 +1,156 @@
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ShardedBankTest {
+
+    private ShardedBank bank;
+
+    @Before
+    public void setUp() {
+        bank = new ShardedBank(8);
+    }
+
+    @Test
+    public void testCreateAccountSuccess() {
+        bank.createAccount("123", 500.0);
+        assertTrue(bank.hasAccount("123"));
+        assertEquals(500.0, bank.getAccountBalance("123"), 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateAccountDuplicate() {
+        bank.createAccount("123", 500.0);
+        bank.createAccount("123", 600.0);
+    }
+
+    @Test
+    public void testCloseAccountSuccess() {
+        bank.createAccount("125", 500.0);
+        bank.closeAccount("125");
+        assertFalse(bank.hasAccount("125"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCloseAccountNonExistent() {
+        bank.closeAccount("999");
+    }
+
+    @Test
+    public void testDepositToAccount() {
+        bank.createAccount("126", 100.0);
+        bank.depositToAccount("126", 50.0);
+        assertEquals(150.0, bank.getAccountBalance("126"), 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDepositToMissingAccount() {
+        bank.depositToAccount("999", 50.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetBalanceOfMissingAccount() {
+        bank.getAccountBalance("999");
+    }
+
+    @Test
+    public void testGetNumAccountsAcrossShards() {
+        for (int i = 0; i < 100; i++) {
+            bank.createAccount("ACC" + i, 10.0);
+        }
+        assertEquals(100, bank.getNumAccounts());
+    }
+
+    @Test
+    public void testShardCountRoundedToPowerOfTwo() {
+        assertEquals(16, new ShardedBank(10).getShardCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullAccountNumberRejected() {
+        bank.hasAccount(null);
+    }
+
+    @Test
+    public void testConcurrentCreateAllowsOnlyOneWinner() throws InterruptedException {
+        AtomicInteger created = new AtomicInteger();
+        Thread[] threads = new Thread[16];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    bank.createAccount("SAME", 100.0);
+                    created.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    // Every thread but one sees the duplicate.
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1, created.get());
+        assertEquals(1, bank.getNumAccounts());
+    }
+
+    @Test
+    public void testConcurrentDepositsAreNotLost() throws InterruptedException {
+        bank.createAccount("HOT", 0.0);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    bank.depositToAccount("HOT", 1.0);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000.0, bank.getAccountBalance("HOT"), 0.001);
+    }
+
+    @Test
+    public void testCreateAccountsAcrossShardsKeepsBatchOrder() {
+        int count = 500;
+        String[] numbers = new String[count + 2];
+        double[] deposits = new double[count + 2];
+        for (int i = 0; i < count; i++) {
+            numbers[i] = "ACC" + i;
+            deposits[i] = i;
+        }
+        numbers[count] = "ACC7";
+        numbers[count + 1] = null;
+        BitSet failed = bank.createAccounts(numbers, deposits);
+        assertEquals("{" + count + ", " + (count + 1) + "}", failed.toString());
+        assertEquals(count, bank.getNumAccounts());
+        assertEquals(7.0, bank.getAccountBalance("ACC7"), 0.001);
+    }
+
+    @Test
+    public void testBatchDepositsAndBalanceReads() {
+        bank.createAccount("A", 10.0);
+        bank.createAccount("B", 20.0);
+        BitSet failed = bank.depositToAccounts(new String[] {"A", "MISSING", "B", null},
+                new double[] {5.0, 5.0, 0.0, 1.0});
+        assertEquals("{1, 2, 3}", failed.toString());
+        double[] balances = new double[3];
+        failed = bank.getAccountBalances(new String[] {"A", "B", "MISSING"}, balances);
+        assertEquals("{2}", failed.toString());
+        assertEquals(15.0, balances[0], 0.001);
+        assertEquals(20.0, balances[1], 0.001);
+        assertTrue(Double.isNaN(balances[2]));
+    }
+
+    @Test
+    public void testBatchDepositReportsSubCentAndNonFiniteAmounts() {
+        bank.createAccount("A", 10.0);
+        BitSet failed = bank.depositToAccounts(new String[] {"A", "A", "A", "A", "A"},
+                new double[] {0.001, 5.0, Double.NaN, Double.POSITIVE_INFINITY, 0.004});
+        assertEquals("{0, 2, 3, 4}", failed.toString());
+        assertEquals(15.0, bank.getAccountBalance("A"), 0.0);
+    }
+}
@@ -19,9 +19,17 @@ public class Transaction {
      */
     private String type;
 
+    /**
+     * The parsed type of the transaction, or null if the type string is not a known type.
+     */
+    private TransactionType kind;
+
     /**
      * Constructs a new Transaction with the specified ID, amount, and type.
      *
+     * <p> The type string is parsed once here; an unknown type is kept as given and makes the
+     * transaction invalid.
+     *
      * @param transactionId the unique identifier for the transaction
      * @param amount the financial amount of the transaction
      * @param type the type of the transaction (e.g., "Deposit" or "Withdrawal")
@@ -34,6 +42,28 @@ public class Transaction {
         this.transactionId = transactionId;
         this.amount = amount;
         this.type = type;
+        this.kind = TransactionType.parse(type);
+    }
+
+    /**
+     * Constructs a new Transaction with the specified ID, amount, and transaction type.
+     *
+     * @param transactionId the unique identifier for the transaction
+     * @param amount the financial amount of the transaction
+     * @param kind the type of the transaction
+     * @throws IllegalArgumentException if the amount is less than or equal to 0 or the type is null
+     */
+    public Transaction(String transactionId, double amount, TransactionType kind) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Transaction amount must be greater than 0.");
+        }
+        if (kind == null) {
+            throw new IllegalArgumentException("Transaction type cannot be null.");
+        }
+        this.transactionId = transactionId;
+        this.amount = amount;
+        this.type = kind.getDisplayName();
+        this.kind = kind;
     }
 
     /**
@@ -63,13 +93,34 @@ public class Transaction {
         return type;
     }
 
+    /**
+     * Returns the parsed transaction type.
+     *
+     * @return the transaction type, or null if the type string is not a known type
+     */
+    public TransactionType getKind() {
+        return kind;
+    }
+
     /**
      * Returns a string representation of the transaction details, including transaction ID, type, and amount.
      *
      * @return a detailed string of the transaction
      */
     public String getDetails() {
-        return "Transaction ID: " + transactionId + ", Transaction Type: " + type + ", Amount: " + amount;
+        return appendDetails(new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the details of the transaction, as returned by {@link #getDetails()}, to a buffer.
+     *
+     * @param details the buffer to append to
+     * @return the buffer
+     */
+    public StringBuilder appendDetails(StringBuilder details) {
+        return details.append("Transaction ID: ").append(transactionId)
+                .append(", Transaction Type: ").append(type)
+                .append(", Amount: ").append(amount);
     }
 
     /**
@@ -78,7 +129,7 @@ public class Transaction {
      * @return true if the transaction type is "Deposit", false otherwise
      */
     public boolean isDeposit() {
-        return "Deposit".equalsIgnoreCase(type);
+        return kind == TransactionType.DEPOSIT;
     }
 
     /**
@@ -87,7 +138,7 @@ public class Transaction {
      * @return true if the transaction type is "Withdrawal", false otherwise
      */
     public boolean isWithdrawal() {
-        return "Withdrawal".equalsIgnoreCase(type);
+        return kind == TransactionType.WITHDRAWAL;
     }
 
     /**
@@ -96,7 +147,7 @@ public class Transaction {
      * @return true if the transaction type is either "Deposit" or "Withdrawal", false otherwise
      */
     public boolean isValidType() {
-        return "Deposit".equalsIgnoreCase(type) || "Withdrawal".equalsIgnoreCase(type);
+        return kind != null;
     }
 
     /**
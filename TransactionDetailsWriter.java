@@ -0,0 +1,167 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams transaction detail lines to an Appendable, a Writer or a byte channel in constant memory.
+ *
+ * <p> Rows are formatted into one reusable buffer and written out in blocks of a few kilobytes,
+ * so exporting a log never builds the whole report and allocates no String per row. Lines are
+ * separated by a newline, with no newline after the last one, which matches
+ * {@link TransactionLog#getTransactionDetails()}. Byte channels receive UTF-8.
+ */
+public class TransactionDetailsWriter {
+
+    /**
+     * The number of buffered characters after which the buffer is written out.
+     */
+    private static final int FLUSH_THRESHOLD = 8192;
+
+    /**
+     * The buffer the rows are formatted into.
+     */
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 256);
+
+    /**
+     * Scratch array used to hand buffered characters to a Writer or the encoder.
+     */
+    private char[] chars = new char[FLUSH_THRESHOLD + 256];
+
+    /**
+     * The destination when writing characters, or null when writing to a channel.
+     */
+    private final Appendable out;
+
+    /**
+     * The destination when writing bytes, or null when writing characters.
+     */
+    private final WritableByteChannel channel;
+
+    /**
+     * The UTF-8 encoder for channel output.
+     */
+    private final CharsetEncoder encoder;
+
+    /**
+     * The reusable byte buffer for channel output.
+     */
+    private final ByteBuffer bytes;
+
+    /**
+     * Whether at least one row has been started.
+     */
+    private boolean started;
+
+    /**
+     * Constructs a writer that appends to the given Appendable, such as a Writer or a StringBuilder.
+     *
+     * @param out the destination of the lines
+     */
+    public TransactionDetailsWriter(Appendable out) {
+        this.out = out;
+        this.channel = null;
+        this.encoder = null;
+        this.bytes = null;
+    }
+
+    /**
+     * Constructs a writer that writes UTF-8 encoded lines to the given channel.
+     *
+     * @param channel the destination of the lines
+     */
+    public TransactionDetailsWriter(WritableByteChannel channel) {
+        this.out = null;
+        this.channel = channel;
+        this.encoder = StandardCharsets.UTF_8.newEncoder();
+        this.bytes = ByteBuffer.allocate(4 * (FLUSH_THRESHOLD + 256));
+    }
+
+    /**
+     * Starts a new row and returns the buffer to format it into.
+     *
+     * <p> The returned buffer must only be appended to, and only until the next call.
+     *
+     * @return the buffer to append the row's details to
+     * @throws IOException if buffered rows cannot be written
+     */
+    public StringBuilder nextRow() throws IOException {
+        if (buffer.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+        if (started) {
+            buffer.append('\n');
+        }
+        started = true;
+        return buffer;
+    }
+
+    /**
+     * Writes out all buffered rows.
+     *
+     * @throws IOException if the rows cannot be written
+     */
+    public void flush() throws IOException {
+        int length = buffer.length();
+        if (length == 0) {
+            return;
+        }
+        if (chars.length < length) {
+            chars = new char[length];
+        }
+        if (channel != null) {
+            buffer.getChars(0, length, chars, 0);
+            CharBuffer pending = CharBuffer.wrap(chars, 0, length);
+            while (true) {
+                CoderResult result = encoder.encode(pending, bytes, false);
+                drainBytes();
+                if (result.isUnderflow()) {
+                    break;
+                }
+                if (result.isError()) {
+                    result.throwException();
+                }
+            }
+        } else if (out instanceof Writer) {
+            buffer.getChars(0, length, chars, 0);
+            ((Writer) out).write(chars, 0, length);
+        } else {
+            out.append(buffer);
+        }
+        buffer.setLength(0);
+    }
+
+    /**
+     * Writes out all buffered rows and completes the output. Does not close the destination.
+     *
+     * @throws IOException if the rows cannot be written
+     */
+    public void finish() throws IOException {
+        flush();
+        if (channel != null) {
+            encoder.encode(CharBuffer.allocate(0), bytes, true);
+            encoder.flush(bytes);
+            drainBytes();
+            encoder.reset();
+        } else if (out instanceof Writer) {
+            ((Writer) out).flush();
+        }
+    }
+
+    /**
+     * Writes the encoded bytes to the channel and clears the byte buffer.
+     *
+     * @throws IOException if the bytes cannot be written
+     */
+    private void drainBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,64 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compares exporting a transaction log through getTransactionDetails with the streaming export.
+ *
+ * <p> Writes the details of a ColumnarTransactionLog to a file both ways and reports the time taken
+ * and the bytes allocated by the exporting thread.
+ */
+public class TransactionExportBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of rows and the file to export to
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Path file = args.length > 1 ? Path.of(args[1]) : Files.createTempFile("transactions", ".txt");
+
+        ColumnarTransactionLog log = new ColumnarTransactionLog();
+        for (int i = 0; i < rows; i++) {
+            log.addTransaction("TXN" + i, 1 + (i % 1000) / 100.0, (i & 1) == 0 ? "Deposit" : "Withdrawal");
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            Files.writeString(file, log.getTransactionDetails());
+            long stringNanos = System.nanoTime() - start;
+            long stringBytes = allocatedBytes() - allocated;
+
+            allocated = allocatedBytes();
+            start = System.nanoTime();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                log.writeTransactionDetails(channel);
+            }
+            long streamNanos = System.nanoTime() - start;
+            long streamBytes = allocatedBytes() - allocated;
+
+            System.out.printf("Round %d, %d rows: getTransactionDetails %d ms / %d MB allocated, "
+                            + "streaming %d ms / %d KB allocated (%d MB file)%n",
+                    round + 1, rows, stringNanos / 1_000_000, stringBytes >> 20,
+                    streamNanos / 1_000_000, streamBytes >> 10, Files.size(file) >> 20);
+        }
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread.
+     *
+     * @return the allocated bytes
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
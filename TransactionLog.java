@@ -1,43 +1,147 @@
-import java.util.ArrayList;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Manages a log of financial transactions, providing methods to add, retrieve, and analyze transaction data.
+ *
+ * <p> The log is append-only and safe to use from several threads. Besides the copying
+ * {@link #getTransactions()}, it offers read access that does not copy the log: a live
+ * unmodifiable view, a stable snapshot, and paged access by offset and limit. The log keeps the
+ * Transaction objects it is given; {@link ColumnarTransactionLog} is the alternative that keeps
+ * primitive columns instead.
  */
-public class TransactionLog {
+public class TransactionLog extends AbstractTransactionLog {
 
     /**
-     * A list of objects representing the financial transactions in the log.
+     * The transactions in the log, in the order they were added. Only the first {@link #size}
+     * elements are in use. When the array grows, a new array is allocated, so an array and size
+     * captured together always describe an unchanging prefix of the log.
      */
-    private List<Transaction> transactions;
+    private Transaction[] transactions;
+
+    /**
+     * The number of transactions in the log.
+     */
+    private int size;
+
+    /**
+     * An index mapping each transaction ID to the position of its transaction in the log.
+     */
+    private Map<String, Integer> positionsById;
+
+    /**
+     * The running total of all transaction amounts.
+     */
+    private CompensatedSum totalAmount;
+
+    /**
+     * The running total of the amounts of each transaction type, indexed by ordinal.
+     */
+    private CompensatedSum[] amountByType;
+
+    /**
+     * The number of transactions of each transaction type, indexed by ordinal.
+     */
+    private int[] countByType;
 
     /**
      * Constructs an empty TransactionLog.
      */
     public TransactionLog() {
-        this.transactions = new ArrayList<>();
+        this.transactions = new Transaction[16];
+        this.positionsById = new HashMap<>();
+        this.totalAmount = new CompensatedSum();
+        this.amountByType = new CompensatedSum[TransactionType.values().length];
+        for (int i = 0; i < amountByType.length; i++) {
+            amountByType[i] = new CompensatedSum();
+        }
+        this.countByType = new int[amountByType.length];
     }
 
     /**
      * Adds a transaction to the log.
      *
      * @param transaction transaction to add to the log
-     * @throws IllegalArgumentException if the transaction is null or has an invalid type
+     * @throws IllegalArgumentException if the transaction is null, has an invalid type,
+     *                                  or has the same ID as a transaction already in the log
      */
-    public void addTransaction(Transaction transaction) {
+    @Override
+    public synchronized void addTransaction(Transaction transaction) {
         if (transaction == null || !transaction.isValidType()) {
             throw new IllegalArgumentException("Invalid or null transaction.");
         }
-        transactions.add(transaction);
+        if (positionsById.putIfAbsent(transaction.getTransactionId(), size) != null) {
+            throw new IllegalArgumentException("Duplicate transaction ID.");
+        }
+        if (size == transactions.length) {
+            transactions = Arrays.copyOf(transactions, size * 2);
+        }
+        transactions[size++] = transaction;
+        totalAmount.add(transaction.getAmount());
+        int kind = transaction.getKind().ordinal();
+        amountByType[kind].add(transaction.getAmount());
+        countByType[kind]++;
+    }
+
+    /**
+     * Returns an unmodifiable live view of the transactions in the log.
+     *
+     * <p> The view does not copy the log and reflects transactions added after it was created.
+     * Because the view grows while it is read, iterate over a snapshot instead when the log may
+     * be appended to at the same time.
+     *
+     * @return an unmodifiable view of the transactions
+     */
+    @Override
+    public List<Transaction> getTransactionsView() {
+        return new AbstractList<Transaction>() {
+            @Override
+            public Transaction get(int index) {
+                synchronized (TransactionLog.this) {
+                    if (index < 0 || index >= size) {
+                        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+                    }
+                    return transactions[index];
+                }
+            }
+
+            @Override
+            public int size() {
+                return getNumTransactions();
+            }
+        };
     }
 
     /**
-     * Returns a new list containing copies of the transactions in the log.
+     * Returns one page of the transactions in the log without copying the log.
+     *
+     * <p> The page is an unmodifiable snapshot of at most {@code limit} transactions starting at
+     * position {@code offset}; it is empty when the offset is at or past the end of the log.
      *
-     * @return a list containing copies of the transactions
+     * @param offset the position of the first transaction of the page
+     * @param limit the maximum number of transactions in the page
+     * @return an unmodifiable list of the transactions in the page
+     * @throws IllegalArgumentException if the offset or the limit is negative
      */
-    public List<Transaction> getTransactions() {
-        return new ArrayList<>(transactions);
+    @Override
+    public List<Transaction> getTransactions(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative.");
+        }
+        Transaction[] captured;
+        int capturedSize;
+        synchronized (this) {
+            captured = transactions;
+            capturedSize = size;
+        }
+        int from = Math.min(offset, capturedSize);
+        int to = (int) Math.min((long) offset + limit, capturedSize);
+        return Collections.unmodifiableList(Arrays.asList(captured).subList(from, to));
     }
 
     /**
@@ -45,64 +149,72 @@ public class TransactionLog {
      *
      * @return an int representing the number of transactions
      */
-    public int getNumTransactions() {
-        return transactions.size();
+    @Override
+    public synchronized int getNumTransactions() {
+        return size;
     }
 
     /**
-     * Returns a string detailing all transactions in the log.
+     * Writes the details of a snapshot of the log through the given writer and finishes it.
      *
-     * @return a String containing details of all transactions
+     * @param writer the writer to format the rows into
+     * @throws IOException if the destination cannot be written
      */
-    public String getTransactionDetails() {
-        StringBuilder details = new StringBuilder();
-        for (Transaction transaction : transactions) {
-            details.append(transaction.getDetails()).append("\n");
+    @Override
+    void writeTransactionDetails(TransactionDetailsWriter writer) throws IOException {
+        for (Transaction transaction : getTransactionsSnapshot()) {
+            transaction.appendDetails(writer.nextRow());
         }
-        return details.toString().trim();
+        writer.finish();
     }
 
     /**
-     * Calculates and returns the total amount of all transactions in the log.
+     * Returns the total amount of all transactions in the log.
+     *
+     * <p> The total is maintained as transactions are added, using compensated summation.
      *
      * @return a double representing the total amount of the transactions
      */
-    public double getTotalAmount() {
-        double total = 0;
-        for (Transaction transaction : transactions) {
-            total += transaction.getAmount();
-        }
-        return total;
+    @Override
+    public synchronized double getTotalAmount() {
+        return totalAmount.getSum();
     }
 
     /**
-     * Calculates and returns the total amount for transactions of a specific type.
+     * Returns the total amount for transactions of a specific type.
      *
-     * @param type the type of transactions to sum (e.g., "Deposit" or "Withdrawal")
-     * @return a double representing the total amount of transactions of the specified type
-     */
-    public double getTotalAmountByType(String type) {
-        double total = 0;
-        for (Transaction transaction : transactions) {
-            if (type.equalsIgnoreCase(transaction.getType())) {
-                total += transaction.getAmount();
-            }
-        }
-        return total;
+     * <p> The totals are maintained per type as transactions are added, using compensated summation.
+     *
+     * @param type the type of transactions to sum
+     * @return a double representing the total amount of transactions of the specified type, or 0 if the type is null
+     */
+    @Override
+    public synchronized double getTotalAmountByType(TransactionType type) {
+        return type == null ? 0 : amountByType[type.ordinal()].getSum();
     }
 
     /**
-     * Searches for and returns a transaction with the specified ID.
+     * Returns the number of transactions of a specific type in the log.
+     *
+     * @param type the type of transactions to count
+     * @return an int representing the number of transactions of the specified type, or 0 if the type is null
+     */
+    @Override
+    public synchronized int getNumTransactionsByType(TransactionType type) {
+        return type == null ? 0 : countByType[type.ordinal()];
+    }
+
+    /**
+     * Looks up and returns a transaction with the specified ID.
+     *
+     * <p> Uses the ID index, so the lookup takes constant time regardless of the size of the log.
      *
      * @param transactionId the ID of the transaction to find
      * @return a transaction with the specified ID, or null if no such transaction exists.
      */
-    public Transaction findTransactionById(String transactionId) {
-        for (Transaction transaction : transactions) {
-            if (transactionId.equals(transaction.getTransactionId())) {
-                return transaction;
-            }
-        }
-        return null;
+    @Override
+    public synchronized Transaction findTransactionById(String transactionId) {
+        Integer position = positionsById.get(transactionId);
+        return position == null ? null : transactions[position];
     }
 }
@@ -0,0 +1,102 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures lookups by transaction ID and the memory cost of the ID index in TransactionLog.
+ *
+ * <p> Compares the indexed {@link TransactionLog#findTransactionById(String)} with the linear scan
+ * it replaced, and reports the heap used per entry by the log against a plain list holding the
+ * same transactions.
+ */
+public class TransactionLogBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of log entries and number of lookups
+     */
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        Transaction[] transactions = new Transaction[entries];
+        for (int i = 0; i < entries; i++) {
+            transactions[i] = new Transaction("TXN" + i, 1 + (i % 1000), (i & 1) == 0 ? "Deposit" : "Withdrawal");
+        }
+
+        long baseline = usedMemory();
+        List<Transaction> list = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            list.add(transaction);
+        }
+        long listBytes = usedMemory() - baseline;
+
+        baseline = usedMemory();
+        TransactionLog log = new TransactionLog();
+        for (Transaction transaction : transactions) {
+            log.addTransaction(transaction);
+        }
+        long logBytes = usedMemory() - baseline;
+
+        System.out.printf("Memory per entry: list %.1f bytes, indexed log %.1f bytes, index overhead %.1f bytes%n",
+                (double) listBytes / entries, (double) logBytes / entries, (double) (logBytes - listBytes) / entries);
+
+        Random random = new Random(42);
+        String[] ids = new String[lookups];
+        for (int i = 0; i < lookups; i++) {
+            ids[i] = "TXN" + random.nextInt(entries);
+        }
+        for (int round = 0; round < 3; round++) {
+            long found = 0;
+            long start = System.nanoTime();
+            for (String id : ids) {
+                if (scan(list, id) != null) {
+                    found++;
+                }
+            }
+            long scanNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (String id : ids) {
+                if (log.findTransactionById(id) != null) {
+                    found++;
+                }
+            }
+            long indexNanos = System.nanoTime() - start;
+            System.out.printf("Round %d: linear scan %.1f us/lookup, index %.3f us/lookup (%d found)%n",
+                    round + 1, scanNanos / 1000.0 / lookups, indexNanos / 1000.0 / lookups, found);
+        }
+        if (list.size() != log.getNumTransactions()) {
+            throw new IllegalStateException("Unexpected log size.");
+        }
+    }
+
+    /**
+     * Finds a transaction by scanning the list, as the log did before it kept an index.
+     *
+     * @param transactions the transactions to scan
+     * @param transactionId the ID to look for
+     * @return the matching transaction, or null if there is none
+     */
+    private static Transaction scan(List<Transaction> transactions, String transactionId) {
+        for (Transaction transaction : transactions) {
+            if (transactionId.equals(transaction.getTransactionId())) {
+                return transaction;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the heap currently in use after requesting a garbage collection.
+     *
+     * @return the used heap in bytes
+     */
+    static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -1,6 +1,11 @@
 import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -112,4 +117,177 @@ public class TransactionLogTest {
     public void testGetTotalAmountByTypeEmptyLog() {
         assertEquals(0.0, log.getTotalAmountByType("Deposit"), 0.001);
     }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddTransactionWithDuplicateId() {
+        log.addTransaction(deposit);
+        log.addTransaction(new Transaction("TX100", 75.0, "Withdrawal"));
+    }
+
+    @Test
+    public void testDuplicateIdIsNotAdded() {
+        log.addTransaction(deposit);
+        try {
+            log.addTransaction(new Transaction("TX100", 75.0, "Withdrawal"));
+        } catch (IllegalArgumentException e) {
+            // Expected.
+        }
+        assertEquals(1, log.getNumTransactions());
+        assertSame(deposit, log.findTransactionById("TX100"));
+    }
+
+    @Test
+    public void testFindTransactionByIdAmongMany() {
+        for (int i = 0; i < 1000; i++) {
+            log.addTransaction(new Transaction("ID" + i, i + 1, "Deposit"));
+        }
+        assertEquals(501.0, log.findTransactionById("ID500").getAmount(), 0.001);
+    }
+
+    @Test
+    public void testGetTotalAmountByTypeIgnoresCase() {
+        log.addTransaction(deposit);
+        log.addTransaction(new Transaction("TX300", 25.0, "deposit"));
+        assertEquals(125.0, log.getTotalAmountByType("DEPOSIT"), 0.001);
+    }
+
+    @Test
+    public void testGetTotalAmountByUnknownType() {
+        log.addTransaction(deposit);
+        assertEquals(0.0, log.getTotalAmountByType("Transfer"), 0.001);
+    }
+
+    @Test
+    public void testGetNumTransactionsByType() {
+        log.addTransaction(deposit);
+        log.addTransaction(withdrawal);
+        log.addTransaction(new Transaction("TX300", 25.0, "Deposit"));
+        assertEquals(2, log.getNumTransactionsByType("Deposit"));
+        assertEquals(1, log.getNumTransactionsByType("withdrawal"));
+        assertEquals(0, log.getNumTransactionsByType("Transfer"));
+    }
+
+    @Test
+    public void testTotalsStayExactAcrossManyAdds() {
+        for (int i = 0; i < 100_000; i++) {
+            log.addTransaction(new Transaction("ID" + i, 0.1, (i & 1) == 0 ? "Deposit" : "Withdrawal"));
+        }
+        assertEquals(10_000.0, log.getTotalAmount(), 0.0);
+        assertEquals(5_000.0, log.getTotalAmountByType("Deposit"), 0.0);
+    }
+
+    @Test
+    public void testTransactionsViewIsLive() {
+        List<Transaction> view = log.getTransactionsView();
+        log.addTransaction(deposit);
+        assertEquals(1, view.size());
+        assertSame(deposit, view.get(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testTransactionsViewIsUnmodifiable() {
+        log.addTransaction(deposit);
+        log.getTransactionsView().remove(0);
+    }
+
+    @Test
+    public void testSnapshotIsStable() {
+        log.addTransaction(deposit);
+        List<Transaction> snapshot = log.getTransactionsSnapshot();
+        for (int i = 0; i < 100; i++) {
+            log.addTransaction(new Transaction("ID" + i, 1.0, "Deposit"));
+        }
+        assertEquals(1, snapshot.size());
+        assertSame(deposit, snapshot.get(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsUnmodifiable() {
+        log.addTransaction(deposit);
+        log.getTransactionsSnapshot().clear();
+    }
+
+    @Test
+    public void testSnapshotIterationDuringConcurrentAppends() throws InterruptedException {
+        for (int i = 0; i < 1000; i++) {
+            log.addTransaction(new Transaction("ID" + i, 1.0, "Deposit"));
+        }
+        Thread writer = new Thread(() -> {
+            for (int i = 1000; i < 50_000; i++) {
+                log.addTransaction(new Transaction("ID" + i, 1.0, "Deposit"));
+            }
+        });
+        writer.start();
+        for (int round = 0; round < 20; round++) {
+            List<Transaction> snapshot = log.getTransactionsSnapshot();
+            int count = 0;
+            for (Transaction transaction : snapshot) {
+                assertEquals("ID" + count, transaction.getTransactionId());
+                count++;
+            }
+            assertEquals(snapshot.size(), count);
+        }
+        writer.join();
+        assertEquals(50_000, log.getNumTransactions());
+    }
+
+    @Test
+    public void testGetTransactionsPage() {
+        for (int i = 0; i < 10; i++) {
+            log.addTransaction(new Transaction("ID" + i, 1.0, "Deposit"));
+        }
+        List<Transaction> page = log.getTransactions(4, 3);
+        assertEquals(3, page.size());
+        assertEquals("ID4", page.get(0).getTransactionId());
+        assertEquals("ID6", page.get(2).getTransactionId());
+    }
+
+    @Test
+    public void testGetTransactionsPagePastEnd() {
+        log.addTransaction(deposit);
+        log.addTransaction(withdrawal);
+        assertEquals(1, log.getTransactions(1, 10).size());
+        assertTrue(log.getTransactions(5, 10).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetTransactionsPageNegativeOffset() {
+        log.getTransactions(-1, 10);
+    }
+
+    @Test
+    public void testWriteTransactionDetailsMatchesString() throws IOException {
+        log.addTransaction(deposit);
+        log.addTransaction(withdrawal);
+        StringWriter out = new StringWriter();
+        log.writeTransactionDetails(out);
+        assertEquals(log.getTransactionDetails(), out.toString());
+    }
+
+    @Test
+    public void testWriteTransactionDetailsToChannel() throws IOException {
+        for (int i = 0; i < 5000; i++) {
+            log.addTransaction(new Transaction("ID-\u00e9" + i, i + 0.5, (i & 1) == 0 ? "Deposit" : "Withdrawal"));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        log.writeTransactionDetails(Channels.newChannel(bytes));
+        assertEquals(log.getTransactionDetails(), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWriteTransactionDetailsEmptyLog() throws IOException {
+        StringBuilder out = new StringBuilder();
+        log.writeTransactionDetails(out);
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    public void testTotalsByTransactionType() {
+        log.addTransaction(deposit);
+        log.addTransaction(withdrawal);
+        log.addTransaction(new Transaction("TX300", 25.0, TransactionType.DEPOSIT));
+        assertEquals(125.0, log.getTotalAmountByType(TransactionType.DEPOSIT), 0.001);
+        assertEquals(1, log.getNumTransactionsByType(TransactionType.WITHDRAWAL));
+        assertEquals(0.0, log.getTotalAmountByType((TransactionType) null), 0.001);
+    }
 }
@@ -105,4 +105,30 @@ public class TransactionTest {
         Transaction transaction2 = new Transaction("TX124", 100.0, "Deposit");
         assertFalse(transaction1.equals(transaction2));
     }
+
+    @Test
+    public void testGetKindParsedFromType() {
+        Transaction transaction = new Transaction("TX123", 100.0, "withdrawal");
+        assertEquals(TransactionType.WITHDRAWAL, transaction.getKind());
+        assertEquals("withdrawal", transaction.getType());
+    }
+
+    @Test
+    public void testGetKindOfUnknownType() {
+        Transaction transaction = new Transaction("TX123", 100.0, "Transfer");
+        assertNull(transaction.getKind());
+        assertFalse(transaction.isValidType());
+    }
+
+    @Test
+    public void testConstructorWithTransactionType() {
+        Transaction transaction = new Transaction("TX123", 100.0, TransactionType.DEPOSIT);
+        assertTrue(transaction.isDeposit());
+        assertEquals("Deposit", transaction.getType());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorWithNullTransactionType() {
+        new Transaction("TX123", 100.0, (TransactionType) null);
+    }
 }
@@ -0,0 +1,57 @@
+/**
+ * Represents the kinds of transactions the bank records.
+ *
+ * <p> Free-form type strings are parsed into a TransactionType once, when a transaction is
+ * created, so later type checks are simple comparisons instead of string comparisons.
+ */
+public enum TransactionType {
+
+    /**
+     * Money paid into an account.
+     */
+    DEPOSIT("Deposit"),
+
+    /**
+     * Money taken out of an account.
+     */
+    WITHDRAWAL("Withdrawal");
+
+    /**
+     * The canonical name of the type, as used in transaction details.
+     */
+    private final String displayName;
+
+    /**
+     * Constructs a transaction type with the given canonical name.
+     *
+     * @param displayName the canonical name of the type
+     */
+    TransactionType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns the canonical name of the type, e.g. "Deposit".
+     *
+     * @return the canonical name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Parses a type string, ignoring case.
+     *
+     * @param type the type string, e.g. "Deposit" or "withdrawal"
+     * @return the matching transaction type, or null if the string is null or not a known type
+     */
+    public static TransactionType parse(String type) {
+        if (DEPOSIT.displayName.equalsIgnoreCase(type)) {
+            return DEPOSIT;
+        }
+        if (WITHDRAWAL.displayName.equalsIgnoreCase(type)) {
+            return WITHDRAWAL;
+        }
+        return null;
+    }
+}
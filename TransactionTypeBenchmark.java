@@ -0,0 +1,75 @@
+/**
+ * Compares per-type aggregation over transactions using string comparisons and parsed types.
+ *
+ * <p> The string loop compares each transaction's type with {@code equalsIgnoreCase}, as the log
+ * did before types were parsed; the typed loop indexes a table of totals by the ordinal of
+ * {@link Transaction#getKind()}.
+ */
+public class TransactionTypeBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of transactions
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Transaction[] transactions = new Transaction[count];
+        for (int i = 0; i < count; i++) {
+            transactions[i] = new Transaction("TXN" + i, 1 + (i % 100), (i % 3) == 0 ? "withdrawal" : "Deposit");
+        }
+
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            double stringTotal = 0;
+            for (int repeat = 0; repeat < 5; repeat++) {
+                stringTotal += byStringType(transactions);
+            }
+            long stringNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            double typedTotal = 0;
+            for (int repeat = 0; repeat < 5; repeat++) {
+                typedTotal += byKind(transactions);
+            }
+            long typedNanos = System.nanoTime() - start;
+            System.out.printf("Round %d: equalsIgnoreCase %.2f ns/row, enum table %.2f ns/row (%.0f / %.0f)%n",
+                    round + 1, stringNanos / 5.0 / count, typedNanos / 5.0 / count, stringTotal, typedTotal);
+        }
+    }
+
+    /**
+     * Sums deposits minus withdrawals by comparing type strings.
+     *
+     * @param transactions the transactions to aggregate
+     * @return the net amount
+     */
+    private static double byStringType(Transaction[] transactions) {
+        double deposits = 0;
+        double withdrawals = 0;
+        for (Transaction transaction : transactions) {
+            if ("Deposit".equalsIgnoreCase(transaction.getType())) {
+                deposits += transaction.getAmount();
+            } else if ("Withdrawal".equalsIgnoreCase(transaction.getType())) {
+                withdrawals += transaction.getAmount();
+            }
+        }
+        return deposits - withdrawals;
+    }
+
+    /**
+     * Sums deposits minus withdrawals using a table indexed by the parsed transaction type.
+     *
+     * @param transactions the transactions to aggregate
+     * @return the net amount
+     */
+    private static double byKind(Transaction[] transactions) {
+        double[] totals = new double[TransactionType.values().length];
+        for (Transaction transaction : transactions) {
+            TransactionType kind = transaction.getKind();
+            if (kind != null) {
+                totals[kind.ordinal()] += transaction.getAmount();
+            }
+        }
+        return totals[TransactionType.DEPOSIT.ordinal()] - totals[TransactionType.WITHDRAWAL.ordinal()];
+    }
+}
@@ -0,0 +1,31 @@
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class TransactionTypeTest {
+
+    @Test
+    public void testParseDeposit() {
+        assertEquals(TransactionType.DEPOSIT, TransactionType.parse("Deposit"));
+    }
+
+    @Test
+    public void testParseIgnoresCase() {
+        assertEquals(TransactionType.WITHDRAWAL, TransactionType.parse("wItHdRaWaL"));
+    }
+
+    @Test
+    public void testParseUnknownType() {
+        assertNull(TransactionType.parse("Transfer"));
+    }
+
+    @Test
+    public void testParseNull() {
+        assertNull(TransactionType.parse(null));
+    }
+
+    @Test
+    public void testDisplayName() {
+        assertEquals("Deposit", TransactionType.DEPOSIT.getDisplayName());
+        assertEquals("Withdrawal", TransactionType.WITHDRAWAL.getDisplayName());
+    }
+}
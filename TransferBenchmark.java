@@ -0,0 +1,67 @@
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures transfer throughput when many threads move money among a few hot accounts.
+ *
+ * <p> Every thread transfers small random amounts between randomly chosen accounts through
+ * ConcurrentAccount.transferTo, and the benchmark checks that the total money is unchanged.
+ */
+public class TransferBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional thread count, account count and transfers per thread
+     * @throws InterruptedException if the benchmark is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int accountCount = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int transfersPerThread = args.length > 2 ? Integer.parseInt(args[2]) : 5000;
+
+        for (int round = 0; round < 3; round++) {
+            ConcurrentAccount[] accounts = new ConcurrentAccount[accountCount];
+            for (int i = 0; i < accountCount; i++) {
+                accounts[i] = new ConcurrentAccount("ACC" + i, 10_000);
+            }
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                workers[t] = new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        Account from = accounts[random.nextInt(accountCount)];
+                        Account to = accounts[random.nextInt(accountCount)];
+                        try {
+                            from.transferTo(to, 1 + random.nextInt(100));
+                        } catch (IllegalArgumentException e) {
+                            // Insufficient funds are part of the workload.
+                        }
+                    }
+                });
+                workers[t].start();
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            long nanos = System.nanoTime() - begin;
+
+            long totalCents = 0;
+            for (ConcurrentAccount account : accounts) {
+                totalCents += account.getBalanceCents();
+            }
+            long transfers = (long) threads * transfersPerThread;
+            System.out.printf("Round %d: %d threads, %d accounts, %.2f M transfers/s, money conserved: %b%n",
+                    round + 1, threads, accountCount, transfers / (nanos / 1000.0),
+                    totalCents == accountCount * 1_000_000L);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.util.Objects;
+
+/**
+ * Performs transfers between accounts that are safe for concurrent use and never deadlock.
+ *
+ * <p> Accounts are mapped onto a fixed table of lock stripes by the hash of their account
+ * number. A transfer holds the stripes of both accounts while it moves the money, and always
+ * acquires them in ascending stripe order, so two opposite transfers can never wait on each
+ * other. Transfers between accounts that share a stripe take a single lock.
+ *
+ * <p> When either account is a {@link ConcurrentAccount}, the amount is rounded to whole cents
+ * before anything changes, so both sides move the same sum. If the recipient rejects the
+ * deposit, the debit is restored before the error is rethrown.
+ */
+public class TransferCoordinator {
+
+    /**
+     * The default number of lock stripes.
+     */
+    public static final int DEFAULT_STRIPES = 256;
+
+    /**
+     * The lock stripes; the length is always a power of two.
+     */
+    private final Object[] stripes;
+
+    /**
+     * Constructs a coordinator with the default number of lock stripes.
+     */
+    public TransferCoordinator() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructs a coordinator with at least the given number of lock stripes.
+     *
+     * @param stripeCount the minimum number of lock stripes; rounded up to a power of two
+     * @throws IllegalArgumentException if the stripe count is not positive
+     */
+    public TransferCoordinator(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive.");
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new Object[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Transfers the specified amount from one account to another as a single step.
+     *
+     * <p> No other transfer through this coordinator that involves either account can
+     * interleave with this one.
+     *
+     * @param fromAccount the account to take the money from
+     * @param toAccount the recipient account of the transfer
+     * @param amount the amount to be transferred, rounded to the nearest cent if either account is a ConcurrentAccount
+     * @throws IllegalArgumentException if the transfer amount is not positive, or less than one cent when
+     *                                  either account is a ConcurrentAccount, or if insufficient funds are
+     *                                  available for transfer
+     */
+    public void transfer(Account fromAccount, Account toAccount, double amount) {
+        if (fromAccount instanceof ConcurrentAccount || toAccount instanceof ConcurrentAccount) {
+            amount = ConcurrentAccount.toCents(amount) / 100.0;
+        }
+        if (!(amount > 0)) {
+            throw new IllegalArgumentException("Transfer amount must be positive.");
+        }
+        int fromStripe = stripeFor(fromAccount.getAccountNumber());
+        int toStripe = stripeFor(toAccount.getAccountNumber());
+        Object first = stripes[Math.min(fromStripe, toStripe)];
+        Object second = stripes[Math.max(fromStripe, toStripe)];
+        synchronized (first) {
+            synchronized (second) {
+                if (!covers(fromAccount, amount)) {
+                    throw new IllegalArgumentException("Insufficient funds for transfer.");
+                }
+                fromAccount.withdraw(amount);
+                try {
+                    toAccount.deposit(amount);
+                } catch (RuntimeException e) {
+                    fromAccount.deposit(amount);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of lock stripes.
+     *
+     * @return the number of lock stripes
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Checks whether the balance of an account covers an amount, in cents for a ConcurrentAccount.
+     *
+     * @param account the account to take the money from
+     * @param amount the amount to be taken
+     * @return true if the balance covers the amount
+     */
+    private static boolean covers(Account account, double amount) {
+        if (account instanceof ConcurrentAccount) {
+            return ConcurrentAccount.toCents(amount) <= ((ConcurrentAccount) account).getBalanceCents();
+        }
+        return amount <= account.getBalance();
+    }
+
+    /**
+     * Maps an account number to its lock stripe.
+     *
+     * @param accountNumber the account number
+     * @return the index of the stripe guarding the account
+     */
+    int stripeFor(String accountNumber) {
+        int hash = Objects.hashCode(accountNumber);
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
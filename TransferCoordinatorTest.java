@@ -0,0 +1,165 @@
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TransferCoordinatorTest {
+    private TransferCoordinator coordinator;
+    private ConcurrentAccount source;
+    private ConcurrentAccount target;
+
+    @Before
+    public void setUp() {
+        coordinator = new TransferCoordinator();
+        source = new ConcurrentAccount("100", 1000.0);
+        target = new ConcurrentAccount("200", 500.0);
+    }
+
+    @Test
+    public void testTransferSuccessfully() {
+        coordinator.transfer(source, target, 300.0);
+        assertEquals(700.0, source.getBalance(), 0.001);
+        assertEquals(800.0, target.getBalance(), 0.001);
+    }
+
+    @Test
+    public void testTransferBetweenPlainAccounts() {
+        Account from = new Account("300", 100.0);
+        Account to = new Account("400", 0.0);
+        coordinator.transfer(from, to, 40.0);
+        assertEquals(60.0, from.getBalance(), 0.001);
+        assertEquals(40.0, to.getBalance(), 0.001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTransferInsufficientFunds() {
+        coordinator.transfer(source, target, 1500.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTransferNegativeAmount() {
+        coordinator.transfer(source, target, -10.0);
+    }
+
+    @Test
+    public void testMixedTransfersMoveWholeCents() {
+        Account plain = new Account("300", 10.0);
+        coordinator.transfer(source, plain, 0.005);
+        assertEquals(99999, source.getBalanceCents());
+        assertEquals(10.01, plain.getBalance(), 1e-9);
+        coordinator.transfer(plain, target, 0.004 + 0.006);
+        assertEquals(10.0, plain.getBalance(), 1e-9);
+        assertEquals(50001, target.getBalanceCents());
+        try {
+            coordinator.transfer(plain, target, 0.004);
+            fail("Expected a transfer below one cent to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Transfer amount must be positive.", e.getMessage());
+        }
+        assertEquals(10.0, plain.getBalance(), 1e-9);
+        assertEquals(50001, target.getBalanceCents());
+    }
+
+    @Test
+    public void testFundsAreCheckedInCents() {
+        ConcurrentAccount small = new ConcurrentAccount("300", 0.01);
+        coordinator.transfer(small, target, 0.0149);
+        assertEquals(0, small.getBalanceCents());
+        assertEquals(50001, target.getBalanceCents());
+    }
+
+    @Test
+    public void testRejectedDepositRestoresTheDebit() {
+        Account picky = new Account("300", 0.0) {
+            @Override
+            public void deposit(double amount) {
+                throw new IllegalArgumentException("Deposits are closed.");
+            }
+        };
+        try {
+            coordinator.transfer(source, picky, 100.0);
+            fail("Expected the deposit to be rejected.");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Deposits are closed.", e.getMessage());
+        }
+        assertEquals(100000, source.getBalanceCents());
+    }
+
+    @Test
+    public void testTransferToSameAccount() {
+        coordinator.transfer(source, source, 100.0);
+        assertEquals(1000.0, source.getBalance(), 0.001);
+    }
+
+    @Test
+    public void testStripeCountRoundedToPowerOfTwo() {
+        assertEquals(8, new TransferCoordinator(5).getStripeCount());
+        assertEquals(1, new TransferCoordinator(1).getStripeCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroStripesRejected() {
+        new TransferCoordinator(0);
+    }
+
+    @Test(timeout = 30000)
+    public void testOppositeTransfersDoNotDeadlock() throws InterruptedException {
+        Thread forward = new Thread(() -> {
+            for (int i = 0; i < 100000; i++) {
+                try {
+                    source.transferTo(target, 1.0);
+                } catch (IllegalArgumentException e) {
+                    // The balance may briefly run out on one side.
+                }
+            }
+        });
+        Thread backward = new Thread(() -> {
+            for (int i = 0; i < 100000; i++) {
+                try {
+                    target.transferTo(source, 1.0);
+                } catch (IllegalArgumentException e) {
+                    // The balance may briefly run out on one side.
+                }
+            }
+        });
+        forward.start();
+        backward.start();
+        forward.join();
+        backward.join();
+        assertEquals(150000, source.getBalanceCents() + target.getBalanceCents());
+    }
+
+    @Test(timeout = 60000)
+    public void testConcurrentTransfersConserveMoney() throws InterruptedException {
+        ConcurrentAccount[] accounts = new ConcurrentAccount[4];
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i] = new ConcurrentAccount("HOT" + i, 1000.0);
+        }
+        Thread[] threads = new Thread[64];
+        for (int t = 0; t < threads.length; t++) {
+            int seed = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 2000; i++) {
+                    ConcurrentAccount from = accounts[random.nextInt(accounts.length)];
+                    ConcurrentAccount to = accounts[random.nextInt(accounts.length)];
+                    try {
+                        from.transferTo(to, 1 + random.nextInt(200));
+                    } catch (IllegalArgumentException e) {
+                        // Insufficient funds are part of the workload.
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long totalCents = 0;
+        for (ConcurrentAccount account : accounts) {
+            assertFalse(account.isOverdrawn());
+            totalCents += account.getBalanceCents();
+        }
+        assertEquals(4 * 100000, totalCents);
+    }
+}
@@ -0,0 +1,67 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The SIMD implementation of {@link LoanPaymentKernel}, built on the incubating Vector API.
+ *
+ * <p> Processes as many loans per instruction as the preferred double vector of the CPU holds and
+ * finishes the remainder with the scalar loop. This class must be compiled and run with
+ * {@code --add-modules jdk.incubator.vector}; {@link LoanPaymentKernel#get()} loads it by name.
+ */
+public final class VectorLoanPaymentKernel extends LoanPaymentKernel {
+
+    /**
+     * The double vector species preferred by the CPU.
+     */
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * The int vector species with as many lanes as {@link #DOUBLES}, used to load the terms.
+     */
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    /**
+     * Constructs the kernel. Called reflectively by {@link LoanPaymentKernel}.
+     */
+    public VectorLoanPaymentKernel() {
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+
+    @Override
+    protected void computeRange(double[] principals, double[] annualInterestRates, int[] years,
+                                double[] monthlyPayments, double[] totalInterests, boolean[] affordable,
+                                int from, int to) {
+        int lanes = DOUBLES.length();
+        int i = from;
+        for (; i <= to - lanes; i += lanes) {
+            DoubleVector principal = DoubleVector.fromArray(DOUBLES, principals, i);
+            DoubleVector annualRate = DoubleVector.fromArray(DOUBLES, annualInterestRates, i);
+            IntVector term = IntVector.fromArray(INTS, years, i);
+            VectorMask<Double> invalid = principal.compare(VectorOperators.LE, 0)
+                    .or(annualRate.compare(VectorOperators.LE, 0));
+            VectorMask<Integer> invalidTerm = term.compare(VectorOperators.LE, 0);
+            if (invalid.anyTrue() || invalidTerm.anyTrue()) {
+                computeScalar(principals, annualInterestRates, years, monthlyPayments, totalInterests, affordable,
+                        i, i + lanes);
+                continue;
+            }
+            DoubleVector payments = ((DoubleVector) term.convertShape(VectorOperators.I2D, DOUBLES, 0)).mul(12);
+            DoubleVector monthlyRate = annualRate.div(12).div(100);
+            DoubleVector discount = monthlyRate.add(1).lanewise(VectorOperators.POW, payments.neg());
+            DoubleVector payment = principal.mul(monthlyRate).div(discount.neg().add(1));
+            payment.intoArray(monthlyPayments, i);
+            payment.mul(payments).sub(principal).intoArray(totalInterests, i);
+            payment.compare(VectorOperators.LT, principal.div(12).mul(0.1)).intoArray(affordable, i);
+        }
+        computeScalar(principals, annualInterestRates, years, monthlyPayments, totalInterests, affordable, i, to);
+    }
+}
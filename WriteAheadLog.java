@@ -0,0 +1,370 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only log of bank operations on local disk.
+ *
+ * <p> Records are first appended to an in-memory buffer and become durable once a call to
+ * {@link #awaitDurable(long)} has written and synced them. Calls that arrive while a sync is
+ * in progress wait for it and are then written together by a single sync, so many operations
+ * share one fsync (group commit).
+ *
+ * <p> Every record carries its length and a CRC32 checksum. On replay, a torn or corrupt record
+ * at the end of the file, left by a crash in the middle of a write, is discarded and the file is
+ * truncated back to the last complete record.
+ *
+ * <p> If a batch cannot be written or synced, the log is marked failed: the file is truncated
+ * back to the end of the last durable batch where the channel still allows it, no later record
+ * can be trusted to follow the failed batch, and every later call to {@link #awaitDurable(long)}
+ * throws.
+ */
+public class WriteAheadLog implements Closeable {
+
+    /**
+     * Operation code for account creation.
+     */
+    public static final byte CREATE = 1;
+
+    /**
+     * Operation code for account closure.
+     */
+    public static final byte CLOSE = 2;
+
+    /**
+     * Operation code for a deposit.
+     */
+    public static final byte DEPOSIT = 3;
+
+    /**
+     * Size of the length and checksum fields that precede every record payload.
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * The maximum length of an account number in UTF-8 bytes.
+     */
+    public static final int MAX_ACCOUNT_NUMBER_BYTES = 0xFFFF;
+
+    /**
+     * Receives the records of the log during replay.
+     */
+    public interface RecordHandler {
+
+        /**
+         * Applies one logged operation.
+         *
+         * @param operation the operation code
+         * @param accountNumber the account number the operation applies to
+         * @param amount the amount of the operation, or 0 for a closure
+         */
+        void apply(byte operation, String accountNumber, double amount);
+    }
+
+    /**
+     * The channel of the log file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Records appended but not yet written to the file.
+     */
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+
+    /**
+     * The buffer that is swapped in for {@link #pending} while a batch is being written.
+     */
+    private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);
+
+    /**
+     * Reusable checksum calculator for appended records.
+     */
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Sequence number of the last appended record.
+     */
+    private long appendedSequence;
+
+    /**
+     * Sequence number of the last record known to be on disk.
+     */
+    private volatile long durableSequence;
+
+    /**
+     * The size of the file up to the end of the last durable record.
+     */
+    private long durablePosition;
+
+    /**
+     * Number of syncs performed since the log was opened.
+     */
+    private volatile long syncCount;
+
+    /**
+     * The error that made a batch fail, or null while the log is healthy.
+     */
+    private volatile IOException failure;
+
+    /**
+     * Serializes writers of batches; held while a batch is written and synced.
+     */
+    private final Object flushLock = new Object();
+
+    /**
+     * Opens the log at the given path, creating the file if it does not exist.
+     *
+     * @param file the path of the log file
+     * @throws IOException if the file cannot be opened
+     */
+    public WriteAheadLog(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Reads every complete record from the start of the log and passes it to the handler.
+     *
+     * <p> Must be called before the first append. An incomplete or corrupt tail is truncated.
+     *
+     * @param handler the handler receiving the records in log order
+     * @return the number of records replayed
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized long replay(RecordHandler handler) throws IOException {
+        long validLength = 0;
+        long count = 0;
+        channel.position(0);
+        InputStream stream = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16);
+        DataInputStream in = new DataInputStream(stream);
+        byte[] payload = new byte[256];
+        CRC32 check = new CRC32();
+        while (true) {
+            int length;
+            int checksum;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+                if (length <= 0 || length > 1 << 20) {
+                    break;
+                }
+                if (payload.length < length) {
+                    payload = new byte[Math.max(length, payload.length * 2)];
+                }
+                in.readFully(payload, 0, length);
+            } catch (EOFException e) {
+                break;
+            }
+            check.reset();
+            check.update(payload, 0, length);
+            if ((int) check.getValue() != checksum) {
+                break;
+            }
+            ByteBuffer record = ByteBuffer.wrap(payload, 0, length);
+            byte operation = record.get();
+            int idLength = record.getShort() & 0xFFFF;
+            String accountNumber = new String(payload, record.position(), idLength, StandardCharsets.UTF_8);
+            record.position(record.position() + idLength);
+            double amount = record.getDouble();
+            handler.apply(operation, accountNumber, amount);
+            validLength += HEADER_SIZE + length;
+            count++;
+        }
+        channel.truncate(validLength);
+        channel.position(validLength);
+        durablePosition = validLength;
+        return count;
+    }
+
+    /**
+     * Appends a record to the log buffer. The record is not durable until
+     * {@link #awaitDurable(long)} returns for its sequence number.
+     *
+     * @param operation the operation code
+     * @param accountNumber the account number the operation applies to
+     * @param amount the amount of the operation, or 0 for a closure
+     * @return the sequence number of the appended record
+     * @throws IllegalArgumentException if the account number is longer than
+     *                                  {@link #MAX_ACCOUNT_NUMBER_BYTES} bytes
+     */
+    public synchronized long append(byte operation, String accountNumber, double amount) {
+        byte[] id = accountNumber.getBytes(StandardCharsets.UTF_8);
+        if (id.length > MAX_ACCOUNT_NUMBER_BYTES) {
+            throw new IllegalArgumentException("Account number is too long for the log.");
+        }
+        int length = 1 + 2 + id.length + 8;
+        ensureCapacity(HEADER_SIZE + length);
+        int start = pending.position();
+        pending.position(start + HEADER_SIZE);
+        pending.put(operation).putShort((short) id.length).put(id).putDouble(amount);
+        crc.reset();
+        crc.update(pending.array(), start + HEADER_SIZE, length);
+        pending.putInt(start, length).putInt(start + 4, (int) crc.getValue());
+        return ++appendedSequence;
+    }
+
+    /**
+     * Blocks until the record with the given sequence number, and every record before it,
+     * has been written and synced to disk.
+     *
+     * @param sequence the sequence number returned by {@link #append(byte, String, double)}
+     * @throws IOException if the records cannot be written or synced, now or by an earlier batch
+     */
+    public void awaitDurable(long sequence) throws IOException {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            checkHealthy();
+            ByteBuffer batch;
+            long batchSequence;
+            synchronized (this) {
+                batch = pending;
+                pending = spare;
+                batchSequence = appendedSequence;
+            }
+            batch.flip();
+            try {
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                failure = e;
+                discardFailedBatch(e);
+                throw e;
+            }
+            durablePosition += batch.limit();
+            syncCount++;
+            durableSequence = batchSequence;
+            batch.clear();
+            synchronized (this) {
+                spare = batch;
+            }
+        }
+    }
+
+    /**
+     * Checks whether an account number fits into a log record.
+     *
+     * @param accountNumber the account number to check
+     * @throws IllegalArgumentException if the account number is longer than
+     *                                  {@link #MAX_ACCOUNT_NUMBER_BYTES} bytes
+     */
+    public static void checkAccountNumber(String accountNumber) {
+        if (!fitsInRecord(accountNumber)) {
+            throw new IllegalArgumentException("Account number is too long for the log.");
+        }
+    }
+
+    /**
+     * Returns whether an account number fits into a log record.
+     *
+     * @param accountNumber the account number to check; null is reported as fitting
+     * @return false if the account number is longer than {@link #MAX_ACCOUNT_NUMBER_BYTES} bytes
+     */
+    public static boolean fitsInRecord(String accountNumber) {
+        return accountNumber == null || accountNumber.length() <= MAX_ACCOUNT_NUMBER_BYTES / 3
+                || accountNumber.getBytes(StandardCharsets.UTF_8).length <= MAX_ACCOUNT_NUMBER_BYTES;
+    }
+
+    /**
+     * Returns whether an earlier batch failed to be written or synced.
+     *
+     * @return true if the log has failed
+     */
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Returns the sequence number of the last record known to be on disk.
+     *
+     * @return the durable sequence number, or 0 if no record has been synced
+     */
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    /**
+     * Returns the number of syncs performed since the log was opened.
+     *
+     * @return the number of syncs
+     */
+    public long getSyncCount() {
+        return syncCount;
+    }
+
+    /**
+     * Writes any buffered records, syncs them and closes the log file.
+     *
+     * @throws IOException if the records cannot be written or the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        long last;
+        synchronized (this) {
+            last = appendedSequence;
+        }
+        try {
+            awaitDurable(last);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Truncates the file back to the end of the last durable record, so that no part of a
+     * failed batch is replayed. A truncation that fails is attached to the batch's error.
+     *
+     * @param error the error that made the batch fail
+     */
+    private void discardFailedBatch(IOException error) {
+        try {
+            channel.truncate(durablePosition);
+            channel.force(false);
+        } catch (IOException e) {
+            error.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Throws if an earlier batch failed.
+     *
+     * @throws IOException if the log has failed
+     */
+    private void checkHealthy() throws IOException {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new IOException("The log failed to write an earlier batch.", cause);
+        }
+    }
+
+    /**
+     * Grows the pending buffer so that it can hold the given number of additional bytes.
+     *
+     * @param bytes the number of bytes about to be appended
+     */
+    private void ensureCapacity(int bytes) {
+        if (pending.remaining() >= bytes) {
+            return;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+        pending.flip();
+        larger.put(pending);
+        pending = larger;
+    }
+}
@@ -0,0 +1,103 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures group commit throughput of the DurableBank and recovery time of its write-ahead log.
+ *
+ * <p> The first phase runs concurrent deposits through a DurableBank and reports operations per
+ * second and operations per disk sync. The second phase writes a log with the requested number of
+ * records and times how long a DurableBank takes to replay it.
+ */
+public class WriteAheadLogBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional record count for the recovery phase (for example 10000000),
+     *             deposit thread count and the directory to place the log files in
+     * @throws Exception if the benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        long records = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        Path directory = args.length > 2 ? Path.of(args[2]) : Files.createTempDirectory("wal-benchmark");
+
+        groupCommit(directory.resolve("group-commit.wal"), threads, 2_000);
+        recovery(directory.resolve("recovery.wal"), records);
+    }
+
+    /**
+     * Runs concurrent durable deposits and reports throughput and batching.
+     *
+     * @param file the log file to use
+     * @param threads the number of depositing threads
+     * @param depositsPerThread the number of deposits each thread performs
+     * @throws Exception if the benchmark fails
+     */
+    private static void groupCommit(Path file, int threads, int depositsPerThread) throws Exception {
+        Files.deleteIfExists(file);
+        try (DurableBank bank = new DurableBank(file)) {
+            for (int t = 0; t < threads; t++) {
+                bank.createAccount("ACC" + t, 0);
+            }
+            long syncsBefore = bank.getSyncCount();
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                String accountNumber = "ACC" + t;
+                workers[t] = new Thread(() -> {
+                    for (int i = 0; i < depositsPerThread; i++) {
+                        bank.depositToAccount(accountNumber, 1);
+                    }
+                });
+            }
+            long start = System.nanoTime();
+            for (Thread worker : workers) {
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            long nanos = System.nanoTime() - start;
+            long deposits = (long) threads * depositsPerThread;
+            long syncs = bank.getSyncCount() - syncsBefore;
+            System.out.printf("Group commit: %d threads, %.0f durable deposits/s, %.1f deposits per sync%n",
+                    threads, deposits / (nanos / 1e9), (double) deposits / syncs);
+        }
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Writes a log of the given size and times its replay.
+     *
+     * @param file the log file to use
+     * @param records the number of records to write
+     * @throws IOException if the log cannot be written or read
+     */
+    private static void recovery(Path file, long records) throws IOException {
+        Files.deleteIfExists(file);
+        int accounts = (int) Math.min(100_000, Math.max(1, records / 10));
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            for (int i = 0; i < accounts; i++) {
+                log.append(WriteAheadLog.CREATE, "ACC" + i, 100);
+            }
+            for (long i = accounts; i < records; i++) {
+                log.append(WriteAheadLog.DEPOSIT, "ACC" + (i % accounts), 1);
+                if (i % 100_000 == 0) {
+                    log.awaitDurable(i);
+                }
+            }
+        }
+        long bytes = Files.size(file);
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            try (DurableBank bank = new DurableBank(file)) {
+                long nanos = System.nanoTime() - start;
+                System.out.printf("Recovery: %d records (%d MB) replayed in %d ms, %.2f M records/s, %d accounts%n",
+                        bank.getRecoveredRecords(), bytes >> 20, nanos / 1_000_000,
+                        bank.getRecoveredRecords() / (nanos / 1000.0), bank.getNumAccounts());
+            }
+        }
+        Files.deleteIfExists(file);
+    }
+}